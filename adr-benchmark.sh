@@ -0,0 +1,24 @@
+#!/bin/bash
+# Runs the populate plan once per thread count and reports ANF statements/sec for each run.
+# Usage: ./adr-benchmark.sh [thread counts...]   (default: 1 2 4 8 16)
+THREADS=${*:-"1 2 4 8 16"}
+OUT=./build/benchmark
+mkdir -p $OUT
+
+printf "%8s %10s %10s %12s\n" threads statements seconds "stmts/sec"
+for t in $THREADS; do
+  rm -f $OUT/threads-$t.jtl
+  jmeter -p "./jmeter/data_load.properties" -JnoThreads=$t -JthreadDelay=0 -n -t ./jmeter/OpenCDX.jmx -l $OUT/threads-$t.jtl > $OUT/threads-$t.log
+  awk -F, -v threads=$t '
+    NR == 1 { for (i = 1; i <= NF; i++) col[$i] = i; next }
+    $col["URL"] ~ /\/anf$/ && $col["success"] == "true" {
+      count++
+      start = $col["timeStamp"]; end = start + $col["elapsed"]
+      if (min == "" || start < min) min = start
+      if (end > max) max = end
+    }
+    END {
+      seconds = (max - min) / 1000
+      printf "%8d %10d %10.1f %12.1f\n", threads, count, seconds, seconds > 0 ? count / seconds : 0
+    }' $OUT/threads-$t.jtl
+done
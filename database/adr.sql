@@ -1,37 +1,78 @@
 -- Dimension Tables
 
+-- Ids come from sequences incremented by 50. The application reserves a block of 50 ids per sequence call
+-- (Hibernate pooled optimizer), so inserts can be batched. The increment must match allocationSize on the entities.
+
 -- Represents medical concepts (diseases, procedures, etc.)
+CREATE SEQUENCE dimtinkarconcept_id_seq INCREMENT BY 50;
 CREATE TABLE DimTinkarConcept (
-                                  id BIGSERIAL PRIMARY KEY,  -- Unique identifier
+                                  id BIGINT PRIMARY KEY DEFAULT nextval('dimtinkarconcept_id_seq'),  -- Unique identifier
                                   concept_id UUID,           -- External concept identifier (likely a UUID)
                                   concept_name TEXT,         -- Name of the concept
                                   concept_description TEXT,  -- Description of the concept
                                   sync BOOLEAN                -- Indicates if the concept is synchronized with an external source
 );
+CREATE UNIQUE INDEX dimtinkarconcept_concept_id_key ON DimTinkarConcept (concept_id);
+CREATE INDEX dimtinkarconcept_concept_description_idx ON DimTinkarConcept USING hash (concept_description);
+
+-- Transitive closure of the concept hierarchy for the concepts above, including each concept with itself at depth 0
+CREATE TABLE DimConceptClosure (
+                                   ancestor_id UUID NOT NULL,    -- Ancestor concept identifier
+                                   descendant_id UUID NOT NULL,  -- Descendant concept identifier
+                                   depth INT NOT NULL,           -- Length of the shortest is-a path, 0 for the concept itself
+                                   PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX dimconceptclosure_descendant_idx ON DimConceptClosure (descendant_id, depth);
+
+-- Checksums of the seed catalogs loaded into DimTinkarConcept, so unchanged catalogs are skipped on startup
+CREATE TABLE SeedCatalog (
+                             name TEXT PRIMARY KEY,        -- Catalog name
+                             version INT NOT NULL,         -- Version declared by the catalog
+                             checksum TEXT NOT NULL,       -- SHA-256 of the catalog resource
+                             loaded_at TIMESTAMP NOT NULL  -- When the catalog was last loaded
+);
+
+-- Versions cached query reports are checked against, with the changes folded into them
+CREATE TABLE QueryCacheVersion (
+                                   stripe INT PRIMARY KEY,       -- Stripe of concept and participant UUIDs, negative for all reports
+                                   version BIGINT NOT NULL       -- Number of changes of the stripe folded in
+);
+
+-- Changes not folded into QueryCacheVersion yet, inserted by every transaction storing statements
+CREATE SEQUENCE querycachechange_id_seq INCREMENT BY 50;
+CREATE TABLE QueryCacheChange (
+                                  id BIGINT PRIMARY KEY DEFAULT nextval('querycachechange_id_seq'),  -- Unique identifier
+                                  stripe INT NOT NULL           -- Stripe the statements were stored for
+);
 
 -- Represents references (e.g., medical literature, guidelines)
+CREATE SEQUENCE dimreference_id_seq INCREMENT BY 50;
 CREATE TABLE DimReference (
-                              id BIGSERIAL PRIMARY KEY,      -- Unique identifier
+                              id BIGINT PRIMARY KEY DEFAULT nextval('dimreference_id_seq'),      -- Unique identifier
                               identifier TEXT,               -- Reference identifier (e.g., DOI, PMID)
                               display TEXT,                 -- Display name for the reference
                               reference TEXT,               -- Full reference text
-                              uri TEXT                      -- URI if applicable
+                              uri TEXT,                     -- URI if applicable
+                              intern_key TEXT UNIQUE        -- Hash of the values above, shares identical rows between statements
 );
 
 -- Represents measurements (e.g., lab results, vital signs)
+CREATE SEQUENCE dimmeasure_id_seq INCREMENT BY 50;
 CREATE TABLE DimMeasure (
-                            id BIGSERIAL PRIMARY KEY,          -- Unique identifier
+                            id BIGINT PRIMARY KEY DEFAULT nextval('dimmeasure_id_seq'),          -- Unique identifier
                             upper_bound DOUBLE PRECISION,     -- Upper limit of the measurement range
                             lower_bound DOUBLE PRECISION,     -- Lower limit of the measurement range
                             include_upper_bound BOOLEAN,      -- Indicates if the upper bound is inclusive
                             include_lower_bound BOOLEAN,      -- Indicates if the lower bound is inclusive
                             semantic_id BIGINT REFERENCES DimTinkarConcept(id), -- Concept associated with the measurement
-                            resolution DOUBLE PRECISION       -- Resolution of the measurement (e.g., decimal places)
+                            resolution DOUBLE PRECISION,      -- Resolution of the measurement (e.g., decimal places)
+                            intern_key TEXT UNIQUE            -- Hash of the values above, shares identical rows between statements
 );
 
 -- Represents temporary calculated concepts
+CREATE SEQUENCE dimcalculatedconcept_id_seq INCREMENT BY 50;
 CREATE TABLE DimCalculatedConcept (
-                                     id BIGSERIAL PRIMARY KEY,          -- Unique identifier
+                                     id BIGINT PRIMARY KEY DEFAULT nextval('dimcalculatedconcept_id_seq'),          -- Unique identifier
                                      concept_name TEXT,                -- Name of the calculated concept
                                      participant_id UUID,          -- ID of the participant
                                      thread_name TEXT,                 -- Name of the thread
@@ -39,31 +80,35 @@ CREATE TABLE DimCalculatedConcept (
 );
 
 -- Represents participants (patients, subjects) in medical events
+CREATE SEQUENCE dimparticipant_id_seq INCREMENT BY 50;
 CREATE TABLE DimParticipant (
-                                id BIGSERIAL PRIMARY KEY,          -- Unique identifier
+                                id BIGINT PRIMARY KEY DEFAULT nextval('dimparticipant_id_seq'),          -- Unique identifier
                                 part_id UUID,                     -- External participant identifier (likely a UUID)
                                 practitioner_value_id BIGINT REFERENCES DimReference(id), -- Reference to the participant's practitioner
                                 code_id BIGINT REFERENCES DimTinkarConcept(id)  -- Concept representing the participant's role
 );
 
 -- Represents practitioners (doctors, nurses, etc.)
+CREATE SEQUENCE dimpractitioner_id_seq INCREMENT BY 50;
 CREATE TABLE DimPractitioner (
-                                 id BIGSERIAL PRIMARY KEY,          -- Unique identifier
+                                 id BIGINT PRIMARY KEY DEFAULT nextval('dimpractitioner_id_seq'),          -- Unique identifier
                                  pract_id UUID,                     -- External practitioner identifier (likely a UUID)
                                  practitioner_value_id BIGINT REFERENCES DimReference(id), -- Reference to the practitioner's information
                                  code_id BIGINT REFERENCES DimTinkarConcept(id)  -- Concept representing the practitioner's role
 );
 
 -- Represents associated statements (e.g., conditions, observations)
+CREATE SEQUENCE dimassociatedstatement_id_seq INCREMENT BY 50;
 CREATE TABLE DimAssociatedStatement (
-                                        id BIGSERIAL PRIMARY KEY,              -- Unique identifier
+                                        id BIGINT PRIMARY KEY DEFAULT nextval('dimassociatedstatement_id_seq'),              -- Unique identifier
                                         state_id BIGINT REFERENCES DimReference(id),  -- Reference to the associated statement
                                         semantic_id BIGINT REFERENCES DimTinkarConcept(id)  -- Concept representing the associated statement
 );
 
 -- Represents repetitions of medical events (e.g., medication schedules)
+CREATE SEQUENCE dimrepetition_id_seq INCREMENT BY 50;
 CREATE TABLE DimRepetition (
-                               id BIGSERIAL PRIMARY KEY,                  -- Unique identifier
+                               id BIGINT PRIMARY KEY DEFAULT nextval('dimrepetition_id_seq'),                  -- Unique identifier
                                period_start_id BIGINT REFERENCES DimMeasure(id),      -- Measurement representing the start of the period
                                period_duration_id BIGINT REFERENCES DimMeasure(id),    -- Measurement representing the duration of the period
                                event_frequency_id BIGINT REFERENCES DimMeasure(id),    -- Measurement representing the frequency of events
@@ -72,8 +117,9 @@ CREATE TABLE DimRepetition (
 );
 
 -- Represents circumstances surrounding the performance of a medical action
+CREATE SEQUENCE factperformancecircumstance_id_seq INCREMENT BY 50;
 CREATE TABLE FactPerformanceCircumstance (
-                                             id BIGSERIAL PRIMARY KEY,              -- Unique identifier
+                                             id BIGINT PRIMARY KEY DEFAULT nextval('factperformancecircumstance_id_seq'),              -- Unique identifier
                                              timing_id BIGINT REFERENCES DimMeasure(id),      -- Timing of the performance
                                              status_id BIGINT REFERENCES DimTinkarConcept(id),  -- Status of the performance (e.g., completed, in progress)
                                              result_id BIGINT REFERENCES DimMeasure(id),      -- Result of the performance (if applicable)
@@ -82,8 +128,9 @@ CREATE TABLE FactPerformanceCircumstance (
 );
 
 -- Represents circumstances surrounding a medical request
+CREATE SEQUENCE factrequestcircumstance_id_seq INCREMENT BY 50;
 CREATE TABLE FactRequestCircumstance (
-                                         id BIGSERIAL PRIMARY KEY,          -- Unique identifier
+                                         id BIGINT PRIMARY KEY DEFAULT nextval('factrequestcircumstance_id_seq'),          -- Unique identifier
                                          timing_id BIGINT REFERENCES DimMeasure(id),  -- Timing of the request
                                          priority_id BIGINT REFERENCES DimTinkarConcept(id), -- Priority of the request
                                          requested_result_id BIGINT REFERENCES DimMeasure(id), -- Requested result of the action
@@ -91,16 +138,18 @@ CREATE TABLE FactRequestCircumstance (
 );
 
 -- Represents narrative circumstances surrounding a medical event
+CREATE SEQUENCE factnarrativecircumstance_id_seq INCREMENT BY 50;
 CREATE TABLE FactNarrativeCircumstance (
-                                           id BIGSERIAL PRIMARY KEY,      -- Unique identifier
+                                           id BIGINT PRIMARY KEY DEFAULT nextval('factnarrativecircumstance_id_seq'),      -- Unique identifier
                                            timing_id BIGINT REFERENCES DimMeasure(id), -- Timing of the narrative
                                            text TEXT                     -- Narrative text
 );
 
 -- This table stores the atomic narrative findings. It is a fact table that relates to the various dimensions and fact tables
+CREATE SEQUENCE dimanfstatement_id_seq INCREMENT BY 50;
 CREATE TABLE DimANFStatement (
-                                 id BIGSERIAL PRIMARY KEY,                      -- Unique identifier
-                                 anfId UUID NOT NULL,                            -- External statement identifier (likely a UUID)
+                                 id BIGINT PRIMARY KEY DEFAULT nextval('dimanfstatement_id_seq'),                      -- Unique identifier
+                                 anfId UUID NOT NULL UNIQUE,                     -- External statement identifier, resubmissions return the stored statement
                                  time_id BIGINT REFERENCES DimMeasure(id),          -- Time of the statement
                                  subject_of_record_id BIGINT REFERENCES DimParticipant(id), -- Participant the statement is about
                                  subject_of_information_id BIGINT REFERENCES DimTinkarConcept(id), -- Concept representing the subject of the information
@@ -174,8 +223,9 @@ CREATE TABLE RequestCircumstance_DeviceId (
                                               PRIMARY KEY (request_circumstance_id, deviceId)
 );
 
+CREATE SEQUENCE savedquery_id_seq INCREMENT BY 50;
 CREATE TABLE SavedQuery (
-                            id BIGSERIAL PRIMARY KEY,
+                            id BIGINT PRIMARY KEY DEFAULT nextval('savedquery_id_seq'),
                             name TEXT NOT NULL,
                             content TEXT NOT NULL
 );
\ No newline at end of file
@@ -0,0 +1,16 @@
+-- Adds the indexes used to resolve concepts during ingestion: by concept UUID, and by description for JSON expression
+-- values and free text expressions.
+--
+-- Descriptions are unbounded text, so they are indexed with a hash index, which only supports equality lookups.
+--
+-- The plain concept_id index is only created while the unique index of migrate-unique-concept-id.sql is missing, so
+-- the two scripts can run in either order and the unique index is never shadowed by a redundant one.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_indexes WHERE tablename = 'dimtinkarconcept' AND indexname = 'dimtinkarconcept_concept_id_key') THEN
+        CREATE INDEX IF NOT EXISTS dimtinkarconcept_concept_id_idx ON dimtinkarconcept (concept_id);
+    END IF;
+END
+$$;
+CREATE INDEX IF NOT EXISTS dimtinkarconcept_concept_description_idx ON dimtinkarconcept USING hash (concept_description);
@@ -0,0 +1,10 @@
+-- Adds the intern_key columns used to share identical dimmeasure and dimreference rows between ANF statements.
+--
+-- Existing rows keep a NULL key and are never reused; only rows stored after the upgrade are shared.  The unique
+-- index allows any number of NULL keys.
+
+ALTER TABLE dimmeasure ADD COLUMN IF NOT EXISTS intern_key TEXT;
+CREATE UNIQUE INDEX IF NOT EXISTS dimmeasure_intern_key_key ON dimmeasure (intern_key);
+
+ALTER TABLE dimreference ADD COLUMN IF NOT EXISTS intern_key TEXT;
+CREATE UNIQUE INDEX IF NOT EXISTS dimreference_intern_key_key ON dimreference (intern_key);
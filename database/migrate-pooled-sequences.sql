@@ -0,0 +1,21 @@
+-- Migrates a database created with the BIGSERIAL version of adr.sql to the pooled sequences used by the application.
+--
+-- Each id sequence is switched to INCREMENT BY 50, matching allocationSize on the entities, and restarted just past
+-- the highest id in use.  The application hands out ids in blocks ending at the value returned by nextval, so the
+-- restart point only has to be at or above the current maximum.  Run it with the application stopped.
+
+DO $$
+DECLARE
+    t TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'dimtinkarconcept', 'dimreference', 'dimmeasure', 'dimcalculatedconcept', 'dimparticipant',
+        'dimpractitioner', 'dimassociatedstatement', 'dimrepetition', 'factperformancecircumstance',
+        'factrequestcircumstance', 'factnarrativecircumstance', 'dimanfstatement', 'savedquery']
+    LOOP
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_id_seq');
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', t) INTO max_id;
+        PERFORM setval(t || '_id_seq', GREATEST(max_id, 1));
+    END LOOP;
+END $$;
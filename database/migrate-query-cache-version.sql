@@ -0,0 +1,15 @@
+-- Adds the tables cached query reports are checked against. Every transaction storing statements inserts a change row
+-- per stripe of their concepts and participants, and the application folds the changes into the version rows, so a
+-- report cached on one node is dropped when any node stores statements it could change. Version rows are added on
+-- first use.
+
+CREATE TABLE IF NOT EXISTS QueryCacheVersion (
+                                                 stripe INT PRIMARY KEY,
+                                                 version BIGINT NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS querycachechange_id_seq INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS QueryCacheChange (
+                                                id BIGINT PRIMARY KEY DEFAULT nextval('querycachechange_id_seq'),
+                                                stripe INT NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Adds the table recording the checksum of each loaded seed catalog. With it in place, a node whose seed catalog is
+-- unchanged skips seeding on startup.
+
+CREATE TABLE IF NOT EXISTS SeedCatalog (
+                                           name TEXT PRIMARY KEY,
+                                           version INT NOT NULL,
+                                           checksum TEXT NOT NULL,
+                                           loaded_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,21 @@
+-- Makes dimanfstatement.anfid unique, so resubmitted statements return the stored statement instead of a duplicate.
+--
+-- Existing duplicates are removed first, keeping the oldest row of each anfid.  Their links to concepts, authors and
+-- associated statements are removed with them; the dimension rows they point to are left in place.  Run it with the
+-- application stopped.
+
+BEGIN;
+
+CREATE TEMPORARY TABLE duplicate_anf_statement ON COMMIT DROP AS
+SELECT id
+FROM (SELECT id, row_number() OVER (PARTITION BY anfid ORDER BY id) AS n FROM dimanfstatement) ranked
+WHERE n > 1;
+
+DELETE FROM unionanfstatement_tinkarconcept WHERE anf_statement_id IN (SELECT id FROM duplicate_anf_statement);
+DELETE FROM unionanfstatement_authors WHERE anf_statement_id IN (SELECT id FROM duplicate_anf_statement);
+DELETE FROM unionanfstatement_associatedstatement WHERE anf_statement_id IN (SELECT id FROM duplicate_anf_statement);
+DELETE FROM dimanfstatement WHERE id IN (SELECT id FROM duplicate_anf_statement);
+
+CREATE UNIQUE INDEX IF NOT EXISTS dimanfstatement_anfid_key ON dimanfstatement (anfid);
+
+COMMIT;
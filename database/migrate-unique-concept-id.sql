@@ -0,0 +1,56 @@
+-- Makes dimtinkarconcept.concept_id unique, so concurrent ingestion on several nodes stores each concept once.
+--
+-- Existing duplicates are merged into the oldest row of each concept_id: every reference to a duplicate is moved to
+-- that row and the duplicates are deleted.  Run it with the application stopped.
+
+BEGIN;
+
+CREATE TEMPORARY TABLE duplicate_concept ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY concept_id) AS keep_id FROM dimtinkarconcept WHERE concept_id IS NOT NULL) ranked
+WHERE id <> keep_id;
+
+UPDATE dimmeasure t SET semantic_id = d.keep_id FROM duplicate_concept d WHERE t.semantic_id = d.id;
+UPDATE dimparticipant t SET code_id = d.keep_id FROM duplicate_concept d WHERE t.code_id = d.id;
+UPDATE dimpractitioner t SET code_id = d.keep_id FROM duplicate_concept d WHERE t.code_id = d.id;
+UPDATE dimassociatedstatement t SET semantic_id = d.keep_id FROM duplicate_concept d WHERE t.semantic_id = d.id;
+UPDATE factperformancecircumstance t SET status_id = d.keep_id FROM duplicate_concept d WHERE t.status_id = d.id;
+UPDATE factperformancecircumstance t SET health_risk_id = d.keep_id FROM duplicate_concept d WHERE t.health_risk_id = d.id;
+UPDATE factrequestcircumstance t SET priority_id = d.keep_id FROM duplicate_concept d WHERE t.priority_id = d.id;
+UPDATE dimanfstatement t SET subject_of_information_id = d.keep_id FROM duplicate_concept d WHERE t.subject_of_information_id = d.id;
+UPDATE dimanfstatement t SET topic_id = d.keep_id FROM duplicate_concept d WHERE t.topic_id = d.id;
+UPDATE dimanfstatement t SET method_id = d.keep_id FROM duplicate_concept d WHERE t.method_id = d.id;
+UPDATE dimanfstatement t SET type_id = d.keep_id FROM duplicate_concept d WHERE t.type_id = d.id;
+
+-- Link tables have the concept in their primary key, so the links are copied to the kept row and then removed
+INSERT INTO unionanfstatement_tinkarconcept (anf_statement_id, concept_id)
+SELECT t.anf_statement_id, d.keep_id FROM unionanfstatement_tinkarconcept t JOIN duplicate_concept d ON t.concept_id = d.id
+ON CONFLICT DO NOTHING;
+DELETE FROM unionanfstatement_tinkarconcept WHERE concept_id IN (SELECT id FROM duplicate_concept);
+
+INSERT INTO unionperformancecircumstance_purpose (performance_circumstance_id, purpose_id)
+SELECT t.performance_circumstance_id, d.keep_id FROM unionperformancecircumstance_purpose t JOIN duplicate_concept d ON t.purpose_id = d.id
+ON CONFLICT DO NOTHING;
+DELETE FROM unionperformancecircumstance_purpose WHERE purpose_id IN (SELECT id FROM duplicate_concept);
+
+INSERT INTO performancecircumstance_deviceid (performance_circumstance_id, deviceid)
+SELECT t.performance_circumstance_id, d.keep_id FROM performancecircumstance_deviceid t JOIN duplicate_concept d ON t.deviceid = d.id
+ON CONFLICT DO NOTHING;
+DELETE FROM performancecircumstance_deviceid WHERE deviceid IN (SELECT id FROM duplicate_concept);
+
+INSERT INTO unionrequestcircumstance_purpose (request_circumstance_id, purpose_id)
+SELECT t.request_circumstance_id, d.keep_id FROM unionrequestcircumstance_purpose t JOIN duplicate_concept d ON t.purpose_id = d.id
+ON CONFLICT DO NOTHING;
+DELETE FROM unionrequestcircumstance_purpose WHERE purpose_id IN (SELECT id FROM duplicate_concept);
+
+INSERT INTO unionnarrativecircumstance_purpose (narrative_circumstance_id, purpose_id)
+SELECT t.narrative_circumstance_id, d.keep_id FROM unionnarrativecircumstance_purpose t JOIN duplicate_concept d ON t.purpose_id = d.id
+ON CONFLICT DO NOTHING;
+DELETE FROM unionnarrativecircumstance_purpose WHERE purpose_id IN (SELECT id FROM duplicate_concept);
+
+DELETE FROM dimtinkarconcept WHERE id IN (SELECT id FROM duplicate_concept);
+
+DROP INDEX IF EXISTS dimtinkarconcept_concept_id_idx;
+CREATE UNIQUE INDEX IF NOT EXISTS dimtinkarconcept_concept_id_key ON dimtinkarconcept (concept_id);
+
+COMMIT;
@@ -1,21 +1,25 @@
 package cdx.opencdx.adr.config;
 
 import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.ConceptSeedService;
 import cdx.opencdx.adr.service.IKMInterface;
 import cdx.opencdx.adr.service.OpenCDXANFProcessor;
 import cdx.opencdx.adr.service.impl.IKMInterfaceImpl;
 import cdx.opencdx.adr.service.impl.LogicalExpressionProcessor;
 import cdx.opencdx.adr.service.impl.MapInterfaceImpl;
 import cdx.opencdx.adr.service.impl.RangeCheckProcessor;
+import cdx.opencdx.adr.utils.SqlStatementCounter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.hubspot.jackson.datatype.protobuf.ProtobufModule;
 import io.swagger.v3.core.jackson.ModelResolver;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
@@ -40,6 +44,8 @@ public class AppConfig {
      *
      * @param pathParent Parent path
      * @param pathChild  Child path
+     * @param conceptSeedService Seed catalog loader
+     * @param startAsync Open the data store in the background
      * @return IKM Interface
      */
     @Bean
@@ -48,17 +54,19 @@ public class AppConfig {
     @ConditionalOnProperty(prefix = "data.ikm", name = "enabled", havingValue = "true")
     public IKMInterface ikmInterface(@Value("${data.path.parent}") String pathParent,
                                      @Value("${data.path.child}") String pathChild,
-                                     TinkarConceptRepository conceptRepository) {
+                                     TinkarConceptRepository conceptRepository,
+                                     ConceptSeedService conceptSeedService,
+                                     @Value("${data.ikm.start-async:true}") boolean startAsync) {
         log.info("Creating IKM Interface");
-        return new IKMInterfaceImpl(pathParent, pathChild, conceptRepository);
+        return new IKMInterfaceImpl(pathParent, pathChild, conceptRepository, conceptSeedService, startAsync);
     }
 
     @Bean
     @Description("Mocked IKM Interface")
     @ConditionalOnMissingBean(IKMInterface.class)
-    public IKMInterface mockedIKMInterface(TinkarConceptRepository conceptRepository) {
+    public IKMInterface mockedIKMInterface(TinkarConceptRepository conceptRepository, ConceptSeedService conceptSeedService) {
         log.info("Creating Mocked IKM Interface");
-        return new MapInterfaceImpl(conceptRepository);
+        return new MapInterfaceImpl(conceptRepository, conceptSeedService);
     }
 
     /**
@@ -117,4 +125,26 @@ public class AppConfig {
         log.trace("Creating Model Resolver for Swagger");
         return new ModelResolver(objectMapper);
     }
+
+    /**
+     * Counts the SQL statements of profiled queries.
+     *
+     * @return the statement counter
+     */
+    @Bean
+    @Description("SQL statement counter for query profiles")
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Registers the statement counter with Hibernate.
+     *
+     * @param sqlStatementCounter the statement counter
+     * @return the customizer adding it as statement inspector
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
 }
@@ -0,0 +1,57 @@
+package cdx.opencdx.adr.config;
+
+import cdx.opencdx.adr.service.BulkLoadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * The BulkLoadRunner class runs the offline bulk loader when the application is started with
+ * {@code --data.bulk-load.file=<path>}, and by default exits once the file is loaded.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "data.bulk-load", name = "file")
+public class BulkLoadRunner implements ApplicationRunner {
+
+    private final BulkLoadService bulkLoadService;
+
+    private final ApplicationContext applicationContext;
+
+    private final Path file;
+
+    private final boolean exit;
+
+    /**
+     * Creates the runner.
+     *
+     * @param bulkLoadService    the service performing the load
+     * @param applicationContext the context to close when done
+     * @param file               the NDJSON file to load
+     * @param exit               whether to exit the application after the load
+     */
+    public BulkLoadRunner(BulkLoadService bulkLoadService, ApplicationContext applicationContext,
+                          @Value("${data.bulk-load.file}") String file,
+                          @Value("${data.bulk-load.exit:true}") boolean exit) {
+        this.bulkLoadService = bulkLoadService;
+        this.applicationContext = applicationContext;
+        this.file = Path.of(file);
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        this.bulkLoadService.load(this.file);
+        if (this.exit) {
+            log.info("Bulk load complete, exiting");
+            System.exit(SpringApplication.exit(this.applicationContext));
+        }
+    }
+}
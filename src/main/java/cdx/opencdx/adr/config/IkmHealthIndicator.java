@@ -0,0 +1,34 @@
+package cdx.opencdx.adr.config;
+
+import cdx.opencdx.adr.service.IKMInterface;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The IkmHealthIndicator class reports whether the IKM data store is open, as the {@code ikm} component of
+ * {@code /actuator/health}.  It is not part of the readiness group: ANF ingestion is accepted while the data store is
+ * opening, with its IKM lookups deferred, and only queries that need IKM are refused until it is open.
+ */
+@Component
+public class IkmHealthIndicator implements HealthIndicator {
+
+    private final IKMInterface ikmInterface;
+
+    /**
+     * Creates the health indicator.
+     *
+     * @param ikmInterface the IKM interface reported on
+     */
+    public IkmHealthIndicator(IKMInterface ikmInterface) {
+        this.ikmInterface = ikmInterface;
+    }
+
+    @Override
+    public Health health() {
+        if (this.ikmInterface.isReady()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("dataStore", "opening").build();
+    }
+}
@@ -1,17 +1,45 @@
 package cdx.opencdx.adr.controller;
 
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.dto.IngestionStageStats;
+import cdx.opencdx.adr.dto.IngestionStatus;
+import cdx.opencdx.adr.service.IngestionService;
 import cdx.opencdx.adr.service.OpenCDXAdrService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
 import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * The AnfController class is a REST controller that handles operations related to ANF statements.
  */
@@ -20,6 +48,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/anf", produces = MediaType.APPLICATION_JSON_VALUE)
 public class AnfController {
 
+    /**
+     * Content type of binary protobuf requests.
+     */
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
     /**
      * The variable objectMapper is used to map JSON strings to Java objects and vice versa.
      * It is an instance of the ObjectMapper class, which is provided by the Jackson library.
@@ -45,6 +78,16 @@ public class AnfController {
      */
     private final OpenCDXAdrService openCDXAdrService;
 
+    /**
+     * The asynchronous ingestion pipeline.
+     */
+    private final IngestionService ingestionService;
+
+    /**
+     * Records the time spent parsing statements.
+     */
+    private final IngestionMetrics metrics;
+
     /**
      * This constructor initializes an instance of AnfController with the provided ObjectMapper
      * and OpenCDXAdrService. It generates a sample ANFStatement and logs it using the provided
@@ -52,10 +95,15 @@ public class AnfController {
      *
      * @param objectMapper      The ObjectMapper instance used for logging the sample ANFStatement.
      * @param openCDXAdrService The OpenCDXAdrService instance to be used.
+     * @param ingestionService  The IngestionService used for asynchronous ingestion.
+     * @param metrics           The IngestionMetrics recording the time spent parsing statements.
      */
-    public AnfController(ObjectMapper objectMapper, OpenCDXAdrService openCDXAdrService) {
+    public AnfController(ObjectMapper objectMapper, OpenCDXAdrService openCDXAdrService, IngestionService ingestionService,
+                         IngestionMetrics metrics) {
         this.objectMapper = objectMapper;
         this.openCDXAdrService = openCDXAdrService;
+        this.ingestionService = ingestionService;
+        this.metrics = metrics;
     }
 
     /**
@@ -67,9 +115,238 @@ public class AnfController {
      */
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Long> postANFStatement(@RequestBody String data) throws JsonProcessingException {
-        ANFStatement anfStatement = objectMapper.readValue(data, ANFStatement.class);
+        Timer.Sample sample = this.metrics.start();
+        ANFStatement anfStatement;
+        try {
+            anfStatement = objectMapper.readValue(data, ANFStatement.class);
+        } finally {
+            this.metrics.stop(sample, "parse");
+        }
         return ResponseEntity.ok(this.openCDXAdrService.storeAnfStatement(anfStatement));
     }
 
+    /**
+     * Posts an ANF statement encoded as binary protobuf and stores it using OpenCDXAdrService.
+     *
+     * @param data The serialized ANFStatement message.
+     * @return A ResponseEntity with the ID of the stored ANF statement.
+     * @throws IOException If the body is not a valid ANFStatement message.
+     */
+    @PostMapping(consumes = PROTOBUF_VALUE)
+    public ResponseEntity<Long> postANFStatementProtobuf(InputStream data) throws IOException {
+        Timer.Sample sample = this.metrics.start();
+        ANFStatement anfStatement;
+        try {
+            anfStatement = ANFStatement.parseFrom(data);
+        } finally {
+            this.metrics.stop(sample, "parse");
+        }
+        return ResponseEntity.ok(this.openCDXAdrService.storeAnfStatement(anfStatement));
+    }
+
+    /**
+     * Posts a batch of ANF statements encoded as length delimited binary protobuf messages, as written by
+     * {@code writeDelimitedTo}, and stores them using OpenCDXAdrService.
+     *
+     * @param data The length delimited ANFStatement messages.
+     * @return A ResponseEntity with one BatchResult per submitted statement, holding the stored ID or the error.
+     * @throws IOException If a message is not a valid ANFStatement.
+     */
+    @PostMapping(value = "/batch", consumes = PROTOBUF_VALUE)
+    public ResponseEntity<List<BatchResult>> postANFStatementsProtobuf(InputStream data) throws IOException {
+        List<ANFStatement> statements = new ArrayList<>();
+        Timer.Sample sample = this.metrics.start();
+        try {
+            ANFStatement statement;
+            while ((statement = ANFStatement.parseDelimitedFrom(data)) != null) {
+                statements.add(statement);
+            }
+        } finally {
+            this.metrics.stop(sample, "parse");
+        }
+        log.info("Received protobuf batch of {} ANF statements", statements.size());
+        return ResponseEntity.ok(this.openCDXAdrService.storeAnfStatements(statements));
+    }
+
+    /**
+     * Posts a batch of ANF statements, either as a JSON array or as newline delimited JSON, and stores them
+     * using OpenCDXAdrService.
+     *
+     * @param contentType The content type of the request, application/json or application/x-ndjson.
+     * @param data        The request body.
+     * @return A ResponseEntity with one BatchResult per submitted statement, holding the stored ID or the error.
+     * @throws IOException If the body cannot be read.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BatchResult>> postANFStatements(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                               InputStream data) throws IOException {
+        ParsedBatch batch = new ParsedBatch();
+        Timer.Sample sample = this.metrics.start();
+        try {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+                this.readNdjson(data, batch);
+            } else {
+                this.readJsonArray(data, batch);
+            }
+        } finally {
+            this.metrics.stop(sample, "parse");
+        }
+        log.info("Received batch of {} ANF statements", batch.results.size());
+
+        this.openCDXAdrService.storeAnfStatements(batch.statements).forEach(result -> {
+            int position = batch.positions.get(result.getIndex());
+            result.setIndex(position);
+            batch.results.set(position, result);
+        });
+
+        return ResponseEntity.ok(batch.results);
+    }
+
+    /**
+     * Queues an ANF statement for asynchronous ingestion.
+     *
+     * @param data The ANF statement data in JSON format as a string.
+     * @return 202 with the tracking status of the statement, or 429 if the ingestion queue is full.
+     */
+    @PostMapping(value = "/async", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionStatus> postANFStatementAsync(@RequestBody String data) {
+        try {
+            return ResponseEntity.accepted().body(this.ingestionService.submit(data));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected ANF statement: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
 
+    /**
+     * Retrieves the status of an ANF statement queued for asynchronous ingestion.
+     *
+     * @param trackingId The tracking ID returned when the statement was queued.
+     * @return The status, or 404 if the tracking ID is unknown or has expired.
+     */
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable UUID trackingId) {
+        IngestionStatus status = this.ingestionService.getStatus(trackingId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves the queue depth and latency of each asynchronous ingestion stage.
+     *
+     * @return The statistics of each stage, in pipeline order.
+     */
+    @GetMapping("/async/stats")
+    public ResponseEntity<List<IngestionStageStats>> getIngestionStats() {
+        return ResponseEntity.ok(this.ingestionService.getStageStats());
+    }
+
+    /**
+     * Answers malformed requests with 400 and the reason, instead of an internal server error.
+     *
+     * @param e The exception describing what is wrong with the request.
+     * @return 400 with the message of the exception as {@code error}.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        log.warn("Rejected malformed request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * Answers protobuf bodies that are not valid ANFStatement messages with 400, as malformed JSON is.
+     *
+     * @param e The exception describing what is wrong with the message.
+     * @return 400 with the message of the exception as {@code error}.
+     */
+    @ExceptionHandler(InvalidProtocolBufferException.class)
+    public ResponseEntity<Map<String, String>> handleMalformedProtobuf(InvalidProtocolBufferException e) {
+        log.warn("Rejected malformed protobuf request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * Binds the elements of a JSON array to statements one element at a time, straight from the parser.  An element
+     * that is well formed JSON but not an ANF statement fails only itself: the rest of it is skipped.
+     *
+     * @param data  The request body.
+     * @param batch The batch the elements are added to.
+     * @throws IOException              If the body cannot be read.
+     * @throws IllegalArgumentException If the body is not a well formed JSON array.
+     */
+    private void readJsonArray(InputStream data, ParsedBatch batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of ANF statements");
+            }
+            JsonStreamContext array = parser.getParsingContext();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unterminated JSON array of ANF statements");
+                }
+                try {
+                    batch.parsed(objectMapper.readValue(parser, ANFStatement.class));
+                } catch (DatabindException e) {
+                    batch.failed(e.getOriginalMessage());
+                    while (parser.getParsingContext() != array) {
+                        if (parser.nextToken() == null) {
+                            throw new IllegalArgumentException("Unterminated JSON array of ANF statements");
+                        }
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON array of ANF statements: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Binds newline delimited JSON to statements one line at a time, skipping blank lines.  A line that cannot be
+     * bound fails only itself.
+     *
+     * @param data  The request body.
+     * @param batch The batch the lines are added to.
+     * @throws IOException If the body cannot be read.
+     */
+    private void readNdjson(InputStream data, ParsedBatch batch) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.parsed(objectMapper.readValue(line, ANFStatement.class));
+                } catch (JsonProcessingException e) {
+                    batch.failed(e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * The statements of a batch request that could be bound, and the result of each element in request order.  The
+     * results of bound statements are filled in once they are stored.
+     */
+    private static final class ParsedBatch {
+
+        private final List<BatchResult> results = new ArrayList<>();
+
+        private final List<ANFStatement> statements = new ArrayList<>();
+
+        /**
+         * The position in the request of each bound statement.
+         */
+        private final List<Integer> positions = new ArrayList<>();
+
+        void parsed(ANFStatement statement) {
+            this.positions.add(this.results.size());
+            this.statements.add(statement);
+            this.results.add(null);
+        }
+
+        void failed(String error) {
+            this.results.add(BatchResult.builder().index(this.results.size()).error(error).build());
+        }
+    }
 }
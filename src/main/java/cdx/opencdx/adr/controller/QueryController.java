@@ -2,14 +2,14 @@ package cdx.opencdx.adr.controller;
 
 
 import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.QueryProfile;
 import cdx.opencdx.adr.dto.Report;
 import cdx.opencdx.adr.dto.SavedQuery;
 import cdx.opencdx.adr.model.TinkarConceptModel;
-import cdx.opencdx.adr.service.IKMInterface;
+import cdx.opencdx.adr.service.ConceptSearchService;
+import cdx.opencdx.adr.service.IkmNotReadyException;
 import cdx.opencdx.adr.service.OpenCDXAdrService;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import dev.ikm.tinkar.common.service.PrimitiveData;
-import dev.ikm.tinkar.entity.EntityService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The QueryController class is responsible for handling queries.
@@ -40,14 +41,14 @@ public class QueryController {
      */
     private final OpenCDXAdrService adrService;
 
-    private final IKMInterface ikmInterface;
+    private final ConceptSearchService conceptSearchService;
 
     /**
      * The QueryController class is responsible for handling queries.
      */
-    public QueryController(OpenCDXAdrService adrService, IKMInterface ikmInterface) {
+    public QueryController(OpenCDXAdrService adrService, ConceptSearchService conceptSearchService) {
         this.adrService = adrService;
-        this.ikmInterface = ikmInterface;
+        this.conceptSearchService = conceptSearchService;
     }
 
     /**
@@ -75,9 +76,15 @@ public class QueryController {
     }
 
     @PostMapping("/json")
-    public ResponseEntity<Report> queryJSON(@RequestBody ADRQuery adrQuery) {
+    public ResponseEntity<Report> queryJSON(@RequestBody ADRQuery adrQuery, @RequestParam(defaultValue = "false") boolean profile) {
         log.info("Received query request");
-        return ResponseEntity.ok(adrService.getJsonQuery(adrQuery));
+        return ResponseEntity.ok(adrService.getJsonQuery(adrQuery, profile));
+    }
+
+    @PostMapping("/explain")
+    public ResponseEntity<QueryProfile> explainQuery(@RequestBody ADRQuery adrQuery) {
+        log.info("Received explain query request");
+        return ResponseEntity.ok(adrService.explainQuery(adrQuery));
     }
 
     @PostMapping("/csv")
@@ -136,13 +143,20 @@ public class QueryController {
 
     @GetMapping("/search")
     public ResponseEntity<List<TinkarConceptModel>> search(@RequestParam String search, @RequestParam(required = false) Integer limit) {
-        return ResponseEntity.ok(ikmInterface.search(search, limit != null ? limit : 30).stream().distinct().map(publicId -> {
-            TinkarConceptModel model = new TinkarConceptModel();
-            model.setConceptName(PrimitiveData.textOptional(EntityService.get().nidForPublicId(publicId)).orElse(null));
-            model.setConceptDescription(ikmInterface.descriptionsOf(List.of(publicId)).getFirst());
-            model.setConceptId(publicId.asUuidArray()[0]);
-
-            return model;
-        }).toList());
+        return ResponseEntity.ok(conceptSearchService.search(search, limit != null ? limit : 30));
+    }
+
+    /**
+     * Answers queries that need IKM while its data store is opening with 503, so clients retry instead of the request
+     * thread waiting for startup.
+     *
+     * @param e the exception raised by the IKM lookup
+     * @return 503 with a Retry-After header
+     */
+    @ExceptionHandler(IkmNotReadyException.class)
+    public ResponseEntity<Map<String, String>> handleIkmNotReady(IkmNotReadyException e) {
+        log.warn("Rejected query: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", String.valueOf(e.getMessage())));
     }
-}
\ No newline at end of file
+}
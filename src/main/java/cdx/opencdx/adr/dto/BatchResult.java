@@ -0,0 +1,24 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The BatchResult class represents the outcome of one ANF statement submitted through the batch endpoint.
+ * Exactly one of id or error is set.
+ */
+@Data
+@Builder
+@Schema(description = "The outcome of one ANF statement submitted in a batch. Exactly one of id or error is set.")
+public class BatchResult {
+
+    @Schema(description = "Position of the statement in the submitted batch, starting at 0.")
+    private int index;
+
+    @Schema(description = "The ID of the stored ANF statement, if it was stored.")
+    private Long id;
+
+    @Schema(description = "The reason the statement could not be parsed or stored.")
+    private String error;
+}
@@ -0,0 +1,38 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The BulkLoadReport class summarises one run of the offline NDJSON bulk loader.
+ */
+@Data
+@Builder
+@Schema(description = "Summary of one run of the offline NDJSON bulk loader.")
+public class BulkLoadReport {
+
+    @Schema(description = "The loaded file.")
+    private String file;
+
+    @Schema(description = "Byte offset the run resumed from, 0 for a fresh load.")
+    private long resumedFrom;
+
+    @Schema(description = "Number of statements read in this run.")
+    private long read;
+
+    @Schema(description = "Number of statements stored in this run.")
+    private long stored;
+
+    @Schema(description = "Number of statements that could not be parsed or stored in this run.")
+    private long failed;
+
+    @Schema(description = "Wall clock duration of the run in seconds.")
+    private double seconds;
+
+    @Schema(description = "Statements read per second.")
+    private double statementsPerSecond;
+
+    @Schema(description = "Megabytes of the file read per second.")
+    private double megabytesPerSecond;
+}
@@ -0,0 +1,38 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The IngestionStageStats class reports the queue depth and latency of one asynchronous ingestion stage.
+ */
+@Data
+@Builder
+@Schema(description = "Queue depth and latency of one asynchronous ingestion stage.")
+public class IngestionStageStats {
+
+    @Schema(description = "The name of the stage.")
+    private String name;
+
+    @Schema(description = "Number of statements waiting for the stage.")
+    private int queueDepth;
+
+    @Schema(description = "Maximum number of statements that may wait for the stage.")
+    private int queueCapacity;
+
+    @Schema(description = "Number of workers running the stage.")
+    private int workers;
+
+    @Schema(description = "Number of statements the stage has completed.")
+    private long processed;
+
+    @Schema(description = "Number of statements that failed in the stage.")
+    private long failed;
+
+    @Schema(description = "Average time the stage took per statement, in milliseconds.")
+    private double averageMillis;
+
+    @Schema(description = "Longest time the stage took for a statement, in milliseconds.")
+    private double maxMillis;
+}
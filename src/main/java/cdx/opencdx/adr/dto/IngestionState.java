@@ -0,0 +1,17 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Progress of an ANF statement submitted for asynchronous ingestion.")
+public enum IngestionState {
+    @Schema(description = "Waiting in the ingestion queue.")
+    QUEUED,
+    @Schema(description = "Being parsed, resolved and range checked.")
+    PRE_PROCESSING,
+    @Schema(description = "Being saved and linked to its concepts.")
+    PERSISTING,
+    @Schema(description = "Stored, the id is available.")
+    COMPLETED,
+    @Schema(description = "Could not be stored, the error is available.")
+    FAILED
+}
@@ -0,0 +1,32 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The IngestionStatus class reports the progress of an ANF statement submitted for asynchronous ingestion.
+ */
+@Data
+@Builder(toBuilder = true)
+@Schema(description = "The progress of an ANF statement submitted for asynchronous ingestion.")
+public class IngestionStatus {
+
+    @Schema(description = "The tracking ID returned when the statement was submitted.")
+    private UUID trackingId;
+
+    @Schema(description = "The current ingestion state.")
+    private IngestionState state;
+
+    @Schema(description = "The ID of the stored ANF statement, once completed.")
+    private Long id;
+
+    @Schema(description = "The reason ingestion failed, if it failed.")
+    private String error;
+
+    @Schema(description = "When the state last changed.")
+    private Instant updated;
+}
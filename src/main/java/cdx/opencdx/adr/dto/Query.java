@@ -6,9 +6,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Transient;
 import lombok.Data;
+import org.roaringbitmap.RoaringBitmap;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * The Query class represents a query object used for searching concepts.
@@ -157,9 +157,9 @@ public class Query {
     private List<AnfStatementModel> anfStatements;
 
     /**
-     *
+     * The cohort of participants matched by the query, as ordinals numbered while the enclosing query is processed.
      */
     @JsonIgnore
     @Transient
-    private List<UUID> conceptIds;
+    private RoaringBitmap participants;
 }
@@ -0,0 +1,29 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@Schema(description = "Profile of an evaluated ADR query.")
+public class QueryProfile {
+
+    @Schema(description = "The evaluated query tree.")
+    private QueryProfileNode plan;
+
+    @Schema(description = "Time and SQL statements per stage.")
+    private List<QueryProfileStage> stages;
+
+    @Schema(description = "Wall time of the whole query, in milliseconds.")
+    private double totalMillis;
+
+    @Schema(description = "Number of SQL statements issued.")
+    private long sqlStatements;
+
+    @Schema(description = "The distinct SQL statements issued, with how often each ran.  Only the first statements are listed.")
+    private Map<String, Long> sql;
+}
@@ -0,0 +1,47 @@
+package cdx.opencdx.adr.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One node of the evaluated query tree: a concept, group or formula query, or the AND or OR join of two nodes.")
+public class QueryProfileNode {
+
+    @Schema(description = "The kind of node: CONCEPT, GROUP, FORMULA, EMPTY, AND or OR.")
+    private String operation;
+
+    @Schema(description = "The concept, focus and comparison of the query.")
+    private String description;
+
+    @Schema(description = "Number of concepts the focus of the concept expands to.")
+    private Integer focusConcepts;
+
+    @Schema(description = "Whether the comparison ran in the database.")
+    private Boolean compiled;
+
+    @Schema(description = "Number of statements fetched before the comparison.")
+    private Integer rowsFetched;
+
+    @Schema(description = "Number of statements left after the comparison or join.")
+    private Integer rowsMatched;
+
+    @Schema(description = "Number of participants matched.")
+    private Integer participants;
+
+    @Schema(description = "Number of SQL statements issued for the node, including its children.")
+    private long sqlStatements;
+
+    @Schema(description = "Wall time of the node, including its children, in milliseconds.")
+    private double millis;
+
+    @Builder.Default
+    @Schema(description = "The nodes evaluated for this one: the parts of a group, or the two sides of a join.")
+    private List<QueryProfileNode> children = new ArrayList<>();
+}
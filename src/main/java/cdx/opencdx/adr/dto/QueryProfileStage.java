@@ -0,0 +1,20 @@
+package cdx.opencdx.adr.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Time and SQL statements of one stage of a profiled query.")
+public class QueryProfileStage {
+
+    @Schema(description = "The name of the stage: query, join, csv-build or format.")
+    private String name;
+
+    @Schema(description = "Wall time of the stage, in milliseconds.")
+    private double millis;
+
+    @Schema(description = "Number of SQL statements issued during the stage.")
+    private long sqlStatements;
+}
@@ -1,5 +1,6 @@
 package cdx.opencdx.adr.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,4 +11,6 @@ import java.util.List;
 public class Report {
     private List<String> headers;
     private List<Row> rows;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private QueryProfile profile;
 }
@@ -0,0 +1,142 @@
+package cdx.opencdx.adr.grpc;
+
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.BindableService;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The AnfGrpcService class accepts a client stream of binary ANFStatement messages over gRPC and stores them through
+ * the same batch path as {@code POST /anf/batch}.  Statements are buffered and stored in chunks of the ingestion batch
+ * size while the stream is open, so memory use does not grow with the length of the stream.
+ * <p>
+ * The service is {@value #SERVICE_NAME} with the client streaming method {@code Ingest}, taking
+ * {@code cdx.opencdx.grpc.data.ANFStatement} and returning a {@code google.protobuf.Struct} summary with the fields
+ * {@code received}, {@code stored}, {@code failed} and {@code errors}, a list of {@code {index, error}} structs.
+ * The method is described directly instead of generated from a service proto, so clients only need the ANFStatement
+ * message from opencdx-proto and the protobuf well known types.
+ */
+@Slf4j
+public class AnfGrpcService implements BindableService {
+
+    /**
+     * The fully qualified gRPC service name.
+     */
+    public static final String SERVICE_NAME = "cdx.opencdx.adr.AnfIngestion";
+
+    /**
+     * The client streaming Ingest method.
+     */
+    public static final MethodDescriptor<ANFStatement, Struct> INGEST_METHOD = MethodDescriptor.<ANFStatement, Struct>newBuilder()
+            .setType(MethodDescriptor.MethodType.CLIENT_STREAMING)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "Ingest"))
+            .setRequestMarshaller(ProtoUtils.marshaller(ANFStatement.getDefaultInstance()))
+            .setResponseMarshaller(ProtoUtils.marshaller(Struct.getDefaultInstance()))
+            .build();
+
+    private final OpenCDXAdrService openCDXAdrService;
+
+    private final int batchSize;
+
+    /**
+     * Creates the gRPC ingestion service.
+     *
+     * @param openCDXAdrService the service used to store the statements
+     * @param batchSize         the number of statements stored per chunk
+     */
+    public AnfGrpcService(OpenCDXAdrService openCDXAdrService, int batchSize) {
+        this.openCDXAdrService = openCDXAdrService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(SERVICE_NAME)
+                .addMethod(INGEST_METHOD, ServerCalls.asyncClientStreamingCall(IngestObserver::new))
+                .build();
+    }
+
+    /**
+     * Receives the statements of one Ingest call.  gRPC delivers the messages of a call one at a time, and does not
+     * deliver the next message while a chunk is being stored, so a fast client is held back by flow control.
+     * <p>
+     * Every statement received in full is stored, also when the stream fails or is cancelled afterwards: the chunks
+     * before it are already stored, so the buffered statements are stored as well and the outcome is logged, as the
+     * call can no longer carry a summary.  A client resubmitting the stream has the stored statements reported as
+     * duplicates.
+     */
+    private final class IngestObserver implements StreamObserver<ANFStatement> {
+        private final StreamObserver<Struct> responseObserver;
+        private final List<ANFStatement> pending = new ArrayList<>();
+        private final List<Value> errors = new ArrayList<>();
+        private int received;
+        private int stored;
+
+        private IngestObserver(StreamObserver<Struct> responseObserver) {
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(ANFStatement statement) {
+            this.pending.add(statement);
+            this.received++;
+            if (this.pending.size() >= AnfGrpcService.this.batchSize) {
+                this.store();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            int buffered = this.pending.size();
+            this.store();
+            log.warn("gRPC ingestion stream failed after {} statements, stored {} including {} buffered, {} failed: {}",
+                    this.received, this.stored, buffered, this.errors.size(), t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            this.store();
+            log.info("gRPC ingestion stream stored {} of {} ANF statements", this.stored, this.received);
+            this.responseObserver.onNext(Struct.newBuilder()
+                    .putFields("received", number(this.received))
+                    .putFields("stored", number(this.stored))
+                    .putFields("failed", number(this.errors.size()))
+                    .putFields("errors", Value.newBuilder().setListValue(ListValue.newBuilder().addAllValues(this.errors)).build())
+                    .build());
+            this.responseObserver.onCompleted();
+        }
+
+        private void store() {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+            int offset = this.received - this.pending.size();
+            for (BatchResult result : AnfGrpcService.this.openCDXAdrService.storeAnfStatements(this.pending)) {
+                if (result.getError() == null) {
+                    this.stored++;
+                } else {
+                    this.errors.add(Value.newBuilder().setStructValue(Struct.newBuilder()
+                            .putFields("index", number(offset + result.getIndex()))
+                            .putFields("error", Value.newBuilder().setStringValue(result.getError()).build())).build());
+                }
+            }
+            this.pending.clear();
+        }
+    }
+
+    private static Value number(int value) {
+        return Value.newBuilder().setNumberValue(value).build();
+    }
+}
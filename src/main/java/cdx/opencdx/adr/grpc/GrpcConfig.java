@@ -0,0 +1,73 @@
+package cdx.opencdx.adr.grpc;
+
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Description;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The GrpcConfig class starts the gRPC server used for binary ANF ingestion, when data.grpc.enabled is true.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "data.grpc", name = "enabled", havingValue = "true")
+public class GrpcConfig {
+
+    /**
+     * gRPC client streaming ANF ingestion service.
+     *
+     * @param openCDXAdrService the service used to store the statements
+     * @param batchSize         the number of statements stored per chunk
+     * @return the ingestion service
+     */
+    @Bean
+    @Description("gRPC ANF ingestion service")
+    public AnfGrpcService anfGrpcService(OpenCDXAdrService openCDXAdrService,
+                                         @Value("${data.ingest.batch-size:500}") int batchSize) {
+        return new AnfGrpcService(openCDXAdrService, batchSize);
+    }
+
+    /**
+     * Executor running gRPC calls on virtual threads, so a call that blocks while a chunk is stored does not hold a
+     * platform thread.  It is closed after the server shuts down, waiting for the calls still running.
+     *
+     * @return the executor
+     */
+    @Bean(destroyMethod = "close")
+    @Description("gRPC call executor")
+    public ExecutorService grpcExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * gRPC server hosting every BindableService bean, running calls on the gRPC call executor.
+     *
+     * @param port     the port to listen on
+     * @param services the services to host
+     * @param executor the executor running the calls
+     * @return the started gRPC server
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    @Description("gRPC server")
+    public Server grpcServer(@Value("${data.grpc.port:9090}") int port, List<BindableService> services,
+                             @Qualifier("grpcExecutor") ExecutorService executor) {
+        log.info("Creating gRPC server on port {}", port);
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .executor(executor);
+        services.forEach(builder::addService);
+        return builder.build();
+    }
+}
@@ -25,13 +25,14 @@ public class AnfStatementModel {
      * Represents the unique identifier for an AnfStatementModel object.
      * <p>
      * The id field is annotated with @Id, which signifies that it is the primary key for the corresponding database table.
-     * The @GeneratedValue annotation specifies the strategy for generating the id value, in this case, GenerationType.IDENTITY.
+     * The @GeneratedValue annotation specifies the strategy for generating the id value, in this case, a pooled sequence so inserts can be batched.
      * The @Column annotation specifies the column name in the database table as "id" and sets the nullable constraint to false.
      *
      * @see AnfStatementModel
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimanfstatement_seq")
+    @SequenceGenerator(name = "dimanfstatement_seq", sequenceName = "dimanfstatement_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -43,12 +44,13 @@ public class AnfStatementModel {
      * <p>
      * This variable is annotated with the @Column annotation to specify the mapping to the corresponding
      * database column named "anfid". The "nullable" attribute is set to false, indicating that this column
-     * must have a non-null value in the database table.
+     * must have a non-null value in the database table, and it is unique: resubmitting a statement returns the
+     * stored one instead of adding a duplicate.
      * <p>
      * This variable is declared as private, meaning it can only be accessed within the same class. It is recommended
      * to use appropriate getter and setter methods to access and modify the value of this variable.
      */
-    @Column(name = "anfid", nullable = false)
+    @Column(name = "anfid", nullable = false, unique = true)
     private UUID anfid;
 
     /**
@@ -266,7 +268,7 @@ public class AnfStatementModel {
      */
     public AnfStatementModel(ANFStatement anfStatement, ANFHelper anfRepo) {
         this.anfid = UUID.fromString(anfStatement.getId());
-        this.time = anfRepo.getMeasureRepository().save(new MeasureModel(anfStatement.getTime(), anfRepo));
+        this.time = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(anfStatement.getTime(), anfRepo));
         this.subjectOfRecord = anfRepo.getParticipantRepository().save(new ParticipantModel(anfStatement.getSubjectOfRecord(), anfRepo));
         this.subjectOfInformation = anfRepo.getOpenCDXIKMService().getInkarConceptModel(anfStatement.getSubjectOfInformation());
         this.topic = anfRepo.getOpenCDXIKMService().getInkarConceptModel(anfStatement.getTopic());
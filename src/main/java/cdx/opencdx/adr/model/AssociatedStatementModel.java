@@ -41,7 +41,8 @@ public class AssociatedStatementModel {
      *
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimassociatedstatement_seq")
+    @SequenceGenerator(name = "dimassociatedstatement_seq", sequenceName = "dimassociatedstatement_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -115,7 +116,7 @@ public class AssociatedStatementModel {
      * @param anfRepo             the ANF repository object
      */
     public AssociatedStatementModel(AssociatedStatement associatedStatement, ANFHelper anfRepo) {
-        this.stateId = anfRepo.getReferenceRepository().save(new ReferenceModel(associatedStatement.getId(), anfRepo));
+        this.stateId = anfRepo.getDimensionInternService().internReference(new ReferenceModel(associatedStatement.getId(), anfRepo));
         this.semantic = anfRepo.getOpenCDXIKMService().getInkarConceptModel(associatedStatement.getSemantic());
     }
 }
\ No newline at end of file
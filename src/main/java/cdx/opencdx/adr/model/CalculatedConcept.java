@@ -14,7 +14,8 @@ import java.util.UUID;
 @Table(name = "dimcalculatedconcept")
 public class CalculatedConcept {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimcalculatedconcept_seq")
+    @SequenceGenerator(name = "dimcalculatedconcept_seq", sequenceName = "dimcalculatedconcept_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -0,0 +1,63 @@
+package cdx.opencdx.adr.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The ConceptClosureModel class is one row of the transitive closure of the concept hierarchy: the ancestor, the
+ * descendant and the length of the shortest path between them.  Every concept in dimtinkarconcept has a row with
+ * itself at depth 0 and a row for each of its ancestors, so descendants and ancestors can be found with one indexed
+ * lookup instead of walking the hierarchy.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ConceptClosureModel.Key.class)
+@Table(name = "dimconceptclosure", indexes = @Index(name = "dimconceptclosure_descendant_idx", columnList = "descendant_id, depth"))
+public class ConceptClosureModel {
+
+    /**
+     * The UUID of the ancestor concept.
+     */
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+
+    /**
+     * The UUID of the descendant concept.
+     */
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+
+    /**
+     * The number of is-a steps from the descendant up to the ancestor, 0 for the concept itself.
+     */
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    /**
+     * The primary key of a closure row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+    }
+}
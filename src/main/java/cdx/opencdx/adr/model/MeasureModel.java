@@ -16,7 +16,7 @@ public class MeasureModel {
     /**
      * The id variable represents the identifier of a MeasureModel object.
      * It is annotated with the @Id annotation to indicate that it is the primary key of the entity.
-     * The @GeneratedValue annotation specifies the strategy for generating the identifier values, in this case, GenerationType.IDENTITY.
+     * The @GeneratedValue annotation specifies the strategy for generating the identifier values, in this case, a pooled sequence so inserts can be batched.
      * The @Column annotation is used to specify the mapping to the corresponding column in the database table, with the name attribute set to "id".
      * The nullable attribute is set to false, indicating that the id field cannot be null in the database.
      * <p>
@@ -31,7 +31,8 @@ public class MeasureModel {
      * and the logical expression is saved or retrieved from the logical expression repository.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimmeasure_seq")
+    @SequenceGenerator(name = "dimmeasure_seq", sequenceName = "dimmeasure_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -131,6 +132,13 @@ public class MeasureModel {
     @Column(name = "resolution")
     private Double resolution;
 
+    /**
+     * The SHA-256 hash of the values of this row, used to share identical rows between ANF statements.
+     * It is set by the DimensionInternService and backed by a unique index.
+     */
+    @Column(name = "intern_key", unique = true, updatable = false)
+    private String internKey;
+
     /**
      * Represents a model for storing a Measure object.
      *
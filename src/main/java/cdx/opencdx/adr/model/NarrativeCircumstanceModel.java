@@ -25,7 +25,8 @@ public class NarrativeCircumstanceModel {
      *
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "factnarrativecircumstance_seq")
+    @SequenceGenerator(name = "factnarrativecircumstance_seq", sequenceName = "factnarrativecircumstance_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -83,7 +84,7 @@ public class NarrativeCircumstanceModel {
      * @param anfRepo      the ANFRepo object used for saving data to the repository
      */
     public NarrativeCircumstanceModel(NarrativeCircumstance circumstance, ANFHelper anfRepo) {
-        this.timing = anfRepo.getMeasureRepository().save(new MeasureModel(circumstance.getTiming(), anfRepo));
+        this.timing = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(circumstance.getTiming(), anfRepo));
         this.text = circumstance.getText();
         this.purposes = circumstance.getPurposeList().stream().map(purpose -> anfRepo.getOpenCDXIKMService().getInkarConceptModel(purpose)).toList();
     }
@@ -27,7 +27,7 @@ public class ParticipantModel {
      * <p>
      * It is annotated with <code>@Id</code> to indicate that it is the primary key of the entity.
      * The <code>@GeneratedValue</code> annotation specifies the strategy for generating the value of the id.
-     * In this case, the strategy is <code>GenerationType.IDENTITY</code>, which means that the database will automatically assign a value to the id.
+     * In this case, the strategy is <code>GenerationType.SEQUENCE</code>, which allocates blocks of ids from a database sequence so inserts can be batched.
      * The <code>@Column</code> annotation specifies the mapping of the id attribute to the database column named "id".
      * The <code>nullable</code> property of the <code>@Column</code> annotation is set to <code>false</code>,
      * indicating that the id must have a value and cannot be null.
@@ -50,7 +50,8 @@ public class ParticipantModel {
      * @see Column
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimparticipant_seq")
+    @SequenceGenerator(name = "dimparticipant_seq", sequenceName = "dimparticipant_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -151,7 +152,7 @@ public class ParticipantModel {
      */
     public ParticipantModel(Participant participant, ANFHelper anfRepo) {
         this.partId = UUID.fromString(participant.getId());
-        this.practitioner = anfRepo.getReferenceRepository().save(new ReferenceModel(participant.getPractitionerValue(), anfRepo));
+        this.practitioner = anfRepo.getDimensionInternService().internReference(new ReferenceModel(participant.getPractitionerValue(), anfRepo));
         this.code = anfRepo.getOpenCDXIKMService().getInkarConceptModel(participant.getCode());
     }
 }
\ No newline at end of file
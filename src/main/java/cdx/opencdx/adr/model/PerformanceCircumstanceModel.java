@@ -24,7 +24,7 @@ public class PerformanceCircumstanceModel {
     /**
      * The unique identifier for an instance of a class.
      * This variable is annotated with the @Id annotation, indicating that it represents the primary key of the corresponding database table.
-     * It is generated automatically using the GenerationType.IDENTITY strategy, which relies on an auto-incrementing column in the database.
+     * It is generated automatically using the GenerationType.SEQUENCE strategy, which allocates blocks of ids from a database sequence.
      * The column is named "id" and is not nullable, meaning it must always have a value.
      * The type of this variable is Long.
      * It is a field of the PerformanceCircumstanceModel class.
@@ -32,7 +32,8 @@ public class PerformanceCircumstanceModel {
      * @see PerformanceCircumstanceModel
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "factperformancecircumstance_seq")
+    @SequenceGenerator(name = "factperformancecircumstance_seq", sequenceName = "factperformancecircumstance_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -215,10 +216,10 @@ public class PerformanceCircumstanceModel {
      * @param anfRepo      The ANFRepo instance used to interact with the repository.
      */
     public PerformanceCircumstanceModel(PerformanceCircumstance circumstance, ANFHelper anfRepo) {
-        this.timing = anfRepo.getMeasureRepository().save(new MeasureModel(circumstance.getTiming(), anfRepo));
-        this.result = anfRepo.getMeasureRepository().save(new MeasureModel(circumstance.getResult(), anfRepo));
+        this.timing = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(circumstance.getTiming(), anfRepo));
+        this.result = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(circumstance.getResult(), anfRepo));
         if (circumstance.hasNormalRange()) {
-            this.normalRange = anfRepo.getMeasureRepository().save(new MeasureModel(circumstance.getNormalRange(), anfRepo));
+            this.normalRange = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(circumstance.getNormalRange(), anfRepo));
         }
         this.status = anfRepo.getOpenCDXIKMService().getInkarConceptModel(circumstance.getStatus());
         if (circumstance.hasHealthRisk()) {
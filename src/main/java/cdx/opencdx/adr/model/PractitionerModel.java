@@ -23,12 +23,13 @@ public class PractitionerModel {
      * The id variable represents the unique identifier of an object.
      * It is annotated with @Id to indicate that it is the primary key of the entity.
      * The @GeneratedValue annotation specifies the strategy for generating the value of the id.
-     * In this case, the strategy is GenerationType.IDENTITY, which means that the database will automatically assign a value to the id.
+     * In this case, the strategy is GenerationType.SEQUENCE, which allocates blocks of ids from a database sequence so inserts can be batched.
      * The @Column annotation specifies the mapping of the id attribute to the database column named "id".
      * The nullable property of the @Column annotation is set to false, indicating that the id must have a value and cannot be null.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimpractitioner_seq")
+    @SequenceGenerator(name = "dimpractitioner_seq", sequenceName = "dimpractitioner_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -120,7 +121,7 @@ public class PractitionerModel {
      */
     public PractitionerModel(Practitioner practitioner, ANFHelper anfRepo) {
         this.practId = UUID.fromString(practitioner.getId());
-        this.practitioner = anfRepo.getReferenceRepository().save(new ReferenceModel(practitioner.getPractitionerValue(), anfRepo));
+        this.practitioner = anfRepo.getDimensionInternService().internReference(new ReferenceModel(practitioner.getPractitionerValue(), anfRepo));
         this.code = anfRepo.getOpenCDXIKMService().getInkarConceptModel(practitioner.getCode());
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package cdx.opencdx.adr.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The QueryCacheChangeModel class records that a transaction stored statements for a concept or participant of a
+ * stripe.  Rows are only ever inserted, so concurrent transactions never wait for each other on them, and are folded
+ * into the versions of {@link QueryCacheVersionModel} by a scheduled job.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "querycachechange")
+public class QueryCacheChangeModel {
+
+    /**
+     * The id of the change, allocated from a pooled sequence so the changes of a transaction are inserted in a batch.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "querycachechange_seq")
+    @SequenceGenerator(name = "querycachechange_seq", sequenceName = "querycachechange_id_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * The stripe that changed.
+     */
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+}
@@ -0,0 +1,38 @@
+package cdx.opencdx.adr.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The QueryCacheVersionModel class holds the folded version of one stripe of the concepts and participants.  The
+ * version of a stripe is this row plus the number of its {@link QueryCacheChangeModel} rows not folded in yet.  Cached
+ * query reports compare the versions they were read at with the current ones, so statements stored on any node
+ * invalidate them.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "querycacheversion")
+public class QueryCacheVersionModel {
+
+    /**
+     * The stripe the concept and participant UUIDs hash to, or a negative stripe reserved for changes to all reports.
+     */
+    @Id
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    /**
+     * The number of changes of the stripe folded in.
+     */
+    @Column(name = "version", nullable = false)
+    private long version;
+}
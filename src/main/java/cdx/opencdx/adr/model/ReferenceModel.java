@@ -41,12 +41,13 @@ public class ReferenceModel {
      * The id variable represents the unique identifier of a reference model.
      * It is annotated with @Id to indicate that it is the primary key of the entity.
      * The @GeneratedValue annotation specifies the strategy for generating the value of the id.
-     * In this case, the strategy is GenerationType.IDENTITY, which means that the database will automatically assign a value to the id.
+     * In this case, the strategy is GenerationType.SEQUENCE, which allocates blocks of ids from a database sequence so inserts can be batched.
      * The @Column annotation specifies the mapping of the id attribute to the database column named "id".
      * The nullable property of the @Column annotation is set to false, indicating that the id must have a value and cannot be null.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimreference_seq")
+    @SequenceGenerator(name = "dimreference_seq", sequenceName = "dimreference_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -113,6 +114,13 @@ public class ReferenceModel {
     @Column(name = "uri", length = Integer.MAX_VALUE)
     private String uri;
 
+    /**
+     * The SHA-256 hash of the values of this row, used to share identical rows between ANF statements.
+     * It is set by the DimensionInternService and backed by a unique index.
+     */
+    @Column(name = "intern_key", unique = true, updatable = false)
+    private String internKey;
+
     /**
      * Constructs a new ReferenceModel object.
      *
@@ -44,12 +44,13 @@ public class RepetitionModel {
      * This variable is used to uniquely identify a RepetitionModel object in the database.
      * It is annotated with @Id to specify that it is the primary key of the table.
      * The @GeneratedValue annotation is used to specify the strategy for generating the ID value.
-     * In this case, it is set to GenerationType.IDENTITY which means that the ID value will be automatically generated by the database.
+     * In this case, it is set to GenerationType.SEQUENCE which means that the ID value is allocated in blocks from a database sequence.
      * The @Column annotation is used to specify the details of the column in the database table.
      * Here, it is set to "id" with "nullable = false" to indicate that the ID column is required and cannot be null.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimrepetition_seq")
+    @SequenceGenerator(name = "dimrepetition_seq", sequenceName = "dimrepetition_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -185,10 +186,10 @@ public class RepetitionModel {
      * Represents a repetition in the system.
      */
     public RepetitionModel(Repetition repetition, ANFHelper anfRepo) {
-        this.periodStart = anfRepo.getMeasureRepository().save(new MeasureModel(repetition.getPeriodStart(), anfRepo));
-        this.periodDuration = anfRepo.getMeasureRepository().save(new MeasureModel(repetition.getPeriodDuration(), anfRepo));
-        this.eventFrequency = anfRepo.getMeasureRepository().save(new MeasureModel(repetition.getEventFrequency(), anfRepo));
-        this.eventSeparation = anfRepo.getMeasureRepository().save(new MeasureModel(repetition.getEventSeparation(), anfRepo));
-        this.eventDuration = anfRepo.getMeasureRepository().save(new MeasureModel(repetition.getEventDuration(), anfRepo));
+        this.periodStart = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(repetition.getPeriodStart(), anfRepo));
+        this.periodDuration = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(repetition.getPeriodDuration(), anfRepo));
+        this.eventFrequency = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(repetition.getEventFrequency(), anfRepo));
+        this.eventSeparation = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(repetition.getEventSeparation(), anfRepo));
+        this.eventDuration = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(repetition.getEventDuration(), anfRepo));
     }
 }
\ No newline at end of file
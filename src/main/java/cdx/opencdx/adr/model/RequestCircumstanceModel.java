@@ -7,8 +7,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The {@code RequestCircumstanceModel} class represents a model for a request circumstance.
@@ -44,14 +46,15 @@ public class RequestCircumstanceModel {
      * Represents an identifier for a specific entity in the system.
      * The {@code id} field is annotated with {@code @Id} to indicate that it is the primary key of the entity.
      * The {@code @GeneratedValue} annotation is used to specify the strategy for generating the value of the identifier.
-     * In this case, the strategy is set to {@code GenerationType.IDENTITY}, which means that the identifier
-     * is automatically generated by the database.
+     * In this case, the strategy is set to {@code GenerationType.SEQUENCE}, which means that the identifier
+     * is allocated in blocks from a database sequence.
      * The {@code @Column} annotation is used to specify the details of the database column corresponding to the field.
      * The name of the column is set to "id", and it is marked as not nullable.
      * Lastly, the field is of type {@code Long} to represent a unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "factrequestcircumstance_seq")
+    @SequenceGenerator(name = "factrequestcircumstance_seq", sequenceName = "factrequestcircumstance_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -179,13 +182,18 @@ public class RequestCircumstanceModel {
      * by providing the necessary information.
      */
     public RequestCircumstanceModel(RequestCircumstance request, ANFHelper anfRepo) {
-        this.timing = anfRepo.getMeasureRepository().save(new MeasureModel(request.getTiming(), anfRepo));
+        this.timing = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(request.getTiming(), anfRepo));
         this.priority = anfRepo.getOpenCDXIKMService().getInkarConceptModel(request.getPriority());
-        this.requestedResult = anfRepo.getMeasureRepository().save(new MeasureModel(request.getRequestedResult(), anfRepo));
+        this.requestedResult = anfRepo.getDimensionInternService().internMeasure(new MeasureModel(request.getRequestedResult(), anfRepo));
         this.repetition = anfRepo.getRepetitionRepository().save(new RepetitionModel(request.getRepetition(), anfRepo));
         this.conditionalTrigger = request.getConditionalTriggerList().stream().map(trigger -> anfRepo.getAssociatedStatementRespository().save(new AssociatedStatementModel(trigger, anfRepo))).toList();
         this.purposes = request.getPurposeList().stream().map(purpose -> anfRepo.getOpenCDXIKMService().getInkarConceptModel(purpose)).toList();
-        this.requestedParticipant = request.getRequestedParticipantList().stream().map(participant -> anfRepo.getReferenceRepository().save(new ReferenceModel(participant, anfRepo))).toList();
+        // Identical references intern to the same row, which may only be linked once
+        Set<Long> participantIds = new HashSet<>();
+        this.requestedParticipant = request.getRequestedParticipantList().stream()
+                .map(participant -> anfRepo.getDimensionInternService().internReference(new ReferenceModel(participant, anfRepo)))
+                .filter(reference -> participantIds.add(reference.getId()))
+                .toList();
         this.deviceIds = request.getDeviceIdList();
     }
 }
\ No newline at end of file
@@ -12,7 +12,8 @@ import lombok.Setter;
 @Table(name = "savedquery")
 public class SavedQueryModel {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "savedquery_seq")
+    @SequenceGenerator(name = "savedquery_seq", sequenceName = "savedquery_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -0,0 +1,50 @@
+package cdx.opencdx.adr.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * The SeedCatalogModel class records the checksum of a seed catalog that was loaded into dimtinkarconcept, so an
+ * unchanged catalog is not loaded again on the next start.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "seedcatalog")
+public class SeedCatalogModel {
+
+    /**
+     * The name of the catalog.
+     */
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    /**
+     * The version declared by the catalog.
+     */
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    /**
+     * The SHA-256 of the catalog resource.
+     */
+    @Column(name = "checksum", nullable = false)
+    private String checksum;
+
+    /**
+     * When the catalog was last loaded.
+     */
+    @Column(name = "loaded_at", nullable = false)
+    private Instant loadedAt;
+}
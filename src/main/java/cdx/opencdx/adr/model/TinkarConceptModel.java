@@ -27,19 +27,20 @@ public class TinkarConceptModel {
      *
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimtinkarconcept_seq")
+    @SequenceGenerator(name = "dimtinkarconcept_seq", sequenceName = "dimtinkarconcept_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     @Schema(description = "The ID of the concept")
     private Long id;
 
     /**
      * The concept ID associated with an instance of {@link TinkarConceptModel}.
-     * It is a unique identifier for a concept.
+     * It is a unique identifier for a concept, enforced by a unique index.
      * <p>
      * The value is stored in the {@link Column} named "concept_id" in the database table "dimtinkarconcept".
      */
     @Schema(description = "The UUID of the concept")
-    @Column(name = "concept_id")
+    @Column(name = "concept_id", unique = true)
     private UUID conceptId;
 
     /**
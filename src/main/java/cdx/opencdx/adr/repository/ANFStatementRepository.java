@@ -16,13 +16,41 @@
 package cdx.opencdx.adr.repository;
 
 import cdx.opencdx.adr.model.AnfStatementModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
 /**
  * The ANFStatementRepository interface is used to interact with the database table "dimanfstatement".
  * It extends the JpaRepository interface, providing basic CRUD operations for the AnfStatementModel entity.
  */
 @Repository
 public interface ANFStatementRepository extends JpaRepository<AnfStatementModel, Long> {
+
+    /**
+     * Finds the database IDs of the ANF statements with the given external identifier.
+     *
+     * @param anfid The external identifier of the ANF statement.
+     * @return The matching IDs, at most one once anfid is unique.
+     */
+    @Query("SELECT a.id FROM AnfStatementModel a WHERE a.anfid = :anfid")
+    List<Long> findIdsByAnfid(@Param("anfid") UUID anfid);
+
+    /**
+     * Streams the external identifier of every ANF statement.  Must be called inside a transaction, and the stream
+     * closed when done.
+     *
+     * @return The external identifiers of all ANF statements.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT a.anfid FROM AnfStatementModel a")
+    Stream<UUID> streamAllAnfids();
 }
@@ -0,0 +1,70 @@
+package cdx.opencdx.adr.repository;
+
+import cdx.opencdx.adr.model.ConceptClosureModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ConceptClosureRepository interface provides access to the transitive closure of the concept hierarchy.
+ */
+@Repository
+public interface ConceptClosureRepository extends JpaRepository<ConceptClosureModel, ConceptClosureModel.Key> {
+
+    /**
+     * Retrieves the descendants of a concept within a range of depths.
+     *
+     * @param ancestorId The UUID of the ancestor concept.
+     * @param minDepth   The smallest depth, 0 includes the concept itself.
+     * @param maxDepth   The largest depth, 1 for children only.
+     * @return The UUIDs of the descendants.
+     */
+    @Query("SELECT c.descendantId FROM ConceptClosureModel c WHERE c.ancestorId = :ancestorId AND c.depth BETWEEN :minDepth AND :maxDepth")
+    List<UUID> findDescendantIds(@Param("ancestorId") UUID ancestorId, @Param("minDepth") int minDepth, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Retrieves the ancestors of a concept within a range of depths.
+     *
+     * @param descendantId The UUID of the descendant concept.
+     * @param minDepth     The smallest depth, 0 includes the concept itself.
+     * @param maxDepth     The largest depth, 1 for parents only.
+     * @return The UUIDs of the ancestors.
+     */
+    @Query("SELECT c.ancestorId FROM ConceptClosureModel c WHERE c.descendantId = :descendantId AND c.depth BETWEEN :minDepth AND :maxDepth")
+    List<UUID> findAncestorIds(@Param("descendantId") UUID descendantId, @Param("minDepth") int minDepth, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Retrieves the UUIDs of stored concepts whose ancestors have not been added to the closure yet.
+     *
+     * @return The UUIDs of the concepts missing from the closure.
+     */
+    @Query(value = "SELECT DISTINCT c.concept_id FROM dimtinkarconcept c WHERE c.concept_id IS NOT NULL AND NOT EXISTS " +
+            "(SELECT 1 FROM dimconceptclosure cc WHERE cc.ancestor_id = c.concept_id AND cc.descendant_id = c.concept_id)", nativeQuery = true)
+    List<UUID> findUnclosedConceptIds();
+
+    /**
+     * Removes the rows of a descendant, before its ancestors are added again.
+     *
+     * @param descendantId The UUID of the descendant concept.
+     */
+    @Modifying
+    @Query("DELETE FROM ConceptClosureModel c WHERE c.descendantId = :descendantId")
+    void deleteByDescendant(@Param("descendantId") UUID descendantId);
+
+    /**
+     * Removes the rows of descendants that are no longer stored, for example after a concept was given its IKM UUID.
+     *
+     * @return The number of rows removed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM dimconceptclosure cc WHERE NOT EXISTS " +
+            "(SELECT 1 FROM dimtinkarconcept c WHERE c.concept_id = cc.descendant_id)", nativeQuery = true)
+    int deleteOrphans();
+}
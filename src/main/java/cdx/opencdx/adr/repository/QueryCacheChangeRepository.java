@@ -0,0 +1,41 @@
+package cdx.opencdx.adr.repository;
+
+import cdx.opencdx.adr.model.QueryCacheChangeModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The QueryCacheChangeRepository interface records and folds the stripe changes cached query reports are checked
+ * against.
+ */
+@Repository
+public interface QueryCacheChangeRepository extends JpaRepository<QueryCacheChangeModel, Long> {
+
+    /**
+     * Reads the oldest changes as scalars.
+     *
+     * @param pageable The number of changes to read.
+     * @return Pairs of id and stripe.
+     */
+    @Query("SELECT c.id, c.stripe FROM QueryCacheChangeModel c ORDER BY c.id")
+    List<Object[]> findChanges(Pageable pageable);
+
+    /**
+     * Deletes changes that were folded into the versions.
+     *
+     * @param ids The ids of the changes.
+     * @return The number of changes deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QueryCacheChangeModel c WHERE c.id IN :ids")
+    int deleteChanges(@Param("ids") Collection<Long> ids);
+}
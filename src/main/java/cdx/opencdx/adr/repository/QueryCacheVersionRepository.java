@@ -0,0 +1,65 @@
+package cdx.opencdx.adr.repository;
+
+import cdx.opencdx.adr.model.QueryCacheVersionModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * The QueryCacheVersionRepository interface reads the versions cached query reports are checked against, and folds
+ * changes into them.
+ */
+@Repository
+public interface QueryCacheVersionRepository extends JpaRepository<QueryCacheVersionModel, Integer> {
+
+    /**
+     * Adds folded changes to the version of a stripe.
+     *
+     * @param stripe The stripe.
+     * @param count  The number of changes folded.
+     * @return The number of rows updated, 0 if the stripe has no row yet.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QueryCacheVersionModel v SET v.version = v.version + :count WHERE v.stripe = :stripe")
+    int add(@Param("stripe") int stripe, @Param("count") long count);
+
+    /**
+     * Adds the row of a stripe at version 0, doing nothing if another transaction added it first.
+     *
+     * @param stripe The stripe.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO querycacheversion (stripe, version) VALUES (:stripe, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("stripe") int stripe);
+
+    /**
+     * Locks the row of a stripe until the transaction ends.
+     *
+     * @param stripe The stripe, whose row must exist.
+     * @return The folded version of the stripe.
+     */
+    @Query(value = "SELECT version FROM querycacheversion WHERE stripe = :stripe FOR UPDATE", nativeQuery = true)
+    Long lock(@Param("stripe") int stripe);
+
+    /**
+     * Reads the version of every stripe, its folded version plus its changes not folded yet, in one statement so a fold
+     * committing meanwhile is seen either entirely or not at all.
+     *
+     * @return Pairs of stripe and version.
+     */
+    @Query(value = """
+            SELECT stripe, SUM(version) FROM (
+                SELECT stripe, version FROM querycacheversion
+                UNION ALL
+                SELECT stripe, COUNT(*) AS version FROM querycachechange GROUP BY stripe
+            ) versions GROUP BY stripe""", nativeQuery = true)
+    List<Object[]> findVersions();
+}
@@ -0,0 +1,38 @@
+package cdx.opencdx.adr.repository;
+
+import cdx.opencdx.adr.model.SeedCatalogModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The SeedCatalogRepository interface provides access to the checksums of loaded seed catalogs.
+ */
+@Repository
+public interface SeedCatalogRepository extends JpaRepository<SeedCatalogModel, String> {
+
+    /**
+     * Adds a placeholder row for a catalog that was never loaded, with an empty checksum, doing nothing if the catalog
+     * has a row.  The row is then what nodes loading the catalog lock.
+     *
+     * @param name The name of the catalog.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO seedcatalog (name, version, checksum, loaded_at) VALUES (:name, 0, '', CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    /**
+     * Locks the row of a catalog until the transaction ends, so nodes starting together load it one at a time.
+     *
+     * @param name The name of the catalog.
+     * @return The checksum of the catalog as loaded by the node that held the lock before, empty if none loaded it.
+     */
+    @Query(value = "SELECT checksum FROM seedcatalog WHERE name = :name FOR UPDATE", nativeQuery = true)
+    String lock(@Param("name") String name);
+}
@@ -2,8 +2,13 @@ package cdx.opencdx.adr.repository;
 
 import cdx.opencdx.adr.model.TinkarConceptModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,10 +51,42 @@ public interface TinkarConceptRepository extends JpaRepository<TinkarConceptMode
      */
     List<TinkarConceptModel> findAllByConceptIdIn(List<UUID> conceptIds);
 
+    /**
+     * Inserts a concept unless a concept with the same UUID is stored, in the transaction of the caller.  Inserts of
+     * the same UUID by concurrent transactions, on this node or another, wait for each other on the unique index on
+     * concept_id, and only the first one inserts a row.
+     *
+     * @param conceptId          The UUID of the concept.
+     * @param conceptName        The name of the concept.
+     * @param conceptDescription The description of the concept.
+     * @param sync               Whether the concept is synchronized with IKM.
+     * @return 1 if the concept was inserted, 0 if it was already stored.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO dimtinkarconcept (id, concept_id, concept_name, concept_description, sync) " +
+            "VALUES (nextval('dimtinkarconcept_id_seq'), :conceptId, :conceptName, :conceptDescription, :sync) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("conceptId") UUID conceptId, @Param("conceptName") String conceptName,
+                       @Param("conceptDescription") String conceptDescription, @Param("sync") boolean sync);
+
     /**
      * Retrieves a list of TinkarConceptModel objects that are not in sync.
      *
      * @return A list of TinkarConceptModel objects that are not synced with IKM.
      */
     List<TinkarConceptModel> findAllBySyncFalse();
+
+    /**
+     * Links an ANF statement to a set of concepts in one statement, skipping links that already exist.  The insert is
+     * resolved by the database, so linking never loads or locks a concept's statement list and its cost does not grow
+     * with the number of statements a concept already has.
+     *
+     * @param anfStatementId The database ID of the ANF statement.
+     * @param conceptIds     The database IDs of the concepts.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "INSERT INTO unionanfstatement_tinkarconcept (concept_id, anf_statement_id) " +
+            "SELECT c.id, :anfStatementId FROM dimtinkarconcept c WHERE c.id IN (:conceptIds) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void linkAnfStatement(@Param("anfStatementId") Long anfStatementId, @Param("conceptIds") Collection<Long> conceptIds);
 }
@@ -0,0 +1,23 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.BulkLoadReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The BulkLoadService interface loads files of newline delimited ANF statements directly into the database.
+ */
+public interface BulkLoadService {
+
+    /**
+     * Loads every statement of an NDJSON file, resuming from the checkpoint of an earlier run if there is one.
+     * Progress is checkpointed to {@code <file>.checkpoint} after every committed chunk, and statements that fail are
+     * written with their byte offset to {@code <file>.errors}.
+     *
+     * @param file The NDJSON file, one ANF statement per line.
+     * @return The report of this run.
+     * @throws IOException If the file, checkpoint or error log cannot be read or written.
+     */
+    BulkLoadReport load(Path file) throws IOException;
+}
@@ -0,0 +1,59 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.ConceptFocus;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ConceptHierarchyService interface answers hierarchy focus modes from the materialized closure of the concept
+ * hierarchy, for the concepts stored in dimtinkarconcept.  Callers fall back to walking the hierarchy in IKM whenever
+ * the closure cannot answer, for example while newly stored concepts have not been added to it yet.
+ */
+public interface ConceptHierarchyService {
+
+    /**
+     * Expands a concept according to a hierarchy focus mode.
+     *
+     * @param conceptId The UUID of the focus concept.
+     * @param focus     The focus mode.
+     * @return The UUIDs of the stored concepts in focus, or null if the closure cannot answer the focus mode.
+     */
+    List<UUID> expand(UUID conceptId, ConceptFocus focus);
+
+    /**
+     * Builds a predicate restricting a concept UUID to the concepts in focus, as a subquery on the closure table so the
+     * expansion happens inside the database query.
+     *
+     * @param cb        The CriteriaBuilder of the query.
+     * @param query     The query the subquery is added to.
+     * @param path      The concept UUID to restrict.
+     * @param conceptId The UUID of the focus concept.
+     * @param focus     The focus mode.
+     * @return The predicate, or null if the closure cannot answer the focus mode.
+     */
+    Predicate focusPredicate(CriteriaBuilder cb, AbstractQuery<?> query, Expression<UUID> path, UUID conceptId, ConceptFocus focus);
+
+    /**
+     * Records that concepts were changed, for example given other UUIDs, so the closure is not used until it has been
+     * refreshed.
+     */
+    void conceptsChanged();
+
+    /**
+     * Adds a newly stored concept to the closure in the background.  Call this once the transaction storing the
+     * concept has committed.
+     *
+     * @param conceptId The UUID of the new concept.
+     */
+    void conceptAdded(UUID conceptId);
+
+    /**
+     * Adds the stored concepts that are missing from the closure.
+     */
+    void refresh();
+}
@@ -0,0 +1,21 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.model.TinkarConceptModel;
+
+import java.util.List;
+
+/**
+ * The ConceptSearchService interface searches IKM for concepts to build queries from, as the user types.
+ */
+public interface ConceptSearchService {
+
+    /**
+     * Searches for concepts matching the search string.  Results of recent searches are reused for a short time, so
+     * repeated keystrokes and page reloads do not search IKM again.
+     *
+     * @param search The search string.
+     * @param limit  The maximum number of search hits to read.
+     * @return The matching concepts with their UUID, name and description.
+     */
+    List<TinkarConceptModel> search(String search, int limit);
+}
@@ -0,0 +1,16 @@
+package cdx.opencdx.adr.service;
+
+/**
+ * The ConceptSeedService interface loads the concepts the application relies on, such as units and lookup patterns,
+ * from the seed catalog resource into dimtinkarconcept.
+ */
+public interface ConceptSeedService {
+
+    /**
+     * Adds the catalog concepts that are missing and updates those whose name or description changed.  Nothing is
+     * written when the same catalog was already loaded.
+     *
+     * @param includeMock True to also load the concepts that stand in for IKM when it is disabled.
+     */
+    void seed(boolean includeMock);
+}
@@ -1,6 +1,10 @@
 package cdx.opencdx.adr.service;
 
 import cdx.opencdx.adr.model.TinkarConceptModel;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,4 +20,16 @@ public interface ConceptService {
      * @return A List of UUIDs representing the focus concepts.
      */
     List<UUID> getFocusConcepts(TinkarConceptModel conceptModel);
+
+    /**
+     * Builds a predicate restricting a concept UUID to the focus concepts of the given TinkarConceptModel.  Hierarchy
+     * focus modes are resolved inside the query through the concept closure when possible.
+     *
+     * @param cb           The CriteriaBuilder of the query.
+     * @param query        The query the predicate is used in.
+     * @param path         The concept UUID to restrict.
+     * @param conceptModel The TinkarConceptModel for which to retrieve the focus concepts.
+     * @return The predicate.
+     */
+    Predicate getFocusPredicate(CriteriaBuilder cb, AbstractQuery<?> query, Expression<UUID> path, TinkarConceptModel conceptModel);
 }
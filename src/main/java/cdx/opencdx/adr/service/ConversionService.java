@@ -4,6 +4,7 @@ import cdx.opencdx.adr.dto.UnitOutput;
 import cdx.opencdx.adr.model.MeasureModel;
 import cdx.opencdx.adr.model.TinkarConceptModel;
 
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -38,4 +39,23 @@ public interface ConversionService {
      * @return the measure model converted to the specified unit of measurement
      */
     MeasureModel output(UnitOutput unitOutput, MeasureModel measure);
+
+    /**
+     * Returns how values of each unit are converted into the given unit, so the conversion can be evaluated by the
+     * database.  Values of units missing from the map cannot be converted.  The map is empty when the given unit is not
+     * one values are converted into, in which case values of any unit are used as they are.
+     *
+     * @param unit the UUID of the target unit
+     * @return the conversion of each unit, keyed by the UUID of the unit converted from
+     */
+    Map<UUID, LinearConversion> linearConversions(UUID unit);
+
+    /**
+     * A conversion of the form {@code value * factor + offset}.
+     *
+     * @param factor the factor the value is multiplied by
+     * @param offset the offset added to the product
+     */
+    record LinearConversion(double factor, double offset) {
+    }
 }
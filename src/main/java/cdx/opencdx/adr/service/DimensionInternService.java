@@ -0,0 +1,27 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.model.MeasureModel;
+import cdx.opencdx.adr.model.ReferenceModel;
+
+/**
+ * The DimensionInternService interface stores value-only dimension rows once and shares them between ANF statements.
+ * Rows are identified by a hash of their values, so identical measures or references resolve to the same row.
+ */
+public interface DimensionInternService {
+
+    /**
+     * Finds or stores the row holding the values of the given measure.
+     *
+     * @param measure The measure to intern. Its id and intern key are set to those of the shared row.
+     * @return The given measure, now identifying the shared row.
+     */
+    MeasureModel internMeasure(MeasureModel measure);
+
+    /**
+     * Finds or stores the row holding the values of the given reference.
+     *
+     * @param reference The reference to intern. Its id and intern key are set to those of the shared row.
+     * @return The given reference, now identifying the shared row.
+     */
+    ReferenceModel internReference(ReferenceModel reference);
+}
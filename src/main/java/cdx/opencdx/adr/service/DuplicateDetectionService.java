@@ -0,0 +1,25 @@
+package cdx.opencdx.adr.service;
+
+import java.util.UUID;
+
+/**
+ * The DuplicateDetectionService interface finds ANF statements that are already stored, so that resubmitting a
+ * statement returns the existing ID instead of storing it again.
+ */
+public interface DuplicateDetectionService {
+
+    /**
+     * Finds the stored ANF statement with the given external identifier.
+     *
+     * @param anfid The external identifier of the ANF statement.
+     * @return The database ID of the stored statement, or null if it is not stored.
+     */
+    Long findExisting(UUID anfid);
+
+    /**
+     * Records that an ANF statement with the given external identifier is being stored.
+     *
+     * @param anfid The external identifier of the ANF statement.
+     */
+    void remember(UUID anfid);
+}
@@ -1,6 +1,7 @@
 package cdx.opencdx.adr.service;
 
 import cdx.opencdx.adr.model.MeasureModel;
+import cdx.opencdx.adr.model.TinkarConceptModel;
 import dev.ikm.tinkar.common.id.PublicId;
 
 import java.util.List;
@@ -104,6 +105,32 @@ public interface IKMInterface {
      */
     List<PublicId> search(String search, int limit);
 
+    /**
+     * Searches for concepts and returns each distinct hit with its UUID, name and description, resolved in one pass
+     * over the hits.
+     *
+     * @param search The search string used to find matching concepts.
+     * @param limit  The maximum number of search hits to read.
+     * @return The unsaved concept models of the hits, in search order.
+     */
+    List<TinkarConceptModel> searchConcepts(String search, int limit);
+
+    /**
+     * Notifies the interface that a concept was stored or changed in dimtinkarconcept, so it can be found by
+     * {@link #searchConcepts(String, int)}.
+     *
+     * @param concept The committed concept.
+     */
+    void conceptStored(TinkarConceptModel concept);
+
+    /**
+     * Indicates whether the data store is open.  Until it is, calls that need it throw {@link IkmNotReadyException}
+     * rather than wait, so ingestion and background jobs should check this and defer or skip their IKM work.
+     *
+     * @return true once the data store is open and indexed.
+     */
+    boolean isReady();
+
     /**
      * Synchronizes the constraint ranges for a given MeasureModel instance.
      * @param topic the topic to synchronize constraint ranges for
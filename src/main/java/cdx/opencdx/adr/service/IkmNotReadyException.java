@@ -0,0 +1,17 @@
+package cdx.opencdx.adr.service;
+
+/**
+ * Thrown by {@link IKMInterface} lookups made before the IKM data store is open, or after it failed to open.
+ * Controllers answer it with 503 so clients retry once the {@code ikm} health component is up.
+ */
+public class IkmNotReadyException extends IllegalStateException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the reason the data store cannot be used
+     */
+    public IkmNotReadyException(String message) {
+        super(message);
+    }
+}
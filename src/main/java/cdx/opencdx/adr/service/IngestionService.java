@@ -0,0 +1,38 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.IngestionStageStats;
+import cdx.opencdx.adr.dto.IngestionStatus;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The IngestionService interface accepts ANF statements for asynchronous, staged ingestion.
+ */
+public interface IngestionService {
+
+    /**
+     * Queues an ANF statement for ingestion.
+     *
+     * @param data The ANF statement in JSON format.
+     * @return The status of the queued statement, including its tracking ID.
+     * @throws RejectedExecutionException If the ingestion queue is full.
+     */
+    IngestionStatus submit(String data);
+
+    /**
+     * Retrieves the status of a queued ANF statement.
+     *
+     * @param trackingId The tracking ID returned by {@link #submit(String)}.
+     * @return The status, or null if the tracking ID is unknown or has expired.
+     */
+    IngestionStatus getStatus(UUID trackingId);
+
+    /**
+     * Retrieves the queue depth and latency of each ingestion stage.
+     *
+     * @return The statistics of each stage, in pipeline order.
+     */
+    List<IngestionStageStats> getStageStats();
+}
@@ -16,26 +16,66 @@
 package cdx.opencdx.adr.service;
 
 import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.dto.QueryProfile;
 import cdx.opencdx.adr.dto.Report;
 import cdx.opencdx.adr.dto.SavedQuery;
+import cdx.opencdx.adr.model.AnfStatementModel;
 import cdx.opencdx.adr.model.TinkarConceptModel;
 import cdx.opencdx.grpc.data.ANFStatement;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * The OpenCDXAdrService interface provides methods for managing ANF statements and executing queries.
  */
 public interface OpenCDXAdrService {
     /**
-     * Stores an ANF statement in the system.
+     * Stores an ANF statement in the system.  Storing is idempotent on the anfid: if a statement with the same
+     * anfid is already stored, its ID is returned and nothing is stored.
      *
      * @param anfStatement The ANF statement to store.
      * @return The ID of the stored ANF statement as a {@code Long}.
      */
     Long storeAnfStatement(ANFStatement anfStatement);
 
+    /**
+     * Stores a batch of ANF statements. Statements are persisted in chunks, each chunk in a single transaction.
+     *
+     * @param anfStatements The ANF statements to store.
+     * @return One BatchResult per statement, in the same order, holding either the stored ID or the error.
+     * Statements whose anfid is already stored are not stored again and report the existing ID.
+     */
+    List<BatchResult> storeAnfStatements(List<ANFStatement> anfStatements);
+
+    /**
+     * First ingestion stage: resolves the concepts of an ANF statement, stores its dimensions and runs the
+     * pre processors, in one transaction.
+     *
+     * @param anfStatement The ANF statement to pre-process.
+     * @return The unsaved ANF statement model.
+     */
+    AnfStatementModel preProcessAnfStatement(ANFStatement anfStatement);
+
+    /**
+     * Second and final ingestion stage: saves a pre-processed ANF statement model and runs the post processors on it
+     * in one transaction, so a statement is never stored without its concept links.
+     *
+     * @param anfStatementModel The model returned by {@link #preProcessAnfStatement(ANFStatement)}.
+     * @return The ID of the stored ANF statement.
+     */
+    Long persistAnfStatement(AnfStatementModel anfStatementModel);
+
+    /**
+     * Finds a stored ANF statement by its external identifier.
+     *
+     * @param anfid The external identifier (the id field) of the ANF statement.
+     * @return The ID of the stored ANF statement, or null if no statement with the anfid is stored.
+     */
+    Long findAnfStatementId(UUID anfid);
+
     /**
      * Retrieves the queryable data.
      *
@@ -96,4 +136,21 @@ public interface OpenCDXAdrService {
      * @return A Report object containing the results of the JSON query.
      */
     Report getJsonQuery(ADRQuery adrQuery);
+
+    /**
+     * Executes a JSON query, optionally with the profile of its evaluation.
+     *
+     * @param adrQuery The ADRQuery object representing the parameters and conditions for the query.
+     * @param profile  Whether the report includes the profile of the query.
+     * @return A Report object containing the results of the JSON query and, if requested, its profile.
+     */
+    Report getJsonQuery(ADRQuery adrQuery, boolean profile);
+
+    /**
+     * Runs a query and returns its profile instead of its results.
+     *
+     * @param adrQuery The ADRQuery object representing the parameters and conditions for the query.
+     * @return The evaluated query tree with the rows, SQL statements and time of each node and stage.
+     */
+    QueryProfile explainQuery(ADRQuery adrQuery);
 }
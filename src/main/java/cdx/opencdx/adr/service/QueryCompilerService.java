@@ -0,0 +1,29 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.Query;
+import cdx.opencdx.adr.model.AnfStatementModel;
+
+import java.util.List;
+
+/**
+ * The QueryCompilerService interface compiles a query on a concept and a comparison into one database query, so only
+ * the matching statements are loaded instead of every statement of the concept.
+ */
+public interface QueryCompilerService {
+
+    /**
+     * Checks whether the query can be compiled.  Queries that cannot are filtered in memory as before.
+     *
+     * @param query the query
+     * @return true if {@link #execute(Query)} can run the query
+     */
+    boolean supports(Query query);
+
+    /**
+     * Runs the compiled query.
+     *
+     * @param query a query for which {@link #supports(Query)} is true
+     * @return the statements of the concept matching the comparison, each once
+     */
+    List<AnfStatementModel> execute(Query query);
+}
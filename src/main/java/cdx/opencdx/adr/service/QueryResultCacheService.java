@@ -0,0 +1,67 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.Report;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The QueryResultCacheService interface keeps the reports of recent queries until statements arrive that could change
+ * them.  Every transaction storing statements increments, in the database, the versions of the concepts they are linked
+ * to and of their participants; a report is reused only while none of the concepts it queried and none of the
+ * participants it lists has a newer version than when the query started, whichever node stored the statements.
+ */
+public interface QueryResultCacheService {
+
+    /**
+     * Looks up the report of a query.  Call this before running the query, as the returned lookup carries the
+     * versions the result is stored under.
+     *
+     * @param adrQuery The query.
+     * @return The lookup, holding the cached report if there is a current one.
+     */
+    Lookup lookup(ADRQuery adrQuery);
+
+    /**
+     * Stores the report of a query run after the given lookup.
+     *
+     * @param lookup       The lookup made before the query ran.
+     * @param concepts     The UUIDs of the concepts the query read statements of, after expanding focus modes.
+     * @param expanded     Whether a focus mode other than SELF or DATE was expanded, so the result also depends on
+     *                     the concept hierarchy.
+     * @param participants The participants listed by the report.
+     * @param report       The report.
+     */
+    void store(Lookup lookup, Collection<UUID> concepts, boolean expanded, Collection<UUID> participants, Report report);
+
+    /**
+     * Records a stored statement.  Inside a transaction the versions are incremented when it commits, in the same
+     * transaction, so no node can cache a result read before the statement was visible.
+     *
+     * @param concepts    The UUIDs of the concepts the statement is linked to.
+     * @param participant The participant the statement is recorded for, may be null.
+     */
+    void statementStored(Collection<UUID> concepts, UUID participant);
+
+    /**
+     * Drops all cached reports, for changes that are not tied to a statement such as concepts renamed by IKM.
+     */
+    void invalidateAll();
+
+    /**
+     * Drops the reports of queries expanding a hierarchy focus, for changes to the concept closure.  Inside a
+     * transaction the change is recorded when it commits.
+     */
+    void hierarchyChanged();
+
+    /**
+     * The result of looking up a query.
+     *
+     * @param key      The canonical hash of the query, null if the query is not cached.
+     * @param versions The versions read when the lookup was made, null if the query is not cached.
+     * @param report   The cached report, null on a miss.
+     */
+    record Lookup(String key, long[] versions, Report report) {
+    }
+}
@@ -2,6 +2,7 @@ package cdx.opencdx.adr.service;
 
 
 import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.QueryProfile;
 import cdx.opencdx.adr.dto.Report;
 
 import java.util.List;
@@ -25,4 +26,21 @@ public interface QueryService {
      * @return
      */
     Report processJsonQuery(ADRQuery adrQuery);
+
+    /**
+     * Processes the given ADRQuery object, optionally profiling it.
+     *
+     * @param adrQuery the ADRQuery object representing the query to be processed
+     * @param profile  whether the report includes the profile of the query
+     * @return the report, with its profile if requested
+     */
+    Report processJsonQuery(ADRQuery adrQuery, boolean profile);
+
+    /**
+     * Runs the given ADRQuery object and returns its profile instead of its results.
+     *
+     * @param adrQuery the ADRQuery object representing the query to be explained
+     * @return the evaluated query tree with the rows, SQL statements and time of each node and stage
+     */
+    QueryProfile explainQuery(ADRQuery adrQuery);
 }
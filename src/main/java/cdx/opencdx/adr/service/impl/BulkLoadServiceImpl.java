@@ -0,0 +1,212 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.dto.BulkLoadReport;
+import cdx.opencdx.adr.service.BulkLoadService;
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import cdx.opencdx.adr.utils.MappedLineReader;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The BulkLoadServiceImpl class loads NDJSON files of ANF statements.  The file is read sequentially through memory
+ * mapped regions and cut into chunks of the ingestion batch size.  Each chunk is parsed in parallel while the
+ * previous chunk is being stored, and stored through the batch path of OpenCDXAdrService, so a chunk is one
+ * transaction with one flush.  The byte offset after each committed chunk is checkpointed, so an interrupted load
+ * resumes at the first chunk that was not committed.
+ */
+@Slf4j
+@Service
+public class BulkLoadServiceImpl implements BulkLoadService {
+
+    private final ObjectMapper objectMapper;
+
+    private final OpenCDXAdrService openCDXAdrService;
+
+    private final int batchSize;
+
+    private final IngestionMetrics metrics;
+
+    /**
+     * Creates the bulk loader.
+     *
+     * @param objectMapper      the ObjectMapper used to parse statements
+     * @param openCDXAdrService the service used to store statements
+     * @param batchSize         the number of statements per chunk
+     * @param metrics           the metrics recording the time spent parsing
+     */
+    public BulkLoadServiceImpl(ObjectMapper objectMapper, OpenCDXAdrService openCDXAdrService,
+                               @Value("${data.ingest.batch-size:500}") int batchSize, IngestionMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.openCDXAdrService = openCDXAdrService;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public BulkLoadReport load(Path file) throws IOException {
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors");
+        Properties checkpoint = readCheckpoint(checkpointFile);
+        long resumedFrom = Long.parseLong(checkpoint.getProperty("offset", "0"));
+
+        long started = System.nanoTime();
+        long read = 0;
+        long stored = 0;
+        long failed = 0;
+        long position = resumedFrom;
+
+        try (MappedLineReader reader = new MappedLineReader(file, resumedFrom);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            log.info("Bulk loading {} ({} bytes) from offset {}", file, reader.size(), resumedFrom);
+
+            CompletableFuture<List<ParsedLine>> next = this.parseAsync(this.readChunk(reader));
+            long nextEnd = reader.position();
+            while (true) {
+                List<ParsedLine> chunk = next.join();
+                long chunkEnd = nextEnd;
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                next = this.parseAsync(this.readChunk(reader));
+                nextEnd = reader.position();
+
+                int chunkFailed = this.store(chunk, errors);
+                errors.flush();
+                read += chunk.size();
+                stored += chunk.size() - chunkFailed;
+                failed += chunkFailed;
+                position = chunkEnd;
+
+                checkpoint.setProperty("offset", Long.toString(position));
+                checkpoint.setProperty("stored", Long.toString(Long.parseLong(checkpoint.getProperty("stored", "0")) + chunk.size() - chunkFailed));
+                checkpoint.setProperty("failed", Long.toString(Long.parseLong(checkpoint.getProperty("failed", "0")) + chunkFailed));
+                writeCheckpoint(checkpointFile, checkpoint);
+                log.info("Bulk load {}: {} statements read, {} failed, at byte {} of {}", file, read, failed, position, reader.size());
+            }
+        }
+
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        BulkLoadReport report = BulkLoadReport.builder()
+                .file(file.toString())
+                .resumedFrom(resumedFrom)
+                .read(read)
+                .stored(stored)
+                .failed(failed)
+                .seconds(seconds)
+                .statementsPerSecond(seconds > 0 ? read / seconds : 0)
+                .megabytesPerSecond(seconds > 0 ? (position - resumedFrom) / seconds / (1 << 20) : 0)
+                .build();
+        log.info("Bulk load finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Reads up to one batch of lines.
+     */
+    private List<RawLine> readChunk(MappedLineReader reader) throws IOException {
+        List<RawLine> lines = new ArrayList<>(this.batchSize);
+        String line;
+        while (lines.size() < this.batchSize && (line = reader.readLine()) != null) {
+            lines.add(new RawLine(reader.lineOffset(), line));
+        }
+        return lines;
+    }
+
+    /**
+     * Parses the lines of a chunk in parallel, in the background.
+     */
+    private CompletableFuture<List<ParsedLine>> parseAsync(List<RawLine> lines) {
+        return CompletableFuture.supplyAsync(() -> lines.parallelStream().map(this::parse).toList());
+    }
+
+    private ParsedLine parse(RawLine line) {
+        Timer.Sample sample = this.metrics.start();
+        try {
+            return new ParsedLine(line.offset(), this.objectMapper.readValue(line.text(), ANFStatement.class), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedLine(line.offset(), null, e.getOriginalMessage());
+        } finally {
+            this.metrics.stop(sample, "parse");
+        }
+    }
+
+    /**
+     * Stores the parsed statements of a chunk and logs every failure.
+     *
+     * @return the number of failed statements
+     */
+    private int store(List<ParsedLine> chunk, Writer errors) throws IOException {
+        List<ANFStatement> statements = new ArrayList<>(chunk.size());
+        List<Long> offsets = new ArrayList<>(chunk.size());
+        int failed = 0;
+
+        for (ParsedLine line : chunk) {
+            if (line.statement() != null) {
+                statements.add(line.statement());
+                offsets.add(line.offset());
+            } else {
+                writeError(errors, line.offset(), line.error());
+                failed++;
+            }
+        }
+
+        for (BatchResult result : this.openCDXAdrService.storeAnfStatements(statements)) {
+            if (result.getError() != null) {
+                writeError(errors, offsets.get(result.getIndex()), result.getError());
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private static void writeError(Writer errors, long offset, String error) throws IOException {
+        errors.write(offset + "\t" + String.valueOf(error).replace('\n', ' ') + "\n");
+    }
+
+    private static Properties readCheckpoint(Path checkpointFile) throws IOException {
+        Properties checkpoint = new Properties();
+        if (Files.exists(checkpointFile)) {
+            try (Reader reader = Files.newBufferedReader(checkpointFile)) {
+                checkpoint.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Replaces the checkpoint atomically, so a crash leaves either the old or the new checkpoint.
+     */
+    private static void writeCheckpoint(Path checkpointFile, Properties checkpoint) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            checkpoint.store(writer, "ADR bulk load checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record RawLine(long offset, String text) {
+    }
+
+    private record ParsedLine(long offset, ANFStatement statement, String error) {
+    }
+}
@@ -0,0 +1,355 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.dto.ConceptFocus;
+import cdx.opencdx.adr.model.ConceptClosureModel;
+import cdx.opencdx.adr.repository.ConceptClosureRepository;
+import cdx.opencdx.adr.service.ConceptHierarchyService;
+import cdx.opencdx.adr.service.IKMInterface;
+import cdx.opencdx.adr.service.QueryResultCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The ConceptHierarchyServiceImpl class maintains dimconceptclosure, the transitive closure of the concept hierarchy
+ * for the concepts stored in dimtinkarconcept.  Stored concepts missing from the closure are added in the background
+ * at startup and on a schedule, by walking their parents in IKM once.  Concepts created while the application runs are
+ * added right after their transaction commits by a background worker, so the closure stays complete under steady
+ * ingestion instead of waiting for the next refresh.  Focus modes are answered from the closure, and cached in memory
+ * for a bounded time, only while every stored concept is in it; otherwise callers fall back to IKM.
+ */
+@Slf4j
+@Service
+public class ConceptHierarchyServiceImpl implements ConceptHierarchyService {
+
+    /**
+     * Number of concepts added to the closure per transaction.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final ConceptClosureRepository closureRepository;
+
+    private final IKMInterface ikmInterface;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final QueryResultCacheService queryResultCacheService;
+
+    /**
+     * Expanded focus modes, cleared whenever the closure changes.
+     */
+    private final Cache<FocusKey, List<UUID>> expansions;
+
+    /**
+     * Incremented whenever the closure changes, or concepts are changed in a way only a refresh repairs.
+     */
+    private final AtomicLong generation = new AtomicLong(1);
+
+    /**
+     * The generation the closure is complete for, the closure is only used while it equals {@link #generation}.
+     */
+    private volatile long closedGeneration;
+
+    /**
+     * Allows one refresh, or one batch of added concepts, at a time.
+     */
+    private final ReentrantLock refreshing = new ReentrantLock();
+
+    /**
+     * Concepts created since they were last added to the closure.
+     */
+    private final BlockingQueue<UUID> added = new LinkedBlockingQueue<>();
+
+    /**
+     * Adds the created concepts to the closure.
+     */
+    private final Thread worker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates the service.
+     *
+     * @param closureRepository       the closure repository
+     * @param ikmInterface            the IKM interface the parents of concepts are read from
+     * @param transactionManager      the transaction manager used to write the closure
+     * @param queryResultCacheService the cache told when the closure changes
+     * @param cacheSize               the maximum number of expanded focus modes cached
+     * @param cacheSeconds            how long an expanded focus mode is cached, bounding how long concepts added to the
+     *                                closure by other nodes are missed
+     */
+    public ConceptHierarchyServiceImpl(ConceptClosureRepository closureRepository, IKMInterface ikmInterface,
+                                       PlatformTransactionManager transactionManager, QueryResultCacheService queryResultCacheService,
+                                       @Value("${data.concept-closure.cache-size:10000}") long cacheSize,
+                                       @Value("${data.concept-closure.cache-seconds:60}") long cacheSeconds) {
+        this.closureRepository = closureRepository;
+        this.ikmInterface = ikmInterface;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queryResultCacheService = queryResultCacheService;
+        this.expansions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheSeconds))
+                .build();
+        this.worker = Thread.ofVirtual().name("concept-closure-added").start(this::addConcepts);
+    }
+
+    @Override
+    public List<UUID> expand(UUID conceptId, ConceptFocus focus) {
+        if (!this.ready() || conceptId == null || focus == null) {
+            return null;
+        }
+        FocusKey key = new FocusKey(conceptId, focus);
+        List<UUID> cached = this.expansions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<UUID> result = switch (focus) {
+            case DESCENDANTS -> this.closureRepository.findDescendantIds(conceptId, 1, Integer.MAX_VALUE);
+            case DESCENDANTS_OR_SELF -> withSelf(conceptId, this.closureRepository.findDescendantIds(conceptId, 1, Integer.MAX_VALUE));
+            case CHILDREN -> this.closureRepository.findDescendantIds(conceptId, 1, 1);
+            case CHILDREN_OR_SELF -> withSelf(conceptId, this.closureRepository.findDescendantIds(conceptId, 1, 1));
+            case ANCESTORS, ANCESTORS_OR_SELF, PARENT, PARENT_OR_SELF -> this.expandAncestors(conceptId, focus);
+            default -> null;
+        };
+        if (result != null) {
+            this.expansions.put(key, List.copyOf(result));
+        }
+        return result;
+    }
+
+    /**
+     * Ancestors are only in the closure when the focus concept itself is stored.
+     */
+    private List<UUID> expandAncestors(UUID conceptId, ConceptFocus focus) {
+        if (!this.closureRepository.existsById(new ConceptClosureModel.Key(conceptId, conceptId))) {
+            return null;
+        }
+        int minDepth = focus == ConceptFocus.ANCESTORS_OR_SELF || focus == ConceptFocus.PARENT_OR_SELF ? 0 : 1;
+        int maxDepth = focus == ConceptFocus.PARENT || focus == ConceptFocus.PARENT_OR_SELF ? 1 : Integer.MAX_VALUE;
+        return this.closureRepository.findAncestorIds(conceptId, minDepth, maxDepth);
+    }
+
+    private static List<UUID> withSelf(UUID conceptId, List<UUID> uuids) {
+        List<UUID> result = new ArrayList<>(uuids);
+        result.add(conceptId);
+        return result;
+    }
+
+    @Override
+    public Predicate focusPredicate(CriteriaBuilder cb, AbstractQuery<?> query, Expression<UUID> path, UUID conceptId, ConceptFocus focus) {
+        if (!this.ready() || conceptId == null || focus == null) {
+            return null;
+        }
+        int maxDepth;
+        switch (focus) {
+            case DESCENDANTS, DESCENDANTS_OR_SELF -> maxDepth = Integer.MAX_VALUE;
+            case CHILDREN, CHILDREN_OR_SELF -> maxDepth = 1;
+            default -> {
+                // Ancestor sets are small, an IN list is as good as a join
+                List<UUID> uuids = this.expand(conceptId, focus);
+                return uuids == null ? null : path.in(uuids);
+            }
+        }
+
+        Subquery<UUID> descendants = query.subquery(UUID.class);
+        Root<ConceptClosureModel> closure = descendants.from(ConceptClosureModel.class);
+        descendants.select(closure.<UUID>get("descendantId")).where(
+                cb.equal(closure.get("ancestorId"), conceptId),
+                cb.between(closure.<Integer>get("depth"), 1, maxDepth));
+
+        Predicate inFocus = path.in(descendants);
+        if (focus == ConceptFocus.DESCENDANTS_OR_SELF || focus == ConceptFocus.CHILDREN_OR_SELF) {
+            return cb.or(cb.equal(path, conceptId), inFocus);
+        }
+        return inFocus;
+    }
+
+    @Override
+    public void conceptsChanged() {
+        this.generation.incrementAndGet();
+    }
+
+    @Override
+    public void conceptAdded(UUID conceptId) {
+        if (conceptId != null) {
+            this.added.add(conceptId);
+        }
+    }
+
+    /**
+     * Stops the worker adding created concepts; concepts still queued are added by the next refresh.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.worker.interrupt();
+    }
+
+    /**
+     * Adds created concepts to the closure in batches, one transaction per batch.  The closure stays in use when it
+     * was complete before the batch and no other change happened meanwhile.  Until IKM is ready, or when a batch
+     * fails, the closure is marked incomplete and the concepts are left to the scheduled refresh.
+     */
+    private void addConcepts() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<UUID> batch = new ArrayList<>();
+                batch.add(this.added.take());
+                this.added.drainTo(batch, CHUNK_SIZE - 1);
+                if (!this.ikmInterface.isReady()) {
+                    this.generation.incrementAndGet();
+                    continue;
+                }
+                this.refreshing.lock();
+                try {
+                    long before = this.generation.get();
+                    boolean complete = this.closedGeneration == before;
+                    this.close(batch, new HashMap<>());
+                    this.expansions.invalidateAll();
+                    if (this.generation.compareAndSet(before, before + 1)) {
+                        if (complete) {
+                            this.closedGeneration = before + 1;
+                        }
+                    } else {
+                        this.generation.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to add {} concepts to the concept closure, leaving them to the next refresh: {}", batch.size(), e.getMessage());
+                    this.generation.incrementAndGet();
+                } finally {
+                    this.refreshing.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds the missing part of the closure on a background thread, so startup does not wait for it.  Until the IKM
+     * data store is open the closure is left to the scheduled refresh.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("concept-closure").start(this::refresh);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${data.concept-closure.refresh-ms:60000}", initialDelayString = "${data.concept-closure.refresh-ms:60000}")
+    public void refresh() {
+        if (!this.ikmInterface.isReady() || !this.refreshing.tryLock()) {
+            return;
+        }
+        try {
+            long target = this.generation.get();
+            if (target == this.closedGeneration) {
+                return;
+            }
+
+            int orphans = this.closureRepository.deleteOrphans();
+            List<UUID> pending = this.closureRepository.findUnclosedConceptIds();
+            if (!pending.isEmpty() || orphans > 0) {
+                long start = System.currentTimeMillis();
+                Map<UUID, Map<UUID, Integer>> ancestors = new HashMap<>();
+                for (int i = 0; i < pending.size(); i += CHUNK_SIZE) {
+                    this.close(pending.subList(i, Math.min(i + CHUNK_SIZE, pending.size())), ancestors);
+                }
+                this.expansions.invalidateAll();
+                log.info("Added {} concepts to the concept closure in {} ms", pending.size(), System.currentTimeMillis() - start);
+            }
+            this.closedGeneration = target;
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh the concept closure, hierarchy focus modes use IKM until the next refresh", e);
+        } finally {
+            this.refreshing.unlock();
+        }
+    }
+
+    /**
+     * Writes the closure rows of a chunk of concepts in one transaction, which also drops the cached reports of queries
+     * expanding a hierarchy focus on every node.
+     */
+    private void close(List<UUID> concepts, Map<UUID, Map<UUID, Integer>> ancestors) {
+        List<ConceptClosureModel> rows = new ArrayList<>();
+        for (UUID concept : concepts) {
+            rows.add(new ConceptClosureModel(concept, concept, 0));
+            this.ancestorsOf(concept, ancestors).forEach((ancestor, depth) ->
+                    rows.add(new ConceptClosureModel(ancestor, concept, depth)));
+        }
+        this.transactionTemplate.executeWithoutResult(status -> {
+            concepts.forEach(this.closureRepository::deleteByDescendant);
+            rows.forEach(this.entityManager::persist);
+            this.entityManager.flush();
+            this.entityManager.clear();
+            this.queryResultCacheService.hierarchyChanged();
+        });
+    }
+
+    /**
+     * Returns every ancestor of a concept with the length of the shortest path to it.  Results are memoized for the
+     * duration of a refresh, so shared ancestors are only read from IKM once.
+     */
+    private Map<UUID, Integer> ancestorsOf(UUID concept, Map<UUID, Map<UUID, Integer>> memo) {
+        Map<UUID, Integer> known = memo.get(concept);
+        if (known != null) {
+            return known;
+        }
+        Map<UUID, Integer> result = new HashMap<>();
+        // Guards against cycles while the ancestors are being collected
+        memo.put(concept, result);
+
+        for (PublicId parent : this.ikmInterface.parentsOf(PublicIds.of(concept))) {
+            UUID parentId = parent.asUuidArray()[0];
+            if (parentId.equals(concept)) {
+                continue;
+            }
+            result.merge(parentId, 1, Math::min);
+            this.ancestorsOf(parentId, memo).forEach((ancestor, depth) -> {
+                if (!ancestor.equals(concept)) {
+                    result.merge(ancestor, depth + 1, Math::min);
+                }
+            });
+        }
+        return result;
+    }
+
+    private boolean ready() {
+        return this.closedGeneration == this.generation.get();
+    }
+
+    /**
+     * Cache key of an expanded focus mode.
+     */
+    private record FocusKey(UUID conceptId, ConceptFocus focus) {
+    }
+}
@@ -0,0 +1,73 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.service.ConceptSearchService;
+import cdx.opencdx.adr.service.IKMInterface;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The ConceptSearchServiceImpl class searches IKM for concepts, hydrating all hits in one batch, and keeps the results
+ * of recent searches for a few seconds.  The IKM data store only changes on restart, so the short expiry bounds memory
+ * rather than staleness.
+ */
+@Slf4j
+@Service
+public class ConceptSearchServiceImpl implements ConceptSearchService {
+
+    private final IKMInterface ikmInterface;
+
+    /**
+     * Recent search results, keyed by the normalized search string and limit.
+     */
+    private final Cache<SearchKey, List<TinkarConceptModel>> searches;
+
+    /**
+     * Creates the service.
+     *
+     * @param ikmInterface the IKM interface searched
+     * @param metrics      the metrics the cache is registered with
+     * @param cacheSize    the maximum number of searches kept
+     * @param ttlSeconds   how long the results of a search are kept
+     */
+    public ConceptSearchServiceImpl(IKMInterface ikmInterface, IngestionMetrics metrics,
+                                    @Value("${data.ikm.search.cache-size:1000}") long cacheSize,
+                                    @Value("${data.ikm.search.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.ikmInterface = ikmInterface;
+        this.searches = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        metrics.monitorCache("concept.search", this.searches);
+    }
+
+    @Override
+    public List<TinkarConceptModel> search(String search, int limit) {
+        String trimmed = search == null ? "" : search.trim();
+        if (trimmed.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // The description index is case insensitive, so searches differing only in case share an entry
+        return this.searches.get(new SearchKey(trimmed.toLowerCase(Locale.ROOT), limit), key -> {
+            long start = System.currentTimeMillis();
+            List<TinkarConceptModel> concepts = List.copyOf(this.ikmInterface.searchConcepts(trimmed, limit));
+            log.debug("Searched for '{}' in {} ms, {} concepts", trimmed, System.currentTimeMillis() - start, concepts.size());
+            return concepts;
+        });
+    }
+
+    /**
+     * Cache key of a search.
+     */
+    private record SearchKey(String search, int limit) {
+    }
+}
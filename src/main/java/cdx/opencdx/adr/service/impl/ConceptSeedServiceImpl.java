@@ -0,0 +1,145 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.model.SeedCatalogModel;
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.repository.SeedCatalogRepository;
+import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.ConceptSeedService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The ConceptSeedServiceImpl class loads the seed catalog, a versioned JSON resource listing concepts by UUID, name and
+ * description.  The SHA-256 of the catalog is stored in seedcatalog once it is loaded, so on later starts an unchanged
+ * catalog costs one primary key lookup.  Nodes starting together serialize on a row lock of the catalog's seedcatalog
+ * row, which works on Postgres and H2 alike, and the second one finds the catalog already loaded.
+ */
+@Slf4j
+@Service
+public class ConceptSeedServiceImpl implements ConceptSeedService {
+
+    private final TinkarConceptRepository conceptRepository;
+
+    private final SeedCatalogRepository seedCatalogRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final Resource catalog;
+
+    /**
+     * Creates the service.
+     *
+     * @param conceptRepository     the concept repository
+     * @param seedCatalogRepository the repository of loaded catalog checksums
+     * @param objectMapper          the ObjectMapper used to read the catalog
+     * @param catalog               the catalog resource
+     */
+    public ConceptSeedServiceImpl(TinkarConceptRepository conceptRepository, SeedCatalogRepository seedCatalogRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${data.seed.catalog:classpath:concepts/seed-concepts.json}") Resource catalog) {
+        this.conceptRepository = conceptRepository;
+        this.seedCatalogRepository = seedCatalogRepository;
+        this.objectMapper = objectMapper;
+        this.catalog = catalog;
+    }
+
+    @Override
+    @Transactional
+    public void seed(boolean includeMock) {
+        String name = includeMock ? "concepts-mock" : "concepts";
+        byte[] content = this.read();
+        String checksum = checksum(content);
+        if (this.isLoaded(name, checksum)) {
+            log.info("Seed catalog {} is unchanged, skipping it", name);
+            return;
+        }
+        this.seedCatalogRepository.insertIfAbsent(name);
+        // The row read before may be stale, the locked one holds the checksum of whoever loaded the catalog last
+        if (checksum.equals(this.seedCatalogRepository.lock(name))) {
+            return;
+        }
+
+        JsonNode root;
+        try {
+            root = this.objectMapper.readTree(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to parse seed catalog " + this.catalog, e);
+        }
+        Map<UUID, TinkarConceptModel> seeds = new LinkedHashMap<>();
+        collect(root.path("concepts"), seeds);
+        if (includeMock) {
+            collect(root.path("mockConcepts"), seeds);
+        }
+
+        int updated = 0;
+        for (TinkarConceptModel existing : this.conceptRepository.findAllByConceptIdIn(new ArrayList<>(seeds.keySet()))) {
+            TinkarConceptModel seed = seeds.remove(existing.getConceptId());
+            if (seed == null) {
+                continue;
+            }
+            if (!Objects.equals(existing.getConceptName(), seed.getConceptName())
+                    || !Objects.equals(existing.getConceptDescription(), seed.getConceptDescription())) {
+                existing.setConceptName(seed.getConceptName());
+                existing.setConceptDescription(seed.getConceptDescription());
+                updated++;
+            }
+        }
+        List<TinkarConceptModel> missing = new ArrayList<>(seeds.values());
+        this.conceptRepository.saveAll(missing);
+
+        int version = root.path("version").asInt();
+        this.seedCatalogRepository.save(new SeedCatalogModel(name, version, checksum, Instant.now()));
+        log.info("Loaded seed catalog {} version {}: {} concepts added, {} updated", name, version, missing.size(), updated);
+    }
+
+    private boolean isLoaded(String name, String checksum) {
+        return this.seedCatalogRepository.findById(name)
+                .map(loaded -> loaded.getChecksum().equals(checksum))
+                .orElse(false);
+    }
+
+    private byte[] read() {
+        try (InputStream in = this.catalog.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read seed catalog " + this.catalog, e);
+        }
+    }
+
+    private static String checksum(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the concepts of a catalog section, the first entry for a UUID wins.
+     */
+    private static void collect(JsonNode concepts, Map<UUID, TinkarConceptModel> seeds) {
+        for (JsonNode concept : concepts) {
+            UUID conceptId = UUID.fromString(concept.path("id").asText());
+            seeds.putIfAbsent(conceptId, new TinkarConceptModel(conceptId, concept.path("name").asText(),
+                    concept.path("description").asText(), true));
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package cdx.opencdx.adr.service.impl;
 
 import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.service.ConceptHierarchyService;
 import cdx.opencdx.adr.service.ConceptService;
 import cdx.opencdx.adr.service.IKMInterface;
 import dev.ikm.tinkar.common.id.PublicIds;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -24,19 +29,36 @@ public class ConceptServiceImpl implements ConceptService {
      */
     private final IKMInterface ikmInterface;
 
+    /**
+     * Answers hierarchy focus modes from the materialized concept closure.
+     */
+    private final ConceptHierarchyService conceptHierarchyService;
+
     /**
      * Constructs an instance of the ConceptServiceImpl class with the provided IKMInterface object.
      *
-     * @param ikmInterface The IKMInterface object used for retrieving concept information.
+     * @param ikmInterface            The IKMInterface object used for retrieving concept information.
+     * @param conceptHierarchyService The ConceptHierarchyService answering focus modes from the concept closure.
      */
-    public ConceptServiceImpl(IKMInterface ikmInterface) {
+    public ConceptServiceImpl(IKMInterface ikmInterface, ConceptHierarchyService conceptHierarchyService) {
         this.ikmInterface = ikmInterface;
+        this.conceptHierarchyService = conceptHierarchyService;
+    }
+
+    @Override
+    public Predicate getFocusPredicate(CriteriaBuilder cb, AbstractQuery<?> query, Expression<UUID> path, TinkarConceptModel conceptModel) {
+        Predicate predicate = this.conceptHierarchyService.focusPredicate(cb, query, path, conceptModel.getConceptId(), conceptModel.getFocus());
+        return predicate != null ? predicate : path.in(this.getFocusConcepts(conceptModel));
     }
 
     @Override
     public List<UUID> getFocusConcepts(TinkarConceptModel conceptModel) {
 
         log.debug("Retrieving focus concepts {} for concept model: {}", conceptModel.getFocus(), conceptModel.getConceptId());
+        List<UUID> closure = this.conceptHierarchyService.expand(conceptModel.getConceptId(), conceptModel.getFocus());
+        if (closure != null) {
+            return closure;
+        }
         List<UUID> uuids = switch (conceptModel.getFocus()) {
             case SELF, DATE -> List.of(conceptModel.getConceptId());
             case DESCENDANTS ->
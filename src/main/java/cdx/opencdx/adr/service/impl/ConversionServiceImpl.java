@@ -10,7 +10,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * The ConversionServiceImpl class is an implementation of the ConversionService interface.
@@ -28,6 +32,20 @@ public class ConversionServiceImpl implements ConversionService {
      */
     private final TinkarConceptRepository conceptRepository;
 
+    /**
+     * The units values are converted between.
+     */
+    private static final List<UUID> UNITS = Stream.of(OpenCDXIKMService.UNIT_INCH, OpenCDXIKMService.UNIT_METER,
+                    OpenCDXIKMService.UNIT_POUNDS, OpenCDXIKMService.UNIT_KILOGRAMS, OpenCDXIKMService.UNIT_DAY,
+                    OpenCDXIKMService.UNIT_MONTH, OpenCDXIKMService.UNIT_YEAR, OpenCDXIKMService.UNIT_SECONDS,
+                    OpenCDXIKMService.UNIT_HOUR, OpenCDXIKMService.UNIT_MINUTE, OpenCDXIKMService.UNIT_CALENDAR_TIME,
+                    OpenCDXIKMService.UNIT_DATE_TIME, OpenCDXIKMService.UNIT_DATE, OpenCDXIKMService.UNIT_MILLISECONDS,
+                    OpenCDXIKMService.UNIT_CELSIUS, OpenCDXIKMService.UNIT_FAHRENHEIT, OpenCDXIKMService.UNIT_MILILITER,
+                    OpenCDXIKMService.UNIT_LITER, OpenCDXIKMService.UNIT_FLUID_OUNCE, OpenCDXIKMService.UNIT_PINT,
+                    OpenCDXIKMService.UNIT_GALLON)
+            .map(UUID::fromString)
+            .toList();
+
 
     /**
      * Constructs a new instance of ConversionServiceImpl with the given concept repository.
@@ -115,6 +133,29 @@ public class ConversionServiceImpl implements ConversionService {
         return measure;
     }
 
+    /**
+     * Returns how values of each unit are converted into the given unit.  All conversions are linear, so the factor and
+     * offset are read off the conversion of 0 and 1.
+     *
+     * @param unit the UUID of the target unit
+     * @return the conversion of each unit, empty when values are not converted into the unit
+     */
+    @Override
+    public Map<UUID, LinearConversion> linearConversions(UUID unit) {
+        Map<UUID, LinearConversion> conversions = new LinkedHashMap<>();
+        if (!UNITS.contains(unit)) {
+            return conversions;
+        }
+        conversions.put(unit, new LinearConversion(1, 0));
+        for (UUID from : UNITS) {
+            Double offset = from.equals(unit) ? null : this.process(unit, from, 0.0);
+            if (offset != null) {
+                conversions.put(from, new LinearConversion(this.process(unit, from, 1.0) - offset, offset));
+            }
+        }
+        return conversions;
+    }
+
     /**
      * Converts a measure to the imperial unit.
      *
@@ -0,0 +1,170 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.model.MeasureModel;
+import cdx.opencdx.adr.model.ReferenceModel;
+import cdx.opencdx.adr.service.DimensionInternService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The DimensionInternServiceImpl class interns dimmeasure and dimreference rows.  The values of a row are hashed
+ * into an intern key, the key is looked up in a bounded in-memory cache, and on a miss the row is inserted with
+ * {@code ON CONFLICT DO NOTHING} on the unique intern_key index and its id read by key.  A row another statement stored
+ * with the same values first is neither rewritten nor locked, so concurrent chunks sharing a row do not wait on each
+ * other once it is committed.  Ids are only cached once the inserting transaction commits, so a rolled back insert is
+ * never handed out.
+ */
+@Slf4j
+@Service
+public class DimensionInternServiceImpl implements DimensionInternService {
+
+    private static final String INTERN_MEASURE = """
+            INSERT INTO dimmeasure (id, upper_bound, lower_bound, include_upper_bound, include_lower_bound, semantic_id, resolution, intern_key)
+            VALUES (nextval('dimmeasure_id_seq'), :upperBound, :lowerBound, :includeUpperBound, :includeLowerBound, :semanticId, :resolution, :internKey)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String MEASURE_ID = "SELECT id FROM dimmeasure WHERE intern_key = :internKey";
+
+    private static final String INTERN_REFERENCE = """
+            INSERT INTO dimreference (id, identifier, display, reference, uri, intern_key)
+            VALUES (nextval('dimreference_id_seq'), :identifier, :display, :reference, :uri, :internKey)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String REFERENCE_ID = "SELECT id FROM dimreference WHERE intern_key = :internKey";
+
+    /**
+     * Ids of committed dimmeasure rows, keyed on intern key.
+     */
+    private final Cache<String, Long> measureIds;
+
+    /**
+     * Ids of committed dimreference rows, keyed on intern key.
+     */
+    private final Cache<String, Long> referenceIds;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates the service with caches of the given size.
+     *
+     * @param cacheSize the maximum number of ids cached per table
+     */
+    public DimensionInternServiceImpl(@Value("${data.ingest.intern-cache-size:100000}") long cacheSize) {
+        this.measureIds = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.referenceIds = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    @Override
+    public MeasureModel internMeasure(MeasureModel measure) {
+        Long semanticId = measure.getSemantic() != null ? measure.getSemantic().getId() : null;
+        String key = internKey(measure.getUpperBound(), measure.getLowerBound(), measure.getIncludeUpperBound(),
+                measure.getIncludeLowerBound(), semanticId, measure.getResolution());
+
+        Long id = this.measureIds.getIfPresent(key);
+        if (id == null) {
+            id = this.insert(this.nativeQuery(INTERN_MEASURE)
+                    .setParameter("upperBound", measure.getUpperBound(), StandardBasicTypes.DOUBLE)
+                    .setParameter("lowerBound", measure.getLowerBound(), StandardBasicTypes.DOUBLE)
+                    .setParameter("includeUpperBound", measure.getIncludeUpperBound(), StandardBasicTypes.BOOLEAN)
+                    .setParameter("includeLowerBound", measure.getIncludeLowerBound(), StandardBasicTypes.BOOLEAN)
+                    .setParameter("semanticId", semanticId, StandardBasicTypes.LONG)
+                    .setParameter("resolution", measure.getResolution(), StandardBasicTypes.DOUBLE)
+                    .setParameter("internKey", key, StandardBasicTypes.STRING), MEASURE_ID, this.measureIds, key);
+        }
+
+        measure.setId(id);
+        measure.setInternKey(key);
+        return measure;
+    }
+
+    @Override
+    public ReferenceModel internReference(ReferenceModel reference) {
+        String key = internKey(reference.getIdentifier(), reference.getDisplay(), reference.getReference(), reference.getUri());
+
+        Long id = this.referenceIds.getIfPresent(key);
+        if (id == null) {
+            id = this.insert(this.nativeQuery(INTERN_REFERENCE)
+                    .setParameter("identifier", reference.getIdentifier(), StandardBasicTypes.STRING)
+                    .setParameter("display", reference.getDisplay(), StandardBasicTypes.STRING)
+                    .setParameter("reference", reference.getReference(), StandardBasicTypes.STRING)
+                    .setParameter("uri", reference.getUri(), StandardBasicTypes.STRING)
+                    .setParameter("internKey", key, StandardBasicTypes.STRING), REFERENCE_ID, this.referenceIds, key);
+        }
+
+        reference.setId(id);
+        reference.setInternKey(key);
+        return reference;
+    }
+
+    /**
+     * Creates a native query that does not flush the persistence context first, so the inserts queued for the
+     * current statement stay in one JDBC batch.
+     */
+    private NativeQuery<?> nativeQuery(String sql) {
+        NativeQuery<?> query = this.entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setHibernateFlushMode(FlushMode.MANUAL);
+        return query;
+    }
+
+    /**
+     * Runs an intern insert, reads the id of the row stored under the key and caches it once the current transaction
+     * commits.  If a concurrent transaction inserted the key first, the insert waits for it to end, so the row read
+     * afterwards is committed or is the one just inserted.
+     */
+    private Long insert(NativeQuery<?> insert, String select, Cache<String, Long> cache, String key) {
+        insert.executeUpdate();
+        Long id = ((Number) this.nativeQuery(select)
+                .setParameter("internKey", key, StandardBasicTypes.STRING)
+                .getSingleResult()).longValue();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, id);
+                }
+            });
+        } else {
+            cache.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Hashes the given values, in order, into a SHA-256 hex key.  Each value is length prefixed and null is distinct
+     * from every string, so different tuples cannot produce the same input.
+     */
+    private static String internKey(Object... values) {
+        MessageDigest digest = sha256();
+        for (Object value : values) {
+            String text = value == null ? "-" : value.toString().length() + ":" + value;
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ';');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
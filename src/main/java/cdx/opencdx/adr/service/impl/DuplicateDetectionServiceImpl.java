@@ -0,0 +1,91 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.repository.ANFStatementRepository;
+import cdx.opencdx.adr.service.DuplicateDetectionService;
+import cdx.opencdx.adr.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The DuplicateDetectionServiceImpl class keeps a Bloom filter of every stored anfid.  Most submitted statements are
+ * new, and for those the filter answers without a database lookup; only when the filter reports a possible match is
+ * the unique anfid index queried.  The filter is rebuilt from dimanfstatement in the background at startup, and every
+ * lookup goes to the database until the rebuild has finished.
+ */
+@Slf4j
+@Service
+public class DuplicateDetectionServiceImpl implements DuplicateDetectionService {
+
+    private final ANFStatementRepository anfStatementRepository;
+
+    private final TransactionTemplate readOnly;
+
+    private final BloomFilter filter;
+
+    private volatile boolean ready;
+
+    /**
+     * Creates the service with a filter of the given size.
+     *
+     * @param anfStatementRepository the repository used to look up and load stored anfids
+     * @param transactionManager     the transaction manager used to stream the stored anfids
+     * @param expectedStatements     the number of statements the filter is sized for
+     * @param falsePositiveRate      the wanted rate of needless database lookups
+     */
+    public DuplicateDetectionServiceImpl(ANFStatementRepository anfStatementRepository, PlatformTransactionManager transactionManager,
+                                         @Value("${data.ingest.dedup.expected-statements:10000000}") long expectedStatements,
+                                         @Value("${data.ingest.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.anfStatementRepository = anfStatementRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.filter = new BloomFilter(expectedStatements, falsePositiveRate);
+    }
+
+    @Override
+    public Long findExisting(UUID anfid) {
+        if (this.ready && !this.filter.mightContain(anfid)) {
+            return null;
+        }
+        List<Long> ids = this.anfStatementRepository.findIdsByAnfid(anfid);
+        return ids.isEmpty() ? null : ids.getFirst();
+    }
+
+    @Override
+    public void remember(UUID anfid) {
+        this.filter.put(anfid);
+    }
+
+    /**
+     * Loads every stored anfid into the filter on a background thread, so startup does not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Thread.ofVirtual().name("anfid-bloom-filter").start(() -> {
+            try {
+                AtomicLong count = new AtomicLong();
+                this.readOnly.executeWithoutResult(status -> {
+                    try (Stream<UUID> anfids = this.anfStatementRepository.streamAllAnfids()) {
+                        anfids.forEach(anfid -> {
+                            this.filter.put(anfid);
+                            count.incrementAndGet();
+                        });
+                    }
+                });
+                this.ready = true;
+                log.info("Loaded {} anfids into the duplicate filter", count.get());
+            } catch (RuntimeException e) {
+                log.error("Failed to load the duplicate filter, every statement will be checked in the database", e);
+            }
+        });
+    }
+}
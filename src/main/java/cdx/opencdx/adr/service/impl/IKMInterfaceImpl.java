@@ -3,9 +3,12 @@ package cdx.opencdx.adr.service.impl;
 import cdx.opencdx.adr.model.MeasureModel;
 import cdx.opencdx.adr.model.TinkarConceptModel;
 import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.ConceptSeedService;
 import cdx.opencdx.adr.service.IKMInterface;
-import cdx.opencdx.adr.service.OpenCDXIKMService;
+import cdx.opencdx.adr.service.IkmNotReadyException;
+import cdx.opencdx.adr.utils.IdentifierIndex;
 import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
 import dev.ikm.tinkar.common.service.CachingService;
 import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.common.service.ServiceKeys;
@@ -26,12 +29,22 @@ import dev.ikm.tinkar.terms.TinkarTerm;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.units.qual.C;
 import org.eclipse.collections.api.list.ImmutableList;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.LongConsumer;
 
@@ -52,54 +65,110 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
 
     private final TinkarConceptRepository conceptRepository;
 
+    /**
+     * The data store directory.
+     */
+    private final File dataStore;
+
+    /**
+     * The file the device identifier index is kept in between starts.
+     */
+    private final Path deviceIndexFile;
+
+    /**
+     * Fingerprint of the data store the indexes were built from.
+     */
+    private volatile String storeFingerprint;
+
+    /**
+     * Device identifier values mapped to the component they identify, or null if the index could not be built and
+     * devices are looked up by scanning the identifier pattern.
+     */
+    private volatile IdentifierIndex deviceIndex;
+
+    /**
+     * The latest value constraint of each concept, keyed on every UUID of the concept.
+     */
+    private volatile Map<UUID, ValueConstraint> valueConstraints = Map.of();
+
+    /**
+     * Completes once the data store is open and indexed.
+     */
+    private final CompletableFuture<Void> started;
+
     /**
      * Constructs an instance of IKMInterfaceImpl with the specified pathParent and pathChild.
      *
-     * @param pathParent        the parent path
-     * @param pathChild         the child path
-     * @param conceptRepository the concept repository
+     * @param pathParent         the parent path
+     * @param pathChild          the child path
+     * @param conceptRepository  the concept repository
+     * @param conceptSeedService loads the seed catalog
+     * @param startAsync         open the data store on a background thread instead of blocking startup
      */
-    public IKMInterfaceImpl(String pathParent, String pathChild, TinkarConceptRepository conceptRepository) {
+    public IKMInterfaceImpl(String pathParent, String pathChild, TinkarConceptRepository conceptRepository,
+                            ConceptSeedService conceptSeedService, boolean startAsync) {
         this.conceptRepository = conceptRepository;
         log.info("Creating IKM Interface: pathParent={}, pathChild={}", pathParent, pathChild);
-        if (!PrimitiveData.running()) {
-            log.debug("Initializing Primitive Data");
-            CachingService.clearAll();
-            log.debug("Cleared all caches");
-            ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, new File(pathParent, pathChild));
-            log.debug("Set data store root");
-            PrimitiveData.selectControllerByName(ARRAY_STORE_TO_OPEN);
-            log.debug("Selected controller by name");
-            PrimitiveData.start();
-            log.debug("Primitive data started");
+        this.dataStore = new File(pathParent, pathChild);
+        this.deviceIndexFile = new File(pathParent, pathChild + ".device-index").toPath();
+
+        conceptSeedService.seed(false);
+
+        if (startAsync) {
+            this.started = CompletableFuture.runAsync(this::start, task -> Thread.ofPlatform().name("ikm-start").daemon().start(task));
+        } else {
+            this.start();
+            this.started = CompletableFuture.completedFuture(null);
         }
+    }
 
-        addConceptIfMissing(OpenCDXIKMService.COVID_PRESENCE, "Presence of COVID", "Presence of COVID");
-        addConceptIfMissing(OpenCDXIKMService.COVID_TEST_KITS, "Covid-19 Test Kits (Lookup)", "Covid-19 Test Kits (Lookup)");
-        addConceptIfMissing(OpenCDXIKMService.BMI_PATTERN, "Body Mass Index (Lookup)", "Body Mass Index (Lookup)");
-
-        addConceptIfMissing(OpenCDXIKMService.UNIT_DAY, "day", "258703001 | day (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_MONTH, "month", "258706009 | month (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_YEAR, "year", "258707000 | year (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_SECONDS, "seconds", "257997001 | Seconds (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_METER, "meter", "258669008 | meter (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_INCH, "inch", "258677007 | inch (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_POUNDS, "pounds", "258693003 | pounds (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_KILOGRAMS, "kilogram", "258683005 | kilogram (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_MINUTE, "minute", "1156209001 | minute (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_HOUR, "kilograms", "2258702006 | hour (qualifier value)"); // There seems to be a typo here. It should likely be "hour" instead of "kilograms"
-        addConceptIfMissing(OpenCDXIKMService.UNIT_DATE, "date", "410672004 | Date property (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_CALENDAR_TIME, "calendar time", "Unit of calendar time");
-
-        addConceptIfMissing(OpenCDXIKMService.UNIT_CELSIUS, "Celsius", "258710007 | Degrees Celsius (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_FAHRENHEIT, "Fahrenheit", "258712004 | Degrees Fahrenheit (qualifier value)");
-
-        addConceptIfMissing(OpenCDXIKMService.UNIT_MILILITER, "milliliter", "258773002 | Milliliter (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_LITER, "liter", "258770004 | Liter (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_FLUID_OUNCE, "fluid ounce", "282118007 | fluid ounce (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_PINT, "pint", "282119004 | pint (qualifier value)");
-        addConceptIfMissing(OpenCDXIKMService.UNIT_GALLON, "gallon", "282120005 | gallon (qualifier value)");
+    /**
+     * Opens the data store and builds the indexes over it.
+     */
+    private void start() {
+        long start = System.currentTimeMillis();
+        try {
+            if (!PrimitiveData.running()) {
+                log.debug("Initializing Primitive Data");
+                CachingService.clearAll();
+                log.debug("Cleared all caches");
+                ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, this.dataStore);
+                log.debug("Set data store root");
+                PrimitiveData.selectControllerByName(ARRAY_STORE_TO_OPEN);
+                log.debug("Selected controller by name");
+                PrimitiveData.start();
+                log.debug("Primitive data started");
+            }
+            this.storeFingerprint = fingerprint(this.dataStore.toPath());
+            this.deviceIndex = this.loadDeviceIndex(this.storeFingerprint);
+            this.valueConstraints = this.buildValueConstraints();
+            log.info("IKM data store {} ready in {} ms", this.dataStore, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to open IKM data store {}", this.dataStore, e);
+            throw e;
+        }
+    }
 
+    @Override
+    public boolean isReady() {
+        return this.started.isDone() && !this.started.isCompletedExceptionally();
+    }
+
+    /**
+     * Fails fast while the data store is opening.  Callers run on request threads, often inside a transaction, so they
+     * are not parked until startup completes: ingestion checks {@link #isReady()} and defers its IKM lookups, and
+     * queries that need IKM are answered with 503 until it is open.
+     *
+     * @throws IkmNotReadyException if the data store is not open
+     */
+    private void awaitStarted() {
+        if (this.isReady()) {
+            return;
+        }
+        if (this.started.isCompletedExceptionally()) {
+            throw new IkmNotReadyException("IKM data store " + this.dataStore + " is unavailable");
+        }
+        throw new IkmNotReadyException("IKM data store " + this.dataStore + " is still opening");
     }
 
     @Override
@@ -120,6 +189,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> descendantsOf(PublicId parentConceptId) {
+        this.awaitStarted();
         List<PublicId> descendents = new ArrayList<>();
 
         EntityProxy.Concept concept = EntityProxy.Concept.make(parentConceptId);
@@ -142,6 +212,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
 
     @Override
     public List<PublicId> parentsOf(PublicId conceptId) {
+        this.awaitStarted();
         List<PublicId> parents = new ArrayList<>();
 
         EntityProxy.Concept concept = EntityProxy.Concept.make(conceptId);
@@ -164,6 +235,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
 
     @Override
     public List<PublicId> ancestorOf(PublicId conceptId) {
+        this.awaitStarted();
         List<PublicId> ancestors = new ArrayList<>();
 
         EntityProxy.Concept concept = EntityProxy.Concept.make(conceptId);
@@ -192,6 +264,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> childrenOf(PublicId parentConceptId) {
+        this.awaitStarted();
 //        List<PublicId> children =Searcher.childrenOf(parentConceptId);
 // TODO: Once IKM supports this way to look up children, remove the above line and uncomment the below code
         List<PublicId> children = new ArrayList<>();
@@ -222,6 +295,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> memberOf(PublicId member) {
+        this.awaitStarted();
         ArrayList<PublicId> memberOfList = new ArrayList<>();
 
         StampCalculatorWithCache stampCalc = Calculators.Stamp.DevelopmentLatest();
@@ -256,6 +330,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> getLidrRecordSemanticsFromTestKit(PublicId testKitConceptId) {
+        this.awaitStarted();
         return Searcher.getLidrRecordSemanticsFromTestKit(testKitConceptId);
     }
 
@@ -267,6 +342,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> getResultConformancesFromLidrRecord(PublicId lidrRecordConceptId) {
+        this.awaitStarted();
         return Searcher.getResultConformancesFromLidrRecord(lidrRecordConceptId);
     }
 
@@ -278,6 +354,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<PublicId> getAllowedResultsFromResultConformance(PublicId resultConformanceConceptId) {
+        this.awaitStarted();
         return Searcher.getAllowedResultsFromResultConformance(resultConformanceConceptId);
     }
 
@@ -289,6 +366,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public List<String> descriptionsOf(List<PublicId> conceptIds) {
+        this.awaitStarted();
         return Searcher.descriptionsOf(conceptIds);
     }
 
@@ -326,6 +404,11 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
      */
     @Override
     public PublicId getPublicIdForDevice(String device) {
+        this.awaitStarted();
+        if (this.deviceIndex != null) {
+            UUID[] uuids = this.deviceIndex.get(device);
+            return uuids != null ? PublicIds.of(uuids) : null;
+        }
 
         ViewCalculator viewCalc = Calculators.View.Default();
         Latest<PatternEntityVersion> latestIdPattern = viewCalc.latestPatternEntityVersion(TinkarTerm.IDENTIFIER_PATTERN);
@@ -353,6 +436,7 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
 
     @Override
     public List<PublicId> search(String search, int limit) {
+        this.awaitStarted();
         try {
             return Calculators.View.Default().search(search, limit).stream()
                     .filter(item -> item.latestVersion().isPresent())
@@ -364,46 +448,191 @@ public class IKMInterfaceImpl implements IKMInterface, AutoCloseable {
         }
 
     }
-    private void addConceptIfMissing(String conceptId, String conceptName, String conceptDescription) {
-        UUID concept = UUID.fromString(conceptId);
-        if (!this.conceptRepository.existsByConceptId(concept)) {
-            this.conceptRepository.save(new TinkarConceptModel(concept, conceptName, conceptDescription, true));
+
+    @Override
+    public List<TinkarConceptModel> searchConcepts(String search, int limit) {
+        this.awaitStarted();
+        List<PublicId> publicIds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try {
+            Set<Integer> seen = new HashSet<>();
+            for (LatestVersionSearchResult result : Calculators.View.Default().search(search, limit)) {
+                if (!result.latestVersion().isPresent()) {
+                    continue;
+                }
+                var component = result.latestVersion().get().referencedComponent();
+                if (seen.add(component.nid())) {
+                    publicIds.add(component.publicId());
+                    names.add(PrimitiveData.textOptional(component.nid()).orElse(null));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        if (publicIds.isEmpty()) {
+            return List.of();
         }
-    }
 
-    public MeasureModel syncConstraintRanges(UUID topic, MeasureModel measureModel) {
-        EntityProxy.Pattern valueConstraintPattern = TinkarTerm.VALUE_CONSTRAINT_PATTERN;
-        StampCalculatorWithCache stampCalc = Calculators.Stamp.DevelopmentLatest();
-        List<SemanticEntityVersion> latestSemanticList = new ArrayList<>();
+        List<String> descriptions = this.descriptionsOf(publicIds);
+        List<TinkarConceptModel> concepts = new ArrayList<>(publicIds.size());
+        for (int i = 0; i < publicIds.size(); i++) {
+            concepts.add(new TinkarConceptModel(publicIds.get(i).asUuidArray()[0], names.get(i),
+                    i < descriptions.size() ? descriptions.get(i) : null, false));
+        }
+        return concepts;
+    }
 
-        PrimitiveData.get().forEachSemanticNidOfPattern(valueConstraintPattern.nid(), (valueConstraintSemanticNid) -> {
-            Latest<SemanticEntityVersion> latestValueConstraintSemanticVersion = stampCalc.latest(valueConstraintSemanticNid);
-            latestSemanticList.add(latestValueConstraintSemanticVersion.get());
-        });
+    /**
+     * Stored concepts need no indexing, searches go to the description index of the IKM data store.
+     *
+     * @param concept the committed concept
+     */
+    @Override
+    public void conceptStored(TinkarConceptModel concept) {
+    }
+    /**
+     * Loads the device identifier index written by an earlier start, or builds it with one scan of the identifier
+     * pattern and writes it for the next start.  The file is tied to the size and modification time of the data
+     * store, so a replaced data store is indexed again.
+     *
+     * @param fingerprint the fingerprint of the data store
+     * @return the index, or null if it could not be built
+     */
+    private IdentifierIndex loadDeviceIndex(String fingerprint) {
+        Path indexFile = this.deviceIndexFile;
+        IdentifierIndex index = IdentifierIndex.load(indexFile, fingerprint);
+        if (index != null) {
+            log.info("Loaded {} device identifiers from {}", index.size(), indexFile);
+            return index;
+        }
 
-        Latest<PatternEntityVersion> latestPatternVersion = stampCalc.latest(valueConstraintPattern);
+        long start = System.currentTimeMillis();
+        try {
+            index = new IdentifierIndex();
+            IdentifierIndex target = index;
+            ViewCalculator viewCalc = Calculators.View.Default();
+            Latest<PatternEntityVersion> latestIdPattern = viewCalc.latestPatternEntityVersion(TinkarTerm.IDENTIFIER_PATTERN);
+            EntityService.get().forEachSemanticOfPattern(TinkarTerm.IDENTIFIER_PATTERN.nid(), (semanticEntity) -> {
+                viewCalc.latest(semanticEntity).ifPresent(latestSemanticVersion -> {
+                    String idValue = latestIdPattern.get().getFieldWithMeaning(TinkarTerm.IDENTIFIER_VALUE, latestSemanticVersion);
+                    target.put(idValue, latestSemanticVersion.referencedComponent().publicId().asUuidArray());
+                });
+            });
+        } catch (Exception e) {
+            log.error("Unable to build device identifier index, devices will be looked up by scanning: {}", e.getMessage());
+            return null;
+        }
+        log.info("Indexed {} device identifiers in {} ms", index.size(), System.currentTimeMillis() - start);
 
-        latestSemanticList.forEach(valueConstraintSemantic -> {
+        if (fingerprint != null) {
+            try {
+                index.save(indexFile, fingerprint);
+            } catch (IOException e) {
+                log.warn("Unable to write device identifier index {}: {}", indexFile, e.getMessage());
+            }
+        }
+        return index;
+    }
 
-            UUID[] array = valueConstraintSemantic.referencedComponent().publicId().asUuidArray();
+    /**
+     * Summarizes the data store by path, total size and latest modification time.
+     *
+     * @param dataStore the data store directory
+     * @return the fingerprint, or null if the data store cannot be read
+     */
+    private static String fingerprint(Path dataStore) {
+        AtomicLong size = new AtomicLong();
+        AtomicLong modified = new AtomicLong();
+        try (var files = Files.walk(dataStore)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                File f = file.toFile();
+                size.addAndGet(f.length());
+                modified.accumulateAndGet(f.lastModified(), Math::max);
+            });
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read data store {}: {}", dataStore, e.getMessage());
+            return null;
+        }
+        return dataStore.toAbsolutePath() + ":" + size.get() + ":" + modified.get();
+    }
 
-            // Search the entire Array for measureModel.getSemantic().getConceptId()
-            for(UUID id : array) {
-                if (id.equals(topic)) {
-                    EntityProxy.Concept minOperator = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.MINIMUM_VALUE_OPERATOR, valueConstraintSemantic);
-                    float refRangeMin = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.REFERENCE_RANGE_MINIMUM, valueConstraintSemantic);
+    public MeasureModel syncConstraintRanges(UUID topic, MeasureModel measureModel) {
+        this.awaitStarted();
+        ValueConstraint constraint = this.valueConstraints.get(topic);
+        if (constraint != null) {
+            log.debug("Concept: {}  Min:{}  Max:{}", topic, constraint.minimum(), constraint.maximum());
+            measureModel.setLowerBound((double) constraint.minimum());
+            measureModel.setUpperBound((double) constraint.maximum());
+        }
+        return measureModel;
+    }
 
-                    EntityProxy.Concept maxOperator = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.MAXIMUM_VALUE_OPERATOR, valueConstraintSemantic);
-                    float refRangeMax = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.REFERENCE_RANGE_MAXIMUM, valueConstraintSemantic);
+    /**
+     * Rebuilds the device identifier and value constraint indexes when the data store has changed since they were
+     * built.
+     */
+    @Scheduled(fixedDelayString = "${data.ikm.index-refresh-ms:300000}")
+    public void refreshIndexes() {
+        if (!this.isReady()) {
+            return;
+        }
+        String fingerprint = fingerprint(this.dataStore.toPath());
+        if (fingerprint == null || fingerprint.equals(this.storeFingerprint)) {
+            return;
+        }
+        log.info("Data store {} changed, rebuilding indexes", this.dataStore);
+        this.deviceIndex = this.loadDeviceIndex(fingerprint);
+        this.valueConstraints = this.buildValueConstraints();
+        this.storeFingerprint = fingerprint;
+    }
 
-                    log.debug("Concept: {}  Min:{}  Max:{}", id, refRangeMin, refRangeMax);
-                    measureModel.setLowerBound((double) refRangeMin);
-                    measureModel.setUpperBound((double) refRangeMax);
+    /**
+     * Reads the latest version of every value constraint semantic once and indexes it on each UUID of the
+     * constrained concept.  When a concept has more than one constraint the last one read wins, as before.
+     *
+     * @return the value constraints, empty if they could not be read
+     */
+    private Map<UUID, ValueConstraint> buildValueConstraints() {
+        long start = System.currentTimeMillis();
+        Map<UUID, ValueConstraint> constraints = new HashMap<>();
+        try {
+            EntityProxy.Pattern valueConstraintPattern = TinkarTerm.VALUE_CONSTRAINT_PATTERN;
+            StampCalculatorWithCache stampCalc = Calculators.Stamp.DevelopmentLatest();
+            Latest<PatternEntityVersion> latestPatternVersion = stampCalc.latest(valueConstraintPattern);
+
+            PrimitiveData.get().forEachSemanticNidOfPattern(valueConstraintPattern.nid(), (valueConstraintSemanticNid) -> {
+                Latest<SemanticEntityVersion> latest = stampCalc.latest(valueConstraintSemanticNid);
+                if (!latest.isPresent()) {
+                    return;
                 }
-            }
-
-        });
+                SemanticEntityVersion valueConstraintSemantic = latest.get();
+                EntityProxy.Concept minOperator = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.MINIMUM_VALUE_OPERATOR, valueConstraintSemantic);
+                float refRangeMin = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.REFERENCE_RANGE_MINIMUM, valueConstraintSemantic);
+                EntityProxy.Concept maxOperator = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.MAXIMUM_VALUE_OPERATOR, valueConstraintSemantic);
+                float refRangeMax = latestPatternVersion.get().getFieldWithMeaning(TinkarTerm.REFERENCE_RANGE_MAXIMUM, valueConstraintSemantic);
+
+                ValueConstraint constraint = new ValueConstraint(minOperator, refRangeMin, maxOperator, refRangeMax);
+                for (UUID id : valueConstraintSemantic.referencedComponent().publicId().asUuidArray()) {
+                    constraints.put(id, constraint);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Unable to index value constraints: {}", e.getMessage());
+            return Map.of();
+        }
+        log.info("Indexed {} value constraints in {} ms", constraints.size(), System.currentTimeMillis() - start);
+        return constraints;
+    }
 
-        return measureModel;
+    /**
+     * The reference range of a concept.
+     *
+     * @param minOperator the operator applied to the minimum
+     * @param minimum     the reference range minimum
+     * @param maxOperator the operator applied to the maximum
+     * @param maximum     the reference range maximum
+     */
+    private record ValueConstraint(EntityProxy.Concept minOperator, float minimum, EntityProxy.Concept maxOperator,
+                                   float maximum) {
     }
 }
@@ -0,0 +1,296 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.dto.IngestionStageStats;
+import cdx.opencdx.adr.dto.IngestionState;
+import cdx.opencdx.adr.dto.IngestionStatus;
+import cdx.opencdx.adr.model.AnfStatementModel;
+import cdx.opencdx.adr.service.IngestionService;
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The IngestionServiceImpl class runs asynchronous ANF ingestion as two stages: pre-processing (parse, concept
+ * resolution, dimensions and pre processors), and persistence with post-processing in one transaction, so a statement
+ * is never stored without its concept links.  Each stage has its own bounded queue and its own virtual thread workers.
+ * A full downstream queue blocks the upstream workers, so a spike fills the entry queue and is then rejected instead
+ * of taking every database connection away from queries.
+ */
+@Slf4j
+@Service
+public class IngestionServiceImpl implements IngestionService {
+
+    /**
+     * The ObjectMapper used to parse queued statements.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The service providing the individual ingestion stages.
+     */
+    private final OpenCDXAdrService adrService;
+
+    /**
+     * Records the time spent parsing and the depth of each stage queue.
+     */
+    private final IngestionMetrics metrics;
+
+    /**
+     * Status of the tracked statements, keyed on tracking ID.  A status is dropped once it has not changed for the
+     * retention period, or when more statements are tracked than the cache holds.
+     */
+    private final Cache<UUID, IngestionStatus> statuses;
+
+    /**
+     * The stages, in pipeline order.
+     */
+    private final List<Stage> stages = new ArrayList<>();
+
+    /**
+     * Creates the pipeline and starts its workers.
+     *
+     * @param objectMapper   the ObjectMapper used to parse statements
+     * @param adrService     the service providing the ingestion stages
+     * @param queueCapacity  the capacity of each stage queue
+     * @param preWorkers     the number of pre-processing workers
+     * @param persistWorkers the number of persistence workers
+     * @param retention      minutes the status of a statement is kept after its last change
+     * @param maxStatuses    the maximum number of statuses kept
+     * @param metrics        the ingestion metrics
+     */
+    public IngestionServiceImpl(ObjectMapper objectMapper, OpenCDXAdrService adrService,
+                                @Value("${data.ingest.async.queue-capacity:10000}") int queueCapacity,
+                                @Value("${data.ingest.async.pre-workers:8}") int preWorkers,
+                                @Value("${data.ingest.async.persist-workers:8}") int persistWorkers,
+                                @Value("${data.ingest.async.retention-minutes:60}") long retention,
+                                @Value("${data.ingest.async.max-statuses:200000}") long maxStatuses,
+                                IngestionMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.adrService = adrService;
+        this.metrics = metrics;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxStatuses)
+                .expireAfterWrite(Duration.ofMinutes(retention))
+                .recordStats()
+                .build();
+        metrics.monitorCache("ingest.status", this.statuses);
+
+        Stage persist = new Stage("persist", queueCapacity, null, this::persist);
+        Stage pre = new Stage("pre-process", queueCapacity, persist, this::preProcess);
+        this.stages.addAll(List.of(pre, persist));
+        this.stages.forEach(stage -> metrics.gaugeQueue(stage.name, stage.queue));
+
+        pre.start(preWorkers);
+        persist.start(persistWorkers);
+        log.info("Started ingestion pipeline: queue capacity {}, workers {}/{}", queueCapacity, preWorkers, persistWorkers);
+    }
+
+    @Override
+    public IngestionStatus submit(String data) {
+        UUID trackingId = UUID.randomUUID();
+        IngestionStatus status = this.update(IngestionStatus.builder().trackingId(trackingId).state(IngestionState.QUEUED).build());
+
+        if (!this.stages.getFirst().queue.offer(new Job(trackingId, data))) {
+            this.statuses.invalidate(trackingId);
+            throw new RejectedExecutionException("Ingestion queue is full");
+        }
+        return status;
+    }
+
+    @Override
+    public IngestionStatus getStatus(UUID trackingId) {
+        return this.statuses.getIfPresent(trackingId);
+    }
+
+    @Override
+    public List<IngestionStageStats> getStageStats() {
+        return this.stages.stream().map(Stage::stats).toList();
+    }
+
+    /**
+     * Stops the workers of every stage.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("Stopping ingestion pipeline");
+        this.stages.forEach(Stage::stop);
+    }
+
+    private void preProcess(Job job) {
+        this.update(IngestionState.PRE_PROCESSING, job);
+        Timer.Sample sample = this.metrics.start();
+        try {
+            ANFStatement statement;
+            try {
+                statement = this.objectMapper.readValue(job.data, ANFStatement.class);
+            } finally {
+                this.metrics.stop(sample, "parse");
+            }
+            job.data = null;
+            Long existing = this.adrService.findAnfStatementId(UUID.fromString(statement.getId()));
+            if (existing != null) {
+                this.complete(job, existing);
+                return;
+            }
+            job.model = this.adrService.preProcessAnfStatement(statement);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+    }
+
+    private void persist(Job job) {
+        this.update(IngestionState.PERSISTING, job);
+        try {
+            this.complete(job, this.adrService.persistAnfStatement(job.model));
+        } catch (DataIntegrityViolationException e) {
+            // Another submission of the same statement was stored first
+            Long existing = this.adrService.findAnfStatementId(job.model.getAnfid());
+            if (existing == null) {
+                throw e;
+            }
+            this.complete(job, existing);
+        }
+    }
+
+    private void complete(Job job, Long id) {
+        job.completed = true;
+        this.update(this.status(job).state(IngestionState.COMPLETED).id(id).build());
+    }
+
+    private void fail(Job job, RuntimeException e) {
+        log.error("Asynchronous ingestion of {} failed: {}", job.trackingId, e.getMessage());
+        this.update(this.status(job).state(IngestionState.FAILED).error(e.getMessage()).build());
+    }
+
+    private void update(IngestionState state, Job job) {
+        this.update(this.status(job).state(state).build());
+    }
+
+    /**
+     * Returns a builder of the current status of a job, starting from a fresh one if the status was dropped.
+     */
+    private IngestionStatus.IngestionStatusBuilder status(Job job) {
+        IngestionStatus status = this.statuses.getIfPresent(job.trackingId);
+        return status != null ? status.toBuilder() : IngestionStatus.builder().trackingId(job.trackingId);
+    }
+
+    private IngestionStatus update(IngestionStatus status) {
+        status.setUpdated(Instant.now());
+        this.statuses.put(status.getTrackingId(), status);
+        return status;
+    }
+
+    /**
+     * A statement travelling through the pipeline. Fields are only touched by the worker currently holding the job;
+     * the queue hand-off publishes them to the next worker.
+     */
+    private static final class Job {
+        private final UUID trackingId;
+        private String data;
+        private AnfStatementModel model;
+        private boolean completed;
+
+        private Job(UUID trackingId, String data) {
+            this.trackingId = trackingId;
+            this.data = data;
+        }
+    }
+
+    /**
+     * One pipeline stage: a bounded queue drained by virtual thread workers that hand each job to the next stage.
+     */
+    private final class Stage {
+        private final String name;
+        private final BlockingQueue<Job> queue;
+        private final Stage next;
+        private final Consumer<Job> work;
+        private final List<Thread> workers = new ArrayList<>();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Stage(String name, int capacity, Stage next, Consumer<Job> work) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.next = next;
+            this.work = work;
+        }
+
+        private void start(int count) {
+            for (int i = 0; i < count; i++) {
+                this.workers.add(Thread.ofVirtual().name("ingest-" + this.name + "-" + i).start(this::run));
+            }
+        }
+
+        private void stop() {
+            this.workers.forEach(Thread::interrupt);
+        }
+
+        private void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Job job = this.queue.take();
+                    if (this.process(job) && !job.completed && this.next != null) {
+                        this.next.queue.put(job);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean process(Job job) {
+            long start = System.nanoTime();
+            try {
+                this.work.accept(job);
+                return true;
+            } catch (RuntimeException e) {
+                this.failed.increment();
+                IngestionServiceImpl.this.fail(job, e);
+                return false;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                this.processed.increment();
+                this.totalNanos.add(elapsed);
+                this.maxNanos.accumulateAndGet(elapsed, Math::max);
+            }
+        }
+
+        private IngestionStageStats stats() {
+            long count = this.processed.sum();
+            return IngestionStageStats.builder()
+                    .name(this.name)
+                    .queueDepth(this.queue.size())
+                    .queueCapacity(this.queue.size() + this.queue.remainingCapacity())
+                    .workers(this.workers.size())
+                    .processed(count)
+                    .failed(this.failed.sum())
+                    .averageMillis(count == 0 ? 0 : this.totalNanos.sum() / (count * 1_000_000.0))
+                    .maxMillis(this.maxNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+}
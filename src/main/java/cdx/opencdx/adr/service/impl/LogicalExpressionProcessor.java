@@ -6,13 +6,20 @@ import cdx.opencdx.adr.model.PractitionerModel;
 import cdx.opencdx.adr.model.TinkarConceptModel;
 import cdx.opencdx.adr.service.OpenCDXANFProcessor;
 import cdx.opencdx.adr.service.OpenCDXIKMService;
+import cdx.opencdx.adr.service.QueryResultCacheService;
 import cdx.opencdx.adr.utils.ANFHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * This class is responsible for processing logical expressions in the context
@@ -38,84 +45,123 @@ public class LogicalExpressionProcessor implements OpenCDXANFProcessor {
      */
     private final OpenCDXIKMService ikmService;
 
+    /**
+     * Advances the ingestion watermark of the concepts and participant of each statement, for the query result cache.
+     */
+    private final QueryResultCacheService queryResultCacheService;
+
     /**
      * Creates a new instance of LogicalExpressionProcessor.
      *
-     * @param ikmService the OpenCDXIKMService used for processing logical expressions
-     * @param anfRepo    the ANFRepo used for accessing ANF data
+     * @param ikmService              the OpenCDXIKMService used for processing logical expressions
+     * @param anfRepo                 the ANFRepo used for accessing ANF data
+     * @param queryResultCacheService the cache of query results invalidated by new statements
      */
     public LogicalExpressionProcessor(OpenCDXIKMService ikmService,
-                                      ANFHelper anfRepo) {
+                                      ANFHelper anfRepo, QueryResultCacheService queryResultCacheService) {
         this.ikmService = ikmService;
         this.anfRepo = anfRepo;
+        this.queryResultCacheService = queryResultCacheService;
     }
 
     /**
-     * Process the given AnfStatementModel by updating the associated TinkarConceptModel objects.
+     * Process the given AnfStatementModel by linking it to every TinkarConceptModel it references.  The concepts are
+     * collected first and linked with a single insert, and cached query results reading them are invalidated.
      *
      * @param anfStatement The AnfStatementModel to process.
      */
     @Override
     public void processAnfStatement(AnfStatementModel anfStatement) {
+        Map<Long, UUID> concepts = new LinkedHashMap<>();
 
-
-        this.updateTinkarConceptModel(anfStatement.getAssociatedStatements().stream().map(AssociatedStatementModel::getSemantic).filter(Objects::nonNull).toList(), anfStatement);
-        this.updateTinkarConceptModel(anfStatement.getSubjectOfInformation(), anfStatement);
-        this.updateTinkarConceptModel(anfStatement.getTopic(), anfStatement);
-        if(anfStatement.getMethod() != null) {
-            this.updateTinkarConceptModel(anfStatement.getMethod(), anfStatement);
-        }
-        this.updateTinkarConceptModel(anfStatement.getType(), anfStatement);
-        this.updateTinkarConceptModel(anfStatement.getSubjectOfRecord().getCode(), anfStatement);
-        this.updateTinkarConceptModel(anfStatement.getAuthors().stream().map(PractitionerModel::getCode).filter(Objects::nonNull).toList(), anfStatement);
+        this.addConcepts(concepts, anfStatement.getAssociatedStatements().stream().map(AssociatedStatementModel::getSemantic).filter(Objects::nonNull).toList());
+        this.addConcept(concepts, anfStatement.getSubjectOfInformation());
+        this.addConcept(concepts, anfStatement.getTopic());
+        this.addConcept(concepts, anfStatement.getMethod());
+        this.addConcept(concepts, anfStatement.getType());
+        this.addConcept(concepts, anfStatement.getSubjectOfRecord().getCode());
+        this.addConcepts(concepts, anfStatement.getAuthors().stream().map(PractitionerModel::getCode).filter(Objects::nonNull).toList());
         if (anfStatement.getPerformanceCircumstance() != null) {
-            this.updateTinkarConceptModel(anfStatement.getPerformanceCircumstance().getStatus(), anfStatement);
-            if (anfStatement.getPerformanceCircumstance().getHealthRisk() != null) {
-                this.updateTinkarConceptModel(anfStatement.getPerformanceCircumstance().getHealthRisk(), anfStatement);
-            }
-            this.updateTinkarConceptModel(anfStatement.getPerformanceCircumstance().getPurposes(), anfStatement);
-            this.updateTinkarConceptModel(anfStatement.getPerformanceCircumstance().getDeviceIds(), anfStatement);
-            if(anfStatement.getPerformanceCircumstance().getResult() != null && anfStatement.getPerformanceCircumstance().getResult().getSemantic() != null) {
-                this.updateTinkarConceptModel(anfStatement.getPerformanceCircumstance().getResult().getSemantic(), anfStatement);
+            this.addConcept(concepts, anfStatement.getPerformanceCircumstance().getStatus());
+            this.addConcept(concepts, anfStatement.getPerformanceCircumstance().getHealthRisk());
+            this.addConcepts(concepts, anfStatement.getPerformanceCircumstance().getPurposes());
+            this.addConcepts(concepts, anfStatement.getPerformanceCircumstance().getDeviceIds());
+            if (anfStatement.getPerformanceCircumstance().getResult() != null) {
+                this.addConcept(concepts, anfStatement.getPerformanceCircumstance().getResult().getSemantic());
             }
         } else if (anfStatement.getRequestCircumstance() != null) {
-            this.updateTinkarConceptModel(anfStatement.getRequestCircumstance().getConditionalTrigger().stream().map(AssociatedStatementModel::getSemantic).filter(Objects::nonNull).toList(), anfStatement);
-            this.updateTinkarConceptModel(anfStatement.getRequestCircumstance().getPriority(), anfStatement);
-            this.updateTinkarConceptModel(anfStatement.getRequestCircumstance().getPurposes(), anfStatement);
+            this.addConcepts(concepts, anfStatement.getRequestCircumstance().getConditionalTrigger().stream().map(AssociatedStatementModel::getSemantic).filter(Objects::nonNull).toList());
+            this.addConcept(concepts, anfStatement.getRequestCircumstance().getPriority());
+            this.addConcepts(concepts, anfStatement.getRequestCircumstance().getPurposes());
         } else if (anfStatement.getNarrativeCircumstance() != null) {
-            this.updateTinkarConceptModel(anfStatement.getNarrativeCircumstance().getPurposes(), anfStatement);
+            this.addConcepts(concepts, anfStatement.getNarrativeCircumstance().getPurposes());
+        }
+
+        this.queryResultCacheService.statementStored(concepts.values().stream().filter(Objects::nonNull).toList(),
+                anfStatement.getSubjectOfRecord().getPartId());
+        if (concepts.isEmpty()) {
+            return;
+        }
+        Set<Long> conceptIds = new LinkedHashSet<>(concepts.keySet());
+        if (TransactionSynchronizationManager.isActualTransactionActive() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.pendingLinks().put(anfStatement.getId(), conceptIds);
+        } else {
+            this.anfRepo.getTinkarConceptRepository().linkAnfStatement(anfStatement.getId(), conceptIds);
         }
     }
 
     /**
-     * Updates the Tinkar Concept Model for each LogicalExpressionModel in the given list using the provided AnfStatementModel.
+     * Returns the links waiting for the current transaction to commit.  Inside a transaction the links are written
+     * just before commit instead of per statement, because the link insert has to flush the statement rows first; a
+     * batch of statements is then flushed once instead of once per statement.
      *
-     * @param models       the list of LogicalExpressionModels to update
-     * @param anfStatement the AnfStatementModel to use for updating the Tinkar Concept Model
-     * @throws NullPointerException if the models parameter is null
+     * @return the concept IDs to link, keyed on ANF statement ID
      */
-    private void updateTinkarConceptModel(List<TinkarConceptModel> models, AnfStatementModel anfStatement) {
-        if (models == null) {
-            return;
+    @SuppressWarnings("unchecked")
+    private Map<Long, Set<Long>> pendingLinks() {
+        Map<Long, Set<Long>> pending = (Map<Long, Set<Long>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Set<Long>> links = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, links);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    links.forEach((anfStatementId, conceptIds) ->
+                            LogicalExpressionProcessor.this.anfRepo.getTinkarConceptRepository().linkAnfStatement(anfStatementId, conceptIds));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(LogicalExpressionProcessor.this);
+                }
+            });
+            pending = links;
         }
-        models.forEach(model -> this.updateTinkarConceptModel(model, anfStatement));
+        return pending;
     }
 
     /**
-     * Updates the Tinkar concept model in the logical expression model.
+     * Adds the IDs of the given Tinkar concept models to the concepts to link.
      *
-     * @param model        The logical expression model to update.
-     * @param anfStatement The ANF statement model to add to the Tinkar concept model.
+     * @param concepts the UUIDs of the concepts to link, keyed on their IDs
+     * @param models   the Tinkar concept models to add, may be null
      */
-    private void updateTinkarConceptModel(TinkarConceptModel model, AnfStatementModel anfStatement) {
-        if (model == null) {
+    private void addConcepts(Map<Long, UUID> concepts, List<TinkarConceptModel> models) {
+        if (models == null) {
             return;
         }
+        models.forEach(model -> this.addConcept(concepts, model));
+    }
 
-        Optional<AnfStatementModel> first = model.getAnfStatements().stream().filter(Objects::nonNull).filter(anf -> anf.getId().equals(anfStatement.getId())).findFirst();
-        if (first.isEmpty()) {
-            model.getAnfStatements().add(anfStatement);
-            this.anfRepo.getTinkarConceptRepository().save(model);
+    /**
+     * Adds the ID of the Tinkar concept model to the concepts to link.
+     *
+     * @param concepts the UUIDs of the concepts to link, keyed on their IDs
+     * @param model    The Tinkar concept model to add, may be null.
+     */
+    private void addConcept(Map<Long, UUID> concepts, TinkarConceptModel model) {
+        if (model != null && model.getId() != null) {
+            concepts.put(model.getId(), model.getConceptId());
         }
     }
 }
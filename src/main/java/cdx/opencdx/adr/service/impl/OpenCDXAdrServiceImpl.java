@@ -16,6 +16,8 @@
 package cdx.opencdx.adr.service.impl;
 
 import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.dto.QueryProfile;
 import cdx.opencdx.adr.dto.Report;
 import cdx.opencdx.adr.dto.SavedQuery;
 import cdx.opencdx.adr.model.AnfStatementModel;
@@ -25,19 +27,27 @@ import cdx.opencdx.adr.repository.ANFStatementRepository;
 import cdx.opencdx.adr.repository.MeasureRepository;
 import cdx.opencdx.adr.repository.SavedQueryRepository;
 import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.DuplicateDetectionService;
 import cdx.opencdx.adr.service.OpenCDXANFProcessor;
 import cdx.opencdx.adr.service.OpenCDXAdrService;
 import cdx.opencdx.adr.service.OpenCDXIKMService;
 import cdx.opencdx.adr.service.QueryService;
 import cdx.opencdx.adr.utils.ANFHelper;
+import cdx.opencdx.adr.utils.IngestionMetrics;
 import cdx.opencdx.grpc.data.ANFStatement;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.units.qual.A;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 
@@ -120,6 +130,29 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
      */
     private final SavedQueryRepository savedQueryRepository;
 
+    /**
+     * Transaction template used to persist each chunk of a batch in a single transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Number of ANF statements persisted per transaction by the batch ingestion path.
+     */
+    private final int batchSize;
+
+    /**
+     * Finds statements that are already stored, so resubmitted statements are not stored twice.
+     */
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /**
+     * Records the timing of each ingestion stage and processor.
+     */
+    private final IngestionMetrics metrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Initializes an instance of OpenCDXAdrServiceImpl.
      *
@@ -132,6 +165,10 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
      * @param mapper                 the object mapper
      * @param savedQueryRepository   the saved query repository
      * @param measureRepository     the measure repository
+     * @param transactionManager     the transaction manager used for batch ingestion
+     * @param batchSize              the number of statements persisted per batch transaction
+     * @param duplicateDetectionService the service finding statements that are already stored
+     * @param metrics                the ingestion metrics
      */
     public OpenCDXAdrServiceImpl(ANFStatementRepository anfStatementRepository, MeasureRepository measureRepository,
                                  TinkarConceptRepository conceptRepository,
@@ -140,7 +177,11 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
                                  @Qualifier("postOpenCDXANFProcessors") List<OpenCDXANFProcessor> postOpenCDXANFProcessors,
                                  ANFHelper anfRepo,
                                  ObjectMapper mapper,
-                                 SavedQueryRepository savedQueryRepository) {
+                                 SavedQueryRepository savedQueryRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${data.ingest.batch-size:500}") int batchSize,
+                                 DuplicateDetectionService duplicateDetectionService,
+                                 IngestionMetrics metrics) {
         this.anfStatementRepository = anfStatementRepository;
         this.measureRepository = measureRepository;
         this.conceptRepository = conceptRepository;
@@ -150,6 +191,10 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
         this.anfRepo = anfRepo;
         this.mapper = mapper;
         this.savedQueryRepository = savedQueryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.metrics = metrics;
 
         this.preOpenCDXANFProcessors.forEach(processor -> log.info("Pre Processor: {}", processor.getClass().getName()));
         this.postOpenCDXANFProcessors.forEach(processor -> log.info("Post Processor: {}", processor.getClass().getName()));
@@ -179,22 +224,168 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
     }
 
     /**
-     * Stores the given ANF statement in the system and returns the assigned ID.
+     * Stores the given ANF statement in the system and returns the assigned ID.  If a statement with the same anfid
+     * is already stored, nothing is stored and the ID of the existing statement is returned.  A statement that fails
+     * its post processors is not stored, so it can be resubmitted.
      *
      * @param anfStatement The ANF statement to be stored.
      * @return The assigned ID of the stored ANF statement.
      */
     @Override
-    public synchronized Long storeAnfStatement(ANFStatement anfStatement) {
+    public Long storeAnfStatement(ANFStatement anfStatement) {
+        UUID anfid = UUID.fromString(anfStatement.getId());
+        Long existing = this.duplicateDetectionService.findExisting(anfid);
+        if (existing != null) {
+            log.debug("ANF statement {} already stored as {}", anfid, existing);
+            this.metrics.count("duplicate", anfStatement);
+            return existing;
+        }
+
+        try {
+            // The same stages as asynchronous ingestion, so the statement is stored and linked in one transaction
+            Long id = this.persistAnfStatement(this.preProcessAnfStatement(anfStatement));
+            this.metrics.count("stored", anfStatement);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored the same statement first
+            existing = this.duplicateDetectionService.findExisting(anfid);
+            if (existing != null) {
+                this.metrics.count("duplicate", anfStatement);
+                return existing;
+            }
+            this.metrics.count("failed", anfStatement);
+            throw e;
+        } catch (RuntimeException e) {
+            this.metrics.count("failed", anfStatement);
+            throw e;
+        }
+    }
 
-        AnfStatementModel preModel = new AnfStatementModel(anfStatement, anfRepo);
-        this.preOpenCDXANFProcessors.forEach(processor -> processor.processAnfStatement(preModel));
-        AnfStatementModel postModel = this.anfStatementRepository.save(preModel);
-        this.anfStatementRepository.flush();
-        this.postOpenCDXANFProcessors.forEach(processor -> processor.processAnfStatement(postModel));
+    /**
+     * Stores the given ANF statements in chunks of the configured batch size. Each chunk is persisted in one
+     * transaction and flushed once, allowing Hibernate to group the inserts into JDBC batches. If a chunk fails,
+     * its statements are retried one transaction each so that a single bad statement only fails itself.
+     *
+     * @param anfStatements The ANF statements to be stored.
+     * @return One BatchResult per statement, in the order given.
+     */
+    @Override
+    public List<BatchResult> storeAnfStatements(List<ANFStatement> anfStatements) {
+        List<BatchResult> results = new ArrayList<>(anfStatements.size());
+
+        for (int start = 0; start < anfStatements.size(); start += this.batchSize) {
+            List<ANFStatement> chunk = anfStatements.subList(start, Math.min(start + this.batchSize, anfStatements.size()));
+            try {
+                List<Long> ids = this.transactionTemplate.execute(status -> {
+                    List<Long> chunkIds = chunk.stream().map(this::persistAndProcess).toList();
+                    this.metrics.time("flush", this.entityManager::flush);
+                    return chunkIds;
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BatchResult.builder().index(start + i).id(ids.get(i)).build());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Batch of {} ANF statements failed, retrying individually: {}", chunk.size(), e.getMessage());
+                this.entityManager.clear();
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(this.storeSingle(start + i, chunk.get(i)));
+                }
+            }
+            this.entityManager.clear();
+        }
+
+        return results;
+    }
+
+    /**
+     * Stores a single ANF statement of a batch in its own transaction.
+     *
+     * @param index        The position of the statement in the batch.
+     * @param anfStatement The ANF statement to be stored.
+     * @return The BatchResult for the statement.
+     */
+    private BatchResult storeSingle(int index, ANFStatement anfStatement) {
+        try {
+            Long id = this.transactionTemplate.execute(status -> this.persistAndProcess(anfStatement));
+            return BatchResult.builder().index(index).id(id).build();
+        } catch (RuntimeException e) {
+            log.error("Failed to store ANF statement {} of batch: {}", index, e.getMessage());
+            this.metrics.count("failed", anfStatement);
+            this.entityManager.clear();
+            return BatchResult.builder().index(index).error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Runs the pre processors, saves and runs the post processors for the given ANF statement without flushing.
+     *
+     * @param anfStatement The ANF statement to be stored.
+     * @return The assigned ID of the stored ANF statement.
+     */
+    private Long persistAndProcess(ANFStatement anfStatement) {
+        Long existing = this.duplicateDetectionService.findExisting(UUID.fromString(anfStatement.getId()));
+        if (existing != null) {
+            this.metrics.count("duplicate", anfStatement);
+            return existing;
+        }
+        AnfStatementModel postModel = this.save(this.preProcess(anfStatement));
+        this.postProcess(postModel);
+        this.metrics.count("stored", anfStatement);
         return postModel.getId();
     }
 
+    @Override
+    public AnfStatementModel preProcessAnfStatement(ANFStatement anfStatement) {
+        return this.transactionTemplate.execute(status -> this.preProcess(anfStatement));
+    }
+
+    @Override
+    public Long persistAnfStatement(AnfStatementModel anfStatementModel) {
+        return this.transactionTemplate.execute(status -> {
+            AnfStatementModel postModel = this.save(anfStatementModel);
+            this.metrics.time("flush", this.anfStatementRepository::flush);
+            this.postProcess(postModel);
+            return postModel.getId();
+        });
+    }
+
+    @Override
+    public Long findAnfStatementId(UUID anfid) {
+        return this.duplicateDetectionService.findExisting(anfid);
+    }
+
+    /**
+     * Saves an ANF statement model, recording its anfid for duplicate detection first.
+     *
+     * @param anfStatementModel The model to save.
+     * @return The saved model.
+     */
+    private AnfStatementModel save(AnfStatementModel anfStatementModel) {
+        this.duplicateDetectionService.remember(anfStatementModel.getAnfid());
+        return this.metrics.time("persist", () -> this.anfStatementRepository.save(anfStatementModel));
+    }
+
+    /**
+     * Builds the model for the given ANF statement and runs the pre processors on it.
+     *
+     * @param anfStatement The ANF statement to convert.
+     * @return The model, ready to be saved.
+     */
+    private AnfStatementModel preProcess(ANFStatement anfStatement) {
+        AnfStatementModel preModel = this.metrics.time("build", () -> new AnfStatementModel(anfStatement, anfRepo));
+        this.preOpenCDXANFProcessors.forEach(processor -> this.metrics.process("pre", processor, preModel));
+        return preModel;
+    }
+
+    /**
+     * Runs the post processors on a saved ANF statement model.
+     *
+     * @param postModel The saved model.
+     */
+    private void postProcess(AnfStatementModel postModel) {
+        this.postOpenCDXANFProcessors.forEach(processor -> this.metrics.process("post", processor, postModel));
+    }
+
     /**
      * Retrieves the queryable data from the concept repository.
      *
@@ -230,6 +421,16 @@ public class OpenCDXAdrServiceImpl implements OpenCDXAdrService {
         return this.queryService.processJsonQuery(adrQuery);
     }
 
+    @Override
+    public Report getJsonQuery(ADRQuery adrQuery, boolean profile) {
+        return this.queryService.processJsonQuery(adrQuery, profile);
+    }
+
+    @Override
+    public QueryProfile explainQuery(ADRQuery adrQuery) {
+        return this.queryService.explainQuery(adrQuery);
+    }
+
     @Override
     public SavedQuery saveQuery(SavedQuery save) throws JsonProcessingException {
         SavedQueryModel model = new SavedQueryModel(save.getName(), this.mapper.writerWithDefaultPrettyPrinter().writeValueAsString(save.getQuery()));
@@ -2,25 +2,64 @@ package cdx.opencdx.adr.service.impl;
 
 import cdx.opencdx.adr.model.TinkarConceptModel;
 import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.ConceptHierarchyService;
 import cdx.opencdx.adr.service.IKMInterface;
 import cdx.opencdx.adr.service.OpenCDXIKMService;
+import cdx.opencdx.adr.service.QueryResultCacheService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import cdx.opencdx.adr.utils.LogicalExpressionParser;
+import cdx.opencdx.adr.utils.LogicalExpressionParser.ParsedExpression;
 import cdx.opencdx.grpc.data.LogicalExpression;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.ikm.tinkar.common.id.PublicId;
 import dev.ikm.tinkar.common.id.PublicIds;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * The OpenCDXIKMServiceImpl class is a service implementation that initializes and populates a concept model map.
  * <p>
  * The concept model map is a mapping of concept codes to concept models. Concept models contain the UUID, description, and display labels of concepts.
+ * <p>
+ * Resolved concepts are kept in bounded caches keyed on concept UUID and on the raw expression, so steady state
+ * ingestion resolves most concepts without a query.  Expressions that resolve to no concept are cached as negative
+ * entries.  Entries are only cached once the transaction that read them commits, and are replaced when
+ * {@link #syncConcepts()} updates a concept.
+ * <p>
+ * New concepts are inserted in the transaction of the statement that needs them, with an insert that does nothing when
+ * the UUID is already stored.  The unique index on concept_id makes concurrent creations of one concept, on any node,
+ * store it once.  Expressions IKM does not know are stored under a UUID derived from the expression.
+ * <p>
+ * With {@code data.ikm.sync.deferred} set, and always while the IKM data store is still opening, concepts are stored as
+ * soon as they are first seen, without waiting for IKM to describe them, and are named by the scheduled
+ * {@link #syncConcepts()} batch job.
  */
 @Service
 @Slf4j
@@ -34,15 +73,89 @@ public class OpenCDXIKMServiceImpl implements OpenCDXIKMService {
 
     private final IKMInterface ikmInterface;
 
+    /**
+     * Runs the updates of the synchronization job in their own transaction.
+     */
+    private final TransactionTemplate newTransaction;
+
+    /**
+     * Records the time spent resolving concepts and calling IKM.
+     */
+    private final IngestionMetrics metrics;
+
+    /**
+     * Told about new and changed concepts, so they are added to the concept closure.
+     */
+    private final ConceptHierarchyService conceptHierarchyService;
+
+    /**
+     * Cached query results, dropped when synchronization renames concepts.
+     */
+    private final QueryResultCacheService queryResultCacheService;
+
+    /**
+     * Resolved concepts keyed on concept UUID.
+     */
+    private final Cache<UUID, TinkarConceptModel> conceptsById;
+
+    /**
+     * Resolved concepts keyed on the raw expression or device identifier; empty for expressions without a concept.
+     */
+    private final Cache<String, Optional<TinkarConceptModel>> conceptsByExpression;
+
+    /**
+     * When true, new concepts are stored without looking up their name in IKM, and {@link #syncConcepts()} resolves
+     * them in bulk.
+     */
+    private final boolean deferSync;
+
+    private final int syncBatchSize;
+
+    private final int syncParallelism;
+
+    /**
+     * Allows one synchronization at a time.
+     */
+    private final ReentrantLock syncing = new ReentrantLock();
 
     /**
      * OpenCDXIKMServiceImpl is a service class that initializes and populates a concept model map.
      * The concept model map is a mapping of concept codes to concept models.
      * Concept models contain the UUID, description, and display labels of concepts.
+     *
+     * @param conceptRepository  the Tinkar concept repository
+     * @param ikmInterface       the IKM interface resolving new concepts
+     * @param transactionManager the transaction manager used to synchronize concepts
+     * @param metrics            the ingestion metrics
+     * @param cacheSize          the maximum number of concepts cached per key type
+     * @param conceptHierarchyService the service maintaining the concept closure
+     * @param deferSync          store new concepts unsynchronized and leave name lookups to {@link #syncConcepts()}
+     * @param syncBatchSize      the number of concepts synchronized per transaction
+     * @param syncParallelism    the number of parallel IKM lookups per batch
+     * @param queryResultCacheService the cache of query results
      */
-    public OpenCDXIKMServiceImpl(TinkarConceptRepository conceptRepository, IKMInterface ikmInterface) {
+    public OpenCDXIKMServiceImpl(TinkarConceptRepository conceptRepository, IKMInterface ikmInterface,
+                                 PlatformTransactionManager transactionManager, IngestionMetrics metrics,
+                                 @Value("${data.ingest.concept-cache-size:50000}") long cacheSize,
+                                 ConceptHierarchyService conceptHierarchyService,
+                                 @Value("${data.ikm.sync.deferred:false}") boolean deferSync,
+                                 @Value("${data.ikm.sync.batch-size:500}") int syncBatchSize,
+                                 @Value("${data.ikm.sync.parallelism:4}") int syncParallelism,
+                                 QueryResultCacheService queryResultCacheService) {
         this.conceptRepository = conceptRepository;
+        this.queryResultCacheService = queryResultCacheService;
         this.ikmInterface = ikmInterface;
+        this.metrics = metrics;
+        this.conceptHierarchyService = conceptHierarchyService;
+        this.deferSync = deferSync;
+        this.syncBatchSize = Math.max(1, syncBatchSize);
+        this.syncParallelism = Math.max(1, syncParallelism);
+        this.conceptsById = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+        this.conceptsByExpression = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+        metrics.monitorCache("concept.id", this.conceptsById);
+        metrics.monitorCache("concept.expression", this.conceptsByExpression);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
@@ -53,130 +166,447 @@ public class OpenCDXIKMServiceImpl implements OpenCDXIKMService {
      */
     @Override
     public TinkarConceptModel getInkarConceptModel(LogicalExpression logicalExpression) {
-        TinkarConceptModel result;
-        UUID conceptId = this.testAndConvert(logicalExpression.getExpression());
-
-        if (conceptId != null) {
-            result = conceptRepository.findByConceptId(conceptId);
-        } else {
-            result = conceptRepository.findByConceptDescription(logicalExpression.getExpression());
+        String expression = logicalExpression.getExpression();
+        Optional<TinkarConceptModel> cached = this.conceptsByExpression.getIfPresent(expression);
+        if (cached != null) {
+            return cached.orElse(null);
         }
 
-        if (result == null && logicalExpression.getExpression() != null && !logicalExpression.getExpression().isEmpty()) {
-            result = new TinkarConceptModel();
-            result.setConceptDescription(logicalExpression.getExpression());
+        ParsedExpression parsed = LogicalExpressionParser.parse(expression);
+        if (parsed.kind() == LogicalExpressionParser.Kind.EMPTY) {
+            this.cache(expression, null);
+            return null;
+        }
 
-            PublicId publicId;
-            if (conceptId != null) {
-                publicId = PublicIds.of(conceptId);
-            } else {
-                log.info("Creating PublicId for: {}", logicalExpression.getExpression());
-                publicId = this.ikmInterface.getPublicId(logicalExpression.getExpression());
-                log.info("Created PublicId: {}", publicId.asUuidArray()[0]);
-            }
-            if (publicId != null) {
-                result.setConceptId(publicId.asUuidArray()[0]);
-                List<String> descriptions = this.ikmInterface.descriptionsOf(List.of(publicId));
-                if (descriptions != null && !descriptions.isEmpty() && !descriptions.getFirst().isEmpty()) {
-                    result.setSync(true);
-                    result.setConceptName(descriptions.getFirst());
-                } else {
-                    result.setSync(false);
-                    result.setConceptName(logicalExpression.getExpression());
-                }
+        Timer.Sample sample = this.metrics.start();
+        UUID conceptId = parsed.uuid();
+        TinkarConceptModel result = conceptId != null ? this.conceptsById.getIfPresent(conceptId) : null;
+        if (result == null) {
+            result = this.findConcept(parsed, expression);
+        }
+        boolean created = false;
 
-            } else {
-                if (conceptId != null) {
-                    result.setConceptId(conceptId);
-                } else {
-                    result.setConceptId(UUID.randomUUID());
-                    log.debug("Concept not found: \"{}\" assign to UUID: {}", result.getConceptName(), result.getConceptId());
-                }
-                result.setSync(false);
-                result.setConceptName(logicalExpression.getExpression());
-                result.setConceptDescription(logicalExpression.getExpression());
-                log.warn("Concept not found: \"{}\" assign to UUID: {}", result.getConceptName(), result.getConceptId());
-            }
-            result = conceptRepository.save(result);
+        if (result == null) {
+            result = this.createIfMissing(this.buildConcept(conceptId, expression,
+                            parsed.description() != null ? parsed.description() : parsed.value()));
+            created = true;
         }
 
+        this.metrics.stopConceptLookup(sample, created);
+        this.cache(expression, result);
         return result;
     }
 
     @Override
     public TinkarConceptModel getInkarConceptModelForDevice(String deviceId) {
+        Optional<TinkarConceptModel> cached = this.conceptsByExpression.getIfPresent(deviceId);
+        if (cached != null && cached.isPresent()) {
+            return cached.get();
+        }
+
+        Timer.Sample sample = this.metrics.start();
         TinkarConceptModel result = conceptRepository.findByConceptDescription(deviceId);
+        boolean created = false;
 
         if (result == null) {
+            result = this.createIfMissing(this.buildDeviceConcept(deviceId));
+            created = true;
+        }
 
-            result = new TinkarConceptModel();
-            result.setConceptDescription(deviceId);
+        this.metrics.stopConceptLookup(sample, created);
+        this.cache(deviceId, result);
+        return result;
+    }
+
+    /**
+     * Caches a resolved concept under the expression it was resolved from and under its UUID, once the current
+     * transaction commits, so a concept that is rolled back is never handed out.
+     *
+     * @param expression the expression or device identifier
+     * @param concept    the concept, or null if the expression has none
+     */
+    private void cache(String expression, TinkarConceptModel concept) {
+        this.afterCommit(() -> {
+            this.conceptsByExpression.put(expression, Optional.ofNullable(concept));
+            if (concept != null && concept.getConceptId() != null) {
+                this.conceptsById.put(concept.getConceptId(), concept);
+            }
+        });
+    }
 
-            PublicId publicId = this.ikmInterface.getPublicIdForDevice(deviceId);
+    /**
+     * Looks up a concept by UUID when the expression carries one, otherwise by the full expression through the
+     * description index.  The expressionValue of a JSON expression only names the concept: JSON expressions sharing
+     * a value may still differ, and must not match a concept stored for the bare value.
+     *
+     * @param parsed     the classified expression
+     * @param expression the raw expression
+     * @return the stored concept, or null if not found
+     */
+    private TinkarConceptModel findConcept(ParsedExpression parsed, String expression) {
+        if (parsed.kind() == LogicalExpressionParser.Kind.UUID) {
+            return conceptRepository.findByConceptId(parsed.uuid());
+        }
+        return conceptRepository.findByConceptDescription(expression);
+    }
 
-            if (publicId != null) {
-                result.setConceptId(publicId.asUuidArray()[0]);
-                result.setAnfStatements(new ArrayList<>());
-                List<String> descriptions = this.ikmInterface.descriptionsOf(List.of(publicId));
-                if (descriptions != null && !descriptions.isEmpty() && !descriptions.getFirst().isEmpty()) {
-                    result.setConceptName(descriptions.getFirst());
-                    result.setSync(true);
-                } else {
-                    result.setSync(false);
-                    result.setConceptName(deviceId);
+    /**
+     * Stores a concept unless one with the same UUID is stored, in the transaction of the caller.  The unique index on
+     * concept_id decides: an insert racing another thread or node for the same UUID waits for it, inserts nothing if
+     * it commits, and the stored concept is read back.  The closure and the search index are told about a new concept
+     * once the transaction commits.
+     *
+     * @param concept the new, unsaved concept
+     * @return the stored concept
+     */
+    private TinkarConceptModel createIfMissing(TinkarConceptModel concept) {
+        boolean created = this.conceptRepository.insertIfAbsent(concept.getConceptId(), concept.getConceptName(),
+                concept.getConceptDescription(), concept.isSync()) > 0;
+        TinkarConceptModel stored = this.conceptRepository.findByConceptId(concept.getConceptId());
+        if (created) {
+            this.afterCommit(() -> {
+                this.conceptHierarchyService.conceptAdded(stored.getConceptId());
+                this.ikmInterface.conceptStored(stored);
+            });
+        }
+        return stored;
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or right away outside a transaction.
+     *
+     * @param action the action
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Builds a new concept for an expression, resolving its name through IKM when possible.  IKM identifies concepts
+     * by UUID only, so an expression without one is stored under the UUID derived from it without calling IKM, and
+     * {@link #syncConcepts()} resolves it later.
+     *
+     * @param conceptId  the UUID found in the expression, or null
+     * @param expression the full expression, stored as the description the concept is looked up by
+     * @param name       the name used when IKM cannot resolve the concept
+     * @return the new, unsaved concept
+     */
+    private TinkarConceptModel buildConcept(UUID conceptId, String expression, String name) {
+        TinkarConceptModel result = new TinkarConceptModel();
+        result.setConceptDescription(expression);
+        result.setSync(false);
+        result.setConceptName(name);
+
+        if (conceptId == null) {
+            result.setConceptId(conceptIdOf(expression));
+            log.debug("Concept not found: \"{}\" assign to UUID: {}", result.getConceptName(), result.getConceptId());
+            return result;
+        }
+
+        result.setConceptId(conceptId);
+        PublicId publicId = PublicIds.of(conceptId);
+        List<String> descriptions = this.deferLookups() ? List.of()
+                : this.metrics.time("ikm-descriptions", () -> this.ikmInterface.descriptionsOf(List.of(publicId)));
+        if (descriptions != null && !descriptions.isEmpty() && !descriptions.getFirst().isEmpty()) {
+            result.setSync(true);
+            result.setConceptName(descriptions.getFirst());
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether IKM name lookups are left to {@link #syncConcepts()}, because deferred synchronization is
+     * configured or because the data store is still opening and a lookup would fail the storing transaction.
+     *
+     * @return true when new concepts are stored unsynchronized
+     */
+    private boolean deferLookups() {
+        return this.deferSync || !this.ikmInterface.isReady();
+    }
+
+    /**
+     * Derives the UUID of a concept IKM does not know from its expression, so every node stores the expression under
+     * the same UUID and the unique index on concept_id keeps one concept per expression.
+     *
+     * @param expression the expression or device identifier
+     * @return the name based UUID of the expression
+     */
+    static UUID conceptIdOf(String expression) {
+        return UUID.nameUUIDFromBytes(expression.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a new concept for a device identifier, resolving it through IKM when possible.  While the data store is
+     * opening the device is stored under the UUID derived from its identifier, and {@link #syncConcepts()} moves it to
+     * the IKM concept later.
+     *
+     * @param deviceId the device identifier
+     * @return the new, unsaved concept
+     */
+    private TinkarConceptModel buildDeviceConcept(String deviceId) {
+        TinkarConceptModel result = new TinkarConceptModel();
+        result.setConceptDescription(deviceId);
+
+        PublicId publicId = !this.ikmInterface.isReady() ? null
+                : this.metrics.time("ikm-public-id", () -> this.ikmInterface.getPublicIdForDevice(deviceId));
 
+        if (publicId != null) {
+            result.setConceptId(publicId.asUuidArray()[0]);
+            result.setAnfStatements(new ArrayList<>());
+            List<String> descriptions = this.deferLookups() ? List.of()
+                    : this.metrics.time("ikm-descriptions", () -> this.ikmInterface.descriptionsOf(List.of(publicId)));
+            if (descriptions != null && !descriptions.isEmpty() && !descriptions.getFirst().isEmpty()) {
+                result.setConceptName(descriptions.getFirst());
+                result.setSync(true);
             } else {
-                result.setConceptId(UUID.randomUUID());
                 result.setSync(false);
                 result.setConceptName(deviceId);
-                result.setConceptDescription(deviceId);
-                log.warn("Concept not found: \"{}\" assign to UUID: {}", result.getConceptName(), result.getConceptId());
             }
-            result = conceptRepository.save(result);
-        }
 
+        } else {
+            result.setConceptId(conceptIdOf(deviceId));
+            result.setSync(false);
+            result.setConceptName(deviceId);
+            result.setConceptDescription(deviceId);
+            log.warn("Concept not found: \"{}\" assign to UUID: {}", result.getConceptName(), result.getConceptId());
+        }
         return result;
     }
 
-    private UUID testAndConvert(String string) {
-        // Regular expression pattern for UUID
-        Pattern uuidPattern = Pattern.compile(
-                "[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}");
-
-        Matcher matcher = uuidPattern.matcher(string);
-        if (matcher.find()) {
-            // If finds match then convert it to UUID
-            String uuidString = matcher.group(0);
-            try {
-                return UUID.fromString(uuidString);
-            } catch (IllegalArgumentException e) {
-                log.error("Error converting string to UUID: {}", string);
-                return null;
+    /**
+     * Resolves the names of all concepts not yet synchronized with IKM.  Concepts are handled in batches: the
+     * descriptions of a batch are looked up in parallel slices with one IKM call per slice, first by the concept UUID
+     * and then by the UUID derived from the concept description, and the resolved concepts are updated in one
+     * transaction.  Concepts IKM does not know are left unsynchronized and unchanged.
+     */
+    @Scheduled(cron = "${data.ikm.sync.cron:0 */5 * * * *}")
+    public void syncConcepts() {
+        if (!this.ikmInterface.isReady() || !this.syncing.tryLock()) {
+            return;
+        }
+        try {
+            List<TinkarConceptModel> requireSync = this.conceptRepository.findAllBySyncFalse();
+            if (requireSync.isEmpty()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            int synced = 0;
+            for (int i = 0; i < requireSync.size(); i += this.syncBatchSize) {
+                synced += this.syncBatch(requireSync.subList(i, Math.min(i + this.syncBatchSize, requireSync.size())));
             }
+            log.info("Synchronized {} of {} concepts with IKM in {} ms", synced, requireSync.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to synchronize concepts with IKM", e);
+        } finally {
+            this.syncing.unlock();
         }
-        return null;
     }
 
-    @Scheduled(cron = "0 */5 * * * *")
-    public void syncConcepts() {
-        List<TinkarConceptModel> requireSync = this.conceptRepository.findAllBySyncFalse();
-
-        requireSync.forEach(concept -> {
-            PublicId publicId = this.ikmInterface.getPublicId(concept.getConceptDescription());
-            log.info("Created PublicId: {}", publicId.asUuidArray()[0]);
-            if (publicId != null) {
-                concept.setConceptId(publicId.asUuidArray()[0]);
-                List<String> descriptions = this.ikmInterface.descriptionsOf(List.of(publicId));
-                if (descriptions != null && !descriptions.isEmpty() && !descriptions.getFirst().isEmpty()) {
-                    concept.setConceptName(descriptions.getFirst());
-                    concept.setSync(true);
+    /**
+     * Resolves and updates one batch of unsynchronized concepts.
+     *
+     * @param concepts the unsynchronized concepts
+     * @return the number of concepts synchronized
+     */
+    private int syncBatch(List<TinkarConceptModel> concepts) {
+        List<Resolution> resolutions = this.resolveInParallel(concepts);
+        Map<Long, Resolution> resolved = new HashMap<>();
+        for (int i = 0; i < concepts.size(); i++) {
+            if (resolutions.get(i) != null) {
+                resolved.put(concepts.get(i).getId(), resolutions.get(i));
+            }
+        }
+        if (resolved.isEmpty()) {
+            return 0;
+        }
+
+        List<TinkarConceptModel> saved = this.newTransaction.execute(status -> {
+            List<TinkarConceptModel> managed = this.conceptRepository.findAllById(resolved.keySet());
+            // concept_id is unique, a concept keeps its UUID when another concept is already stored under the new one
+            Set<UUID> taken = new HashSet<>();
+            this.conceptRepository.findAllByConceptIdIn(resolved.values().stream().map(Resolution::conceptId).distinct().toList())
+                    .forEach(existing -> taken.add(existing.getConceptId()));
+            managed.forEach(concept -> {
+                Resolution resolution = resolved.get(concept.getId());
+                if (resolution.conceptId().equals(concept.getConceptId()) || taken.add(resolution.conceptId())) {
+                    concept.setConceptId(resolution.conceptId());
                 } else {
-                    log.warn("Concept not found: \"{}\" assign to UUID: {}", concept.getConceptName(), concept.getConceptId());
-                    concept.setSync(false);
+                    log.info("Concept {} resolves to {}, which is already stored; keeping its UUID", concept.getConceptId(), resolution.conceptId());
                 }
-                conceptRepository.save(concept);
-            }
+                concept.setConceptName(resolution.name());
+                concept.setSync(true);
+            });
+            return managed;
         });
+
+        boolean changed = false;
+        for (TinkarConceptModel concept : saved) {
+            UUID previousId = resolved.get(concept.getId()).previousId();
+            changed |= !concept.getConceptId().equals(previousId);
+            this.ikmInterface.conceptStored(concept);
+            if (previousId != null) {
+                this.conceptsById.invalidate(previousId);
+            }
+            if (concept.getConceptDescription() != null) {
+                this.conceptsByExpression.invalidate(concept.getConceptDescription());
+                this.cache(concept.getConceptDescription(), concept);
+            }
+        }
+        if (changed) {
+            this.conceptHierarchyService.conceptsChanged();
+        }
+        // Reports show concept names, and statements are found under the synchronized UUIDs
+        if (!saved.isEmpty()) {
+            this.queryResultCacheService.invalidateAll();
+        }
+        return saved.size();
+    }
+
+    /**
+     * Splits a batch into {@code data.ikm.sync.parallelism} slices resolved on virtual threads.
+     *
+     * @param concepts the concepts to resolve
+     * @return the resolution of each concept, null for concepts IKM does not know
+     */
+    private List<Resolution> resolveInParallel(List<TinkarConceptModel> concepts) {
+        int sliceSize = Math.max(1, (concepts.size() + this.syncParallelism - 1) / this.syncParallelism);
+        List<Resolution> result = new ArrayList<>(concepts.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Resolution>>> slices = new ArrayList<>();
+            for (int i = 0; i < concepts.size(); i += sliceSize) {
+                List<TinkarConceptModel> slice = concepts.subList(i, Math.min(i + sliceSize, concepts.size()));
+                slices.add(executor.submit(() -> this.resolve(slice)));
+            }
+            for (int i = 0; i < slices.size(); i++) {
+                int size = Math.min(sliceSize, concepts.size() - i * sliceSize);
+                try {
+                    result.addAll(slices.get(i).get());
+                } catch (ExecutionException e) {
+                    log.warn("Failed to resolve {} concepts with IKM: {}", size, e.getCause().getMessage());
+                    result.addAll(Collections.nCopies(size, null));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.addAll(Collections.nCopies(size, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the names of a slice of concepts with at most two IKM description lookups.
+     *
+     * @param concepts the concepts to resolve
+     * @return the resolution of each concept, null for concepts IKM does not know
+     */
+    private List<Resolution> resolve(List<TinkarConceptModel> concepts) {
+        List<Resolution> result = new ArrayList<>(Collections.nCopies(concepts.size(), null));
+        List<String> names = this.describe(concepts.stream()
+                .map(concept -> concept.getConceptId() != null ? PublicIds.of(concept.getConceptId()) : null)
+                .toList());
+
+        List<Integer> misses = new ArrayList<>();
+        List<PublicId> derived = new ArrayList<>();
+        for (int i = 0; i < concepts.size(); i++) {
+            TinkarConceptModel concept = concepts.get(i);
+            if (names.get(i) != null) {
+                result.set(i, new Resolution(concept.getConceptId(), concept.getConceptId(), names.get(i)));
+                continue;
+            }
+            PublicId publicId = this.publicIdOf(concept.getConceptDescription());
+            if (publicId != null && !publicId.asUuidArray()[0].equals(concept.getConceptId())) {
+                misses.add(i);
+                derived.add(publicId);
+            }
+        }
+
+        List<String> derivedNames = this.describe(derived);
+        for (int i = 0; i < misses.size(); i++) {
+            if (derivedNames.get(i) != null) {
+                TinkarConceptModel concept = concepts.get(misses.get(i));
+                result.set(misses.get(i), new Resolution(concept.getConceptId(), derived.get(i).asUuidArray()[0], derivedNames.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the descriptions of concepts in one IKM call.
+     *
+     * @param publicIds the concepts, null entries are skipped
+     * @return the description of each concept, null where IKM has none
+     */
+    private List<String> describe(List<PublicId> publicIds) {
+        List<String> result = new ArrayList<>(Collections.nCopies(publicIds.size(), null));
+        List<PublicId> known = publicIds.stream().filter(Objects::nonNull).toList();
+        if (known.isEmpty()) {
+            return result;
+        }
+        List<String> descriptions;
+        try {
+            descriptions = this.metrics.time("ikm-descriptions", () -> this.ikmInterface.descriptionsOf(known));
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up {} descriptions in IKM: {}", known.size(), e.getMessage());
+            return result;
+        }
+        for (int i = 0, k = 0; i < publicIds.size(); i++) {
+            if (publicIds.get(i) != null) {
+                String description = descriptions != null && k < descriptions.size() ? descriptions.get(k) : null;
+                result.set(i, description == null || description.isEmpty() ? null : description);
+                k++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Derives the IKM identifier of a concept from its description.  Descriptions that are not concept identifiers are
+     * looked up as device identifiers, which names the devices stored while the data store was opening.  A description
+     * neither lookup accepts, such as free text, has no identifier, so one concept cannot fail the others of its batch.
+     *
+     * @param description the concept description
+     * @return the identifier, or null if the description does not identify a concept
+     */
+    private PublicId publicIdOf(String description) {
+        if (description == null) {
+            return null;
+        }
+        PublicId publicId = uuidsOf(() -> this.ikmInterface.getPublicId(description));
+        return publicId != null ? publicId : uuidsOf(() -> this.ikmInterface.getPublicIdForDevice(description));
+    }
+
+    /**
+     * Runs an identifier lookup and copies the UUIDs of its result.  The identifier returned for a description is only
+     * parsed when its UUIDs are read, which is where a description that is not a UUID fails.
+     *
+     * @param lookup the lookup
+     * @return the identifier, or null if the lookup found none or failed
+     */
+    private static PublicId uuidsOf(Supplier<PublicId> lookup) {
+        try {
+            PublicId publicId = lookup.get();
+            return publicId != null && publicId.uuidCount() > 0 ? PublicIds.of(publicId.asUuidArray()) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The outcome of resolving an unsynchronized concept.
+     *
+     * @param previousId the UUID the concept was stored with
+     * @param conceptId  the UUID of the concept in IKM
+     * @param name       the name of the concept in IKM
+     */
+    private record Resolution(UUID previousId, UUID conceptId, String name) {
     }
 }
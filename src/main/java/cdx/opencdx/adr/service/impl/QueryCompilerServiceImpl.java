@@ -0,0 +1,191 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.dto.ComparisonOperation;
+import cdx.opencdx.adr.dto.ConceptFocus;
+import cdx.opencdx.adr.dto.Query;
+import cdx.opencdx.adr.model.AnfStatementModel;
+import cdx.opencdx.adr.model.MeasureModel;
+import cdx.opencdx.adr.model.NarrativeCircumstanceModel;
+import cdx.opencdx.adr.model.PerformanceCircumstanceModel;
+import cdx.opencdx.adr.model.RequestCircumstanceModel;
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.service.ConceptService;
+import cdx.opencdx.adr.service.ConversionService;
+import cdx.opencdx.adr.service.ConversionService.LinearConversion;
+import cdx.opencdx.adr.service.QueryCompilerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The QueryCompilerServiceImpl class compiles a query on a concept and a comparison into one criteria query.  The
+ * comparison is evaluated as {@link MeasureOperationServiceImpl} and {@link TextOperationServiceImpl} evaluate it in
+ * memory: the performance result is compared if the statement has one, otherwise the requested result, otherwise the
+ * narrative text, with the bounds converted into the unit of the query.  Statements the in-memory comparison fails on,
+ * such as measures with neither bound included, do not match.
+ */
+@Slf4j
+@Service
+public class QueryCompilerServiceImpl implements QueryCompilerService {
+
+    private final ConceptService conceptService;
+
+    private final ConversionService conversionService;
+
+    private final boolean enabled;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates the service.
+     *
+     * @param conceptService    selects the statements of the concept and its focus
+     * @param conversionService provides the unit conversions
+     * @param enabled           whether queries are compiled
+     */
+    public QueryCompilerServiceImpl(ConceptService conceptService, ConversionService conversionService,
+                                    @Value("${data.query.compile:true}") boolean enabled) {
+        this.conceptService = conceptService;
+        this.conversionService = conversionService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(Query query) {
+        if (!this.enabled || query.getOperation() == null || query.getConcept() == null || query.getConcept().getConceptId() == null) {
+            return false;
+        }
+        // The database orders text by its collation rather than by String.compareTo
+        return query.getOperationText() == null
+                || query.getOperation() == ComparisonOperation.EQUAL
+                || query.getOperation() == ComparisonOperation.NOT_EQUAL;
+    }
+
+    @Override
+    public List<AnfStatementModel> execute(Query query) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<AnfStatementModel> criteriaQuery = cb.createQuery(AnfStatementModel.class);
+        Root<AnfStatementModel> root = criteriaQuery.from(AnfStatementModel.class);
+
+        Subquery<Long> statements = criteriaQuery.subquery(Long.class);
+        Root<TinkarConceptModel> concept = statements.from(TinkarConceptModel.class);
+        Join<TinkarConceptModel, AnfStatementModel> conceptStatements = concept.join("anfStatements");
+        statements.select(conceptStatements.<Long>get("id"))
+                .where(this.conceptService.getFocusPredicate(cb, statements, concept.<UUID>get("conceptId"), query.getConcept()));
+
+        boolean dateFocus = ConceptFocus.DATE.equals(query.getConcept().getFocus());
+        Join<AnfStatementModel, PerformanceCircumstanceModel> performance = root.join("performanceCircumstance", JoinType.LEFT);
+        Join<AnfStatementModel, RequestCircumstanceModel> request = root.join("requestCircumstance", JoinType.LEFT);
+        Join<AnfStatementModel, NarrativeCircumstanceModel> narrative = root.join("narrativeCircumstance", JoinType.LEFT);
+
+        Predicate performanceMatches = cb.and(
+                cb.isNotNull(performance.get("result")),
+                this.measureMatches(cb, performance.join(dateFocus ? "timing" : "result", JoinType.LEFT), query));
+        Predicate requestMatches = cb.and(
+                cb.isNull(performance.get("result")),
+                cb.isNotNull(request.get("requestedResult")),
+                this.measureMatches(cb, request.join(dateFocus ? "timing" : "requestedResult", JoinType.LEFT), query));
+        // With a date focus the text is compared as a measure, which fails in memory
+        Predicate narrativeMatches = cb.and(
+                cb.isNull(performance.get("result")),
+                cb.isNull(request.get("requestedResult")),
+                cb.isNotNull(narrative.get("text")),
+                dateFocus ? cb.disjunction() : this.textMatches(cb, narrative.get("text"), query));
+
+        criteriaQuery.select(root).where(
+                root.<Long>get("id").in(statements),
+                cb.or(performanceMatches, requestMatches, narrativeMatches));
+
+        List<AnfStatementModel> anf = this.entityManager.createQuery(criteriaQuery).getResultList();
+
+        log.info("Compiled Query Results: {}", anf.size());
+
+        return anf;
+    }
+
+    /**
+     * Compares a measure with the value of the query, using the bounds {@link MeasureOperationServiceImpl} uses.
+     */
+    private Predicate measureMatches(CriteriaBuilder cb, Join<?, MeasureModel> measure, Query query) {
+        Double operationValue = query.getOperationDouble();
+        if (operationValue == null) {
+            return cb.disjunction();
+        }
+        Path<Boolean> includeLower = measure.get("includeLowerBound");
+        Path<Boolean> includeUpper = measure.get("includeUpperBound");
+        Path<Double> lowerBound = measure.get("lowerBound");
+        Path<Double> upperBound = measure.get("upperBound");
+
+        Expression<Double> lower = cb.<Double>selectCase().when(cb.isTrue(includeLower), lowerBound).otherwise(upperBound);
+        Expression<Double> upper = cb.<Double>selectCase().when(cb.isTrue(includeUpper), upperBound).otherwise(lowerBound);
+
+        TinkarConceptModel operationUnit = query.getOperationUnit();
+        if (operationUnit != null && operationUnit.getConceptId() != null) {
+            Map<UUID, LinearConversion> conversions = this.conversionService.linearConversions(operationUnit.getConceptId());
+            Path<UUID> unit = measure.join("semantic", JoinType.LEFT).get("conceptId");
+            lower = this.convert(cb, lower, unit, conversions);
+            upper = this.convert(cb, upper, unit, conversions);
+        }
+
+        Predicate comparison = switch (query.getOperation()) {
+            case GREATER_THAN -> cb.greaterThan(upper, operationValue);
+            case LESS_THAN -> cb.lessThan(lower, operationValue);
+            case GREATER_THAN_OR_EQUAL -> cb.greaterThanOrEqualTo(upper, operationValue);
+            case LESS_THAN_OR_EQUAL -> cb.lessThanOrEqualTo(lower, operationValue);
+            case EQUAL -> cb.and(cb.greaterThanOrEqualTo(lower, operationValue), cb.lessThanOrEqualTo(upper, operationValue));
+            case NOT_EQUAL -> cb.and(cb.greaterThanOrEqualTo(lower, operationValue), cb.lessThanOrEqualTo(upper, operationValue)).not();
+        };
+        return cb.and(
+                cb.isNotNull(includeLower),
+                cb.isNotNull(includeUpper),
+                cb.or(cb.isTrue(includeLower), cb.isTrue(includeUpper)),
+                comparison);
+    }
+
+    /**
+     * Converts a bound from the unit of its measure, giving null when the unit cannot be converted.
+     */
+    private Expression<Double> convert(CriteriaBuilder cb, Expression<Double> value, Path<UUID> unit, Map<UUID, LinearConversion> conversions) {
+        if (conversions.isEmpty()) {
+            return cb.<Double>selectCase().when(cb.isNotNull(unit), value).otherwise(cb.nullLiteral(Double.class));
+        }
+        CriteriaBuilder.Case<Double> converted = cb.selectCase();
+        for (Map.Entry<UUID, LinearConversion> conversion : conversions.entrySet()) {
+            LinearConversion linear = conversion.getValue();
+            Expression<Double> result = linear.factor() == 1 && linear.offset() == 0
+                    ? value
+                    : cb.sum(cb.prod(value, linear.factor()), linear.offset());
+            converted = converted.when(cb.equal(unit, conversion.getKey()), result);
+        }
+        return converted.otherwise(cb.nullLiteral(Double.class));
+    }
+
+    /**
+     * Compares a narrative text with the text of the query, as {@link TextOperationServiceImpl} does.
+     */
+    private Predicate textMatches(CriteriaBuilder cb, Expression<String> text, Query query) {
+        String operationText = query.getOperationText();
+        return switch (query.getOperation()) {
+            case EQUAL -> operationText == null ? cb.disjunction() : cb.equal(text, operationText);
+            case NOT_EQUAL -> operationText == null ? cb.conjunction() : cb.notEqual(text, operationText);
+            // Ordering by a missing text fails in memory
+            default -> cb.disjunction();
+        };
+    }
+}
@@ -0,0 +1,334 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.Report;
+import cdx.opencdx.adr.model.QueryCacheChangeModel;
+import cdx.opencdx.adr.repository.QueryCacheChangeRepository;
+import cdx.opencdx.adr.repository.QueryCacheVersionRepository;
+import cdx.opencdx.adr.service.QueryResultCacheService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The QueryResultCacheServiceImpl class caches query reports keyed on the SHA-256 of the query as JSON.  Serializing
+ * the parsed query rather than the request body makes the key independent of field order and whitespace.  The cache is
+ * bounded by the number of report cells and by age.
+ * <p>
+ * Concepts and participants are hashed into {@code data.query.cache.stripes} stripes.  A transaction storing
+ * statements inserts a querycachechange row per stripe of their concepts and participants just before it commits.  The
+ * rows are never updated, so concurrent ingestion never waits on the stripes of concepts shared by every statement.
+ * The version of a stripe is its querycacheversion row plus the number of its changes, which only grows; the scheduled
+ * {@link #foldChanges()} moves changes into the version rows to keep the change table short.  A lookup reads every
+ * version; a report is reused while the versions of its stripes, and of the stripes reserved for changes to all reports
+ * and to the concept hierarchy, are those read before it ran.  All nodes must use the same number of stripes.
+ */
+@Slf4j
+@Service
+public class QueryResultCacheServiceImpl implements QueryResultCacheService {
+
+    /**
+     * The stripe changed when all reports are dropped.
+     */
+    static final int ALL = -1;
+
+    /**
+     * The stripe changed when the concept closure changes.
+     */
+    static final int HIERARCHY = -2;
+
+    /**
+     * The number of reserved negative stripes, which come first in the versions read.
+     */
+    private static final int RESERVED = 2;
+
+    /**
+     * The number of changes folded per transaction.
+     */
+    private static final int FOLD_SIZE = 5000;
+
+    private final QueryCacheVersionRepository versionRepository;
+
+    private final QueryCacheChangeRepository changeRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final int stripes;
+
+    private final Cache<String, Entry> results;
+
+    /**
+     * Creates the service.
+     *
+     * @param versionRepository  the repository of the versions reports are checked against
+     * @param changeRepository   the repository of the changes not folded into the versions yet
+     * @param transactionManager the transaction manager used for changes made outside a transaction
+     * @param objectMapper       the mapper queries are serialized with for their key
+     * @param metrics            the metrics the cache is registered with
+     * @param enabled            whether reports are cached
+     * @param maxCells           the maximum number of report cells cached
+     * @param ttlSeconds         how long a report is kept at most
+     * @param stripes            the number of stripes concepts and participants are versioned in
+     */
+    public QueryResultCacheServiceImpl(QueryCacheVersionRepository versionRepository, QueryCacheChangeRepository changeRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       ObjectMapper objectMapper, IngestionMetrics metrics,
+                                       @Value("${data.query.cache.enabled:true}") boolean enabled,
+                                       @Value("${data.query.cache.max-cells:2000000}") long maxCells,
+                                       @Value("${data.query.cache.ttl-seconds:600}") long ttlSeconds,
+                                       @Value("${data.query.cache.stripes:1024}") int stripes) {
+        this.versionRepository = versionRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.stripes = Math.max(1, stripes);
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxCells)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        metrics.monitorCache("query.result", this.results);
+    }
+
+    @Override
+    public Lookup lookup(ADRQuery adrQuery) {
+        String key = this.enabled ? this.keyOf(adrQuery) : null;
+        if (key == null) {
+            return new Lookup(null, null, null);
+        }
+        long[] versions = this.readVersions();
+
+        // Drop a stale report without counting it, so it is recorded as the miss it is
+        Entry stale = this.results.policy().getIfPresentQuietly(key);
+        if (stale != null && !stale.isCurrent(versions)) {
+            this.results.asMap().remove(key, stale);
+        }
+        Entry entry = this.results.getIfPresent(key);
+        return new Lookup(key, versions, entry != null && entry.isCurrent(versions) ? entry.report() : null);
+    }
+
+    @Override
+    public void store(Lookup lookup, Collection<UUID> concepts, boolean expanded, Collection<UUID> participants, Report report) {
+        if (lookup.key() == null || report == null) {
+            return;
+        }
+        Set<Integer> stripes = new TreeSet<>();
+        stripes.add(ALL);
+        if (expanded) {
+            stripes.add(HIERARCHY);
+        }
+        concepts.forEach(concept -> stripes.add(this.stripeOf(concept)));
+        participants.forEach(participant -> stripes.add(this.stripeOf(participant)));
+
+        int[] entryStripes = stripes.stream().mapToInt(Integer::intValue).toArray();
+        long[] entryVersions = new long[entryStripes.length];
+        for (int i = 0; i < entryStripes.length; i++) {
+            entryVersions[i] = lookup.versions()[entryStripes[i] + RESERVED];
+        }
+        Entry entry = new Entry(report, entryStripes, entryVersions);
+        // Statements committed while the query ran may already have changed the result
+        if (entry.isCurrent(this.readVersions())) {
+            this.results.put(lookup.key(), entry);
+        }
+    }
+
+    @Override
+    public void statementStored(Collection<UUID> concepts, UUID participant) {
+        if (!this.enabled) {
+            return;
+        }
+        Set<Integer> stripes = new TreeSet<>();
+        concepts.forEach(concept -> stripes.add(this.stripeOf(concept)));
+        if (participant != null) {
+            stripes.add(this.stripeOf(participant));
+        }
+        this.recordChanges(stripes);
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.results.invalidateAll();
+        if (this.enabled) {
+            this.recordChanges(Set.of(ALL));
+        }
+    }
+
+    @Override
+    public void hierarchyChanged() {
+        if (this.enabled) {
+            this.recordChanges(Set.of(HIERARCHY));
+        }
+    }
+
+    /**
+     * Returns the stripe of a concept or participant UUID.
+     */
+    int stripeOf(UUID uuid) {
+        return Math.floorMod(uuid.hashCode(), this.stripes);
+    }
+
+    /**
+     * Folds the oldest changes into the version rows and deletes them, in one transaction, so every lookup sees each
+     * version either before or after the fold, and both are the same.  Only the changes read are deleted, never a
+     * change committed meanwhile.  Folds on all nodes take turns on the row of {@link #ALL}, so no change is added
+     * twice.
+     */
+    @Scheduled(fixedDelayString = "${data.query.cache.fold-ms:5000}")
+    public void foldChanges() {
+        if (!this.enabled) {
+            return;
+        }
+        int folded;
+        do {
+            folded = this.transactionTemplate.execute(status -> {
+                this.versionRepository.insertIfAbsent(ALL);
+                this.versionRepository.lock(ALL);
+                List<Object[]> changes = this.changeRepository.findChanges(Pageable.ofSize(FOLD_SIZE));
+                Map<Integer, Long> counts = new TreeMap<>();
+                List<Long> ids = new ArrayList<>(changes.size());
+                for (Object[] change : changes) {
+                    ids.add(((Number) change[0]).longValue());
+                    counts.merge(((Number) change[1]).intValue(), 1L, Long::sum);
+                }
+                counts.forEach((stripe, count) -> {
+                    if (this.versionRepository.add(stripe, count) == 0) {
+                        this.versionRepository.insertIfAbsent(stripe);
+                        this.versionRepository.add(stripe, count);
+                    }
+                });
+                if (!ids.isEmpty()) {
+                    this.changeRepository.deleteChanges(ids);
+                }
+                return ids.size();
+            });
+        } while (folded == FOLD_SIZE);
+    }
+
+    /**
+     * Records changes of the given stripes.  Inside a transaction they are collected and inserted just before it
+     * commits, so a rolled back transaction changes nothing; otherwise in a transaction of their own.
+     */
+    private void recordChanges(Set<Integer> stripes) {
+        if (stripes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.pendingStripes().addAll(stripes);
+        } else {
+            this.transactionTemplate.executeWithoutResult(status -> this.insertChanges(stripes));
+        }
+    }
+
+    /**
+     * Inserts a change per stripe.
+     */
+    private void insertChanges(Set<Integer> stripes) {
+        this.changeRepository.saveAllAndFlush(stripes.stream().map(stripe -> new QueryCacheChangeModel(null, stripe)).toList());
+    }
+
+    /**
+     * Returns the stripes whose changes are inserted when the current transaction commits.
+     *
+     * @return the stripes of the statements stored in the transaction
+     */
+    private Set<Integer> pendingStripes() {
+        @SuppressWarnings("unchecked")
+        Set<Integer> pending = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Integer> stripes = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, stripes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    QueryResultCacheServiceImpl.this.insertChanges(stripes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(QueryResultCacheServiceImpl.this);
+                }
+            });
+            pending = stripes;
+        }
+        return pending;
+    }
+
+    /**
+     * Reads the version of every stripe, 0 for stripes that never changed, indexed by stripe plus {@link #RESERVED}.
+     */
+    private long[] readVersions() {
+        long[] versions = new long[this.stripes + RESERVED];
+        for (Object[] row : this.versionRepository.findVersions()) {
+            int index = ((Number) row[0]).intValue() + RESERVED;
+            if (index >= 0 && index < versions.length) {
+                versions[index] = ((Number) row[1]).longValue();
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Returns the SHA-256 of the query as JSON, or null if it cannot be serialized.
+     */
+    private String keyOf(ADRQuery adrQuery) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(this.objectMapper.writeValueAsBytes(adrQuery)));
+        } catch (JsonProcessingException e) {
+            log.warn("Query cannot be cached: {}", e.getMessage());
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached report with the stripes it depends on, in ascending order, and their versions when it was read.
+     */
+    private record Entry(Report report, int[] stripes, long[] versions) {
+
+        boolean isCurrent(long[] current) {
+            for (int i = 0; i < this.stripes.length; i++) {
+                if (current[this.stripes[i] + RESERVED] != this.versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int weight() {
+            int headers = report.getHeaders() == null ? 0 : report.getHeaders().size();
+            int rows = report.getRows() == null ? 0 : report.getRows().size();
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) headers * rows));
+        }
+    }
+}
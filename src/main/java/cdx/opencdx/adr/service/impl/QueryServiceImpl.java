@@ -10,7 +10,9 @@ import cdx.opencdx.adr.repository.CalculatedConceptRepository;
 import cdx.opencdx.adr.service.*;
 import cdx.opencdx.adr.utils.ANFHelper;
 import cdx.opencdx.adr.utils.CsvBuilder;
-import cdx.opencdx.adr.utils.ListUtils;
+import cdx.opencdx.adr.utils.ParticipantCohorts;
+import cdx.opencdx.adr.utils.QueryProfiler;
+import cdx.opencdx.adr.utils.SqlStatementCounter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -18,12 +20,29 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * The QueryServiceImpl class is an implementation of the QueryService interface.
@@ -32,6 +51,12 @@ import java.util.UUID;
 @Slf4j
 @Service
 public class QueryServiceImpl implements QueryService {
+
+    /**
+     * Number of statements loaded by id in one select.
+     */
+    private static final int STATEMENT_LOAD_SIZE = 1000;
+
     private final ANFStatementRepository aNFStatementRepository;
 
     private final ANFHelper anfRepo;
@@ -41,6 +66,16 @@ public class QueryServiceImpl implements QueryService {
     private final CalculatedConceptRepository calculatedConceptRepository;
     private final FormulaService formulaService;
     private final ConceptService conceptService;
+    private final QueryCompilerService queryCompilerService;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final QueryResultCacheService queryResultCacheService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int parallelism;
+
+    /**
+     * Bounds the sibling queries running concurrently across all requests, so they cannot exhaust the connection pool.
+     */
+    private final Semaphore permits;
 
 
     @PersistenceContext
@@ -57,9 +92,16 @@ public class QueryServiceImpl implements QueryService {
      * @param formulaService              the FormulaService object used for formula operations
      * @param aNFStatementRepository      the ANFStatementRepository object used for ANF statement operations
      * @param conceptService              the ConceptService object used for concept operations
+     * @param queryCompilerService        the QueryCompilerService object used to run comparisons in the database
+     * @param sqlStatementCounter         the SqlStatementCounter used to count the SQL statements of profiled queries
+     * @param transactionManager          the transaction manager for the read-only transactions of concurrent queries
+     * @param parallelism                 the maximum number of sibling queries running concurrently
+     * @param queryResultCacheService     the QueryResultCacheService object holding the reports of recent queries
      */
     public QueryServiceImpl(ANFHelper anfRepo, CsvService csvService, MeasureOperationService measureOperationService, TextOperationService textOperationService, CalculatedConceptRepository calculatedConceptRepository, FormulaService formulaService,
-                            ANFStatementRepository aNFStatementRepository, ConceptService conceptService) {
+                            ANFStatementRepository aNFStatementRepository, ConceptService conceptService, QueryCompilerService queryCompilerService,
+                            SqlStatementCounter sqlStatementCounter, PlatformTransactionManager transactionManager,
+                            @Value("${data.query.parallelism:4}") int parallelism, QueryResultCacheService queryResultCacheService) {
         this.anfRepo = anfRepo;
         this.csvService = csvService;
         this.measureOperationService = measureOperationService;
@@ -68,6 +110,14 @@ public class QueryServiceImpl implements QueryService {
         this.formulaService = formulaService;
         this.aNFStatementRepository = aNFStatementRepository;
         this.conceptService = conceptService;
+        this.queryCompilerService = queryCompilerService;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.permits = new Semaphore(Math.max(1, parallelism));
+        this.queryResultCacheService = queryResultCacheService;
     }
 
     /**
@@ -84,26 +134,123 @@ public class QueryServiceImpl implements QueryService {
             this.calculatedConceptRepository.deleteAll(allByThreadName);
         }
 
-        ProcessingResults processingResults = processQuery(adrQuery.getQueries());
+        ParticipantCohorts cohorts = new ParticipantCohorts();
+        ProcessingResults processingResults = processQuery(adrQuery.getQueries(), new QueryContext(cohorts, QueryProfiler.disabled(), true));
 
         List<AnfStatementModel> results = processingResults.anfStatements;
 
-        List<UUID> list = processingResults.conceptIds;
+        List<UUID> list = cohorts.participantsOf(processingResults.participants);
         return prepareCsvContent(list, results, adrQuery.getUnitOutput());
     }
 
+    @Override
     public Report processJsonQuery(ADRQuery adrQuery) {
-        List<CalculatedConcept> allByThreadName = this.calculatedConceptRepository.findAllByThreadName(Thread.currentThread().getName());
-        if (!allByThreadName.isEmpty()) {
-            this.calculatedConceptRepository.deleteAll(allByThreadName);
+        return this.processJsonQuery(adrQuery, false);
+    }
+
+    @Override
+    public Report processJsonQuery(ADRQuery adrQuery, boolean profile) {
+        // Profiled runs always evaluate the query, as their profile describes the evaluation
+        QueryResultCacheService.Lookup lookup = profile ? null : this.queryResultCacheService.lookup(adrQuery);
+        if (lookup != null && lookup.report() != null) {
+            return lookup.report();
         }
 
-        ProcessingResults processingResults = processQuery(adrQuery.getQueries());
+        QueryProfiler profiler = profile ? QueryProfiler.start(this.sqlStatementCounter) : QueryProfiler.disabled();
+        try {
+            List<CalculatedConcept> allByThreadName = this.calculatedConceptRepository.findAllByThreadName(Thread.currentThread().getName());
+            if (!allByThreadName.isEmpty()) {
+                this.calculatedConceptRepository.deleteAll(allByThreadName);
+            }
+
+            QueryProfiler.Mark start = profiler.mark();
+            ParticipantCohorts cohorts = new ParticipantCohorts();
+            ProcessingResults processingResults = processQuery(adrQuery.getQueries(), new QueryContext(cohorts, profiler, true));
+            profiler.stage("query", start);
 
-        List<AnfStatementModel> results = processingResults.anfStatements;
+            List<AnfStatementModel> results = processingResults.anfStatements;
 
-        List<UUID> list = processingResults.conceptIds;
-        return prepareJsonContent(list, results, adrQuery.getUnitOutput());
+            List<UUID> list = cohorts.participantsOf(processingResults.participants);
+            Report report = prepareJsonContent(list, results, adrQuery.getUnitOutput(), profiler);
+            if (profiler.isEnabled()) {
+                profiler.finish();
+                this.explainFocus(adrQuery.getQueries(), profiler);
+                report.setProfile(profiler.profile(adrQuery.getQueries()));
+            }
+            if (lookup != null) {
+                Set<UUID> concepts = new HashSet<>();
+                boolean expanded = this.collectConcepts(adrQuery.getQueries(), concepts);
+                this.queryResultCacheService.store(lookup, concepts, expanded, list, report);
+            }
+            return report;
+        } finally {
+            profiler.finish();
+        }
+    }
+
+    @Override
+    public QueryProfile explainQuery(ADRQuery adrQuery) {
+        return this.processJsonQuery(adrQuery, true).getProfile();
+    }
+
+    /**
+     * Collects the concepts a query reads statements of, expanding their focus modes as the query does.
+     *
+     * @param queries  the queries
+     * @param concepts the set the concept UUIDs are added to
+     * @return whether a focus mode other than SELF or DATE was expanded
+     */
+    private boolean collectConcepts(List<Query> queries, Set<UUID> concepts) {
+        boolean expanded = false;
+        for (Query query : queries) {
+            if (query.getConcept() != null && query.getConcept().getConceptId() != null) {
+                expanded |= this.collectConcept(query.getConcept(), concepts);
+            } else if (query.getFormula() != null) {
+                expanded |= this.collectConcepts(query.getFormula(), concepts);
+            } else if (query.getGroup() != null) {
+                expanded |= this.collectConcepts(query.getGroup(), concepts);
+            }
+        }
+        return expanded;
+    }
+
+    private boolean collectConcepts(Formula formula, Set<UUID> concepts) {
+        boolean expanded = false;
+        if (formula.getLeftOperand() != null) {
+            expanded |= this.collectConcept(formula.getLeftOperand(), concepts);
+        }
+        if (formula.getRightOperand() != null) {
+            expanded |= this.collectConcept(formula.getRightOperand(), concepts);
+        }
+        if (formula.getLeftOperandFormula() != null) {
+            expanded |= this.collectConcepts(formula.getLeftOperandFormula(), concepts);
+        }
+        if (formula.getRightOperandFormula() != null) {
+            expanded |= this.collectConcepts(formula.getRightOperandFormula(), concepts);
+        }
+        return expanded;
+    }
+
+    private boolean collectConcept(TinkarConceptModel concept, Set<UUID> concepts) {
+        concepts.addAll(this.conceptService.getFocusConcepts(concept));
+        return !ConceptFocus.SELF.equals(concept.getFocus()) && !ConceptFocus.DATE.equals(concept.getFocus());
+    }
+
+    /**
+     * Records the number of concepts the focus of each concept query expands to.  Done after the query has finished,
+     * so the expansion is not part of its time.
+     *
+     * @param queries  the queries
+     * @param profiler the profiler of the query
+     */
+    private void explainFocus(List<Query> queries, QueryProfiler profiler) {
+        for (Query query : queries) {
+            if (query.getConcept() != null && query.getConcept().getConceptId() != null && query.getConcept().getFocus() != null) {
+                profiler.focusConcepts(query, this.conceptService.getFocusConcepts(query.getConcept()).size());
+            } else if (query.getGroup() != null) {
+                this.explainFocus(query.getGroup(), profiler);
+            }
+        }
     }
 
     /**
@@ -129,8 +276,12 @@ public class QueryServiceImpl implements QueryService {
         return csvContent;
     }
 
-    private Report prepareJsonContent(List<UUID> uuids, List<AnfStatementModel> results, UnitOutput unitOutput) {
+    private Report prepareJsonContent(List<UUID> uuids, List<AnfStatementModel> results, UnitOutput unitOutput, QueryProfiler profiler) {
+        QueryProfiler.Mark start = profiler.mark();
         CsvBuilder csvDto = this.csvService.buildCsvDto(uuids, results, unitOutput);
+        profiler.stage("csv-build", start);
+
+        start = profiler.mark();
         List<Row> rows = new ArrayList<>();
         for (int i = 0; i < csvDto.getRowCount(); i++) {
             List<Cell> cells = new ArrayList<>();
@@ -140,23 +291,10 @@ public class QueryServiceImpl implements QueryService {
             }
             rows.add(Row.builder().cells(cells).build());
         }
+        profiler.stage("format", start);
         return Report.builder().headers(csvDto.getHeaders()).rows(rows).build();
     }
 
-    /**
-     * Returns a list of UUIDs extracted from the subjectOfRecord.partId property
-     * of the given list of AnfStatementModel objects.
-     *
-     * @param results the list of AnfStatementModel objects from which to extract the UUIDs
-     * @return a list of UUIDs extracted from the subjectOfRecord.partId property
-     */
-    private List<UUID> getAnfStatementUuids(List<AnfStatementModel> results) {
-        return results.stream()
-                .map(anf -> anf.getSubjectOfRecord().getPartId())
-                .distinct()
-                .toList();
-    }
-
     /**
      * Retrieves a list of AnfStatementModels based on the given Predicate and CriteriaQuery.
      *
@@ -178,11 +316,12 @@ public class QueryServiceImpl implements QueryService {
      * Processes the given list of queries.
      *
      * @param queries the list of queries to be processed
+     * @param context the state of the query being processed
      * @return the processing results
      */
-    private ProcessingResults processQuery(List<Query> queries) {
+    private ProcessingResults processQuery(List<Query> queries, QueryContext context) {
         validateQueryList(queries);
-        processQueries(queries);
+        processQueries(queries, context);
 
         if (queries.size() == 1) {
             return prepareResult(queries.getFirst());
@@ -190,7 +329,7 @@ public class QueryServiceImpl implements QueryService {
 
         int index = 1;
         while (index + 1 < queries.size()) {
-            processByJoinOperation(queries, index);
+            processByJoinOperation(queries, index, context);
             index += 2;
         }
         return prepareResult(queries.getLast());
@@ -209,39 +348,170 @@ public class QueryServiceImpl implements QueryService {
     }
 
     /**
-     * Processes a list of queries by setting ANF statements and concept IDs for each query
+     * Processes a list of queries by setting ANF statements and the cohort of their participants for each query.
+     * Sibling queries are independent until they are joined, so those that only read run concurrently, each in its own
+     * read-only transaction, while the others run on the calling thread.
      *
      * @param queries the list of queries to process
+     * @param context the state of the query being processed
      */
-    private void processQueries(List<Query> queries) {
-        queries.forEach(query -> {
-            query.setAnfStatements(this.runQuery(query));
-            query.setConceptIds(this.getAnfStatementUuids(query.getAnfStatements()));
-        });
+    private void processQueries(List<Query> queries, QueryContext context) {
+        List<Query> concurrent = context.concurrent() && this.parallelism > 1
+                ? queries.stream().filter(this::isReadOnly).toList()
+                : List.of();
+        if (concurrent.size() < 2) {
+            queries.forEach(query -> this.processSequentially(query, context));
+            return;
+        }
+
+        boolean profile = context.profiler().isEnabled();
+        Map<Query, Future<Evaluation>> evaluations = new IdentityHashMap<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("query-", 0).factory())) {
+            concurrent.forEach(query -> evaluations.put(query, executor.submit(() -> this.evaluate(query, profile))));
+            try {
+                for (Query query : queries) {
+                    Future<Evaluation> evaluation = evaluations.get(query);
+                    if (evaluation == null) {
+                        this.processSequentially(query, context);
+                    } else {
+                        this.adopt(query, this.await(evaluation), context);
+                    }
+                }
+            } finally {
+                evaluations.values().forEach(evaluation -> evaluation.cancel(true));
+            }
+        }
+    }
+
+    /**
+     * Runs a query on the calling thread.
+     *
+     * @param query   the query
+     * @param context the state of the query being processed
+     */
+    private void processSequentially(Query query, QueryContext context) {
+        context.profiler().begin(query);
+        query.setAnfStatements(this.runQuery(query, context));
+        query.setParticipants(context.cohorts().cohortOf(query.getAnfStatements()));
+        context.profiler().end(query);
+    }
+
+    /**
+     * Checks whether a query only reads, so it can run on another thread.  Formulas store their calculated values by
+     * thread name for the CSV builder, so they stay on the calling thread.
+     *
+     * @param query the query
+     * @return true if the query can run concurrently
+     */
+    private boolean isReadOnly(Query query) {
+        if (query.getConcept() != null && query.getConcept().getConceptId() != null) {
+            return true;
+        }
+        return query.getGroup() != null && query.getGroup().stream().allMatch(this::isReadOnly);
+    }
+
+    /**
+     * Runs a query in its own read-only transaction, and reads the ids and subjects of its statements before the
+     * persistence context closes.  Called on a worker thread; nested groups run sequentially on it.
+     *
+     * @param query   the query
+     * @param profile whether the query is profiled
+     * @return the statements of the query
+     * @throws InterruptedException if the query is cancelled while waiting for a permit
+     */
+    private Evaluation evaluate(Query query, boolean profile) throws InterruptedException {
+        this.permits.acquire();
+        QueryProfiler profiler = profile ? QueryProfiler.start(this.sqlStatementCounter) : QueryProfiler.disabled();
+        try {
+            return this.readOnlyTransaction.execute(status -> {
+                QueryContext context = new QueryContext(new ParticipantCohorts(), profiler, false);
+                this.processSequentially(query, context);
+
+                List<AnfStatementModel> statements = query.getAnfStatements();
+                long[] ids = new long[statements.size()];
+                List<UUID> participants = new ArrayList<>(statements.size());
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = statements.get(i).getId();
+                    participants.add(statements.get(i).getSubjectOfRecord().getPartId());
+                }
+                return new Evaluation(ids, participants, profiler);
+            });
+        } finally {
+            profiler.finish();
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Waits for a query running on another thread.
+     *
+     * @param evaluation the running query
+     * @return its statements
+     */
+    private Evaluation await(Future<Evaluation> evaluation) {
+        try {
+            return evaluation.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query", e);
+        }
+    }
+
+    /**
+     * Sets the statements a query evaluated on another thread, loaded into the persistence context of the calling
+     * thread, and the cohort of their participants.
+     *
+     * @param query      the query
+     * @param evaluation the statements of the query
+     * @param context    the state of the query being processed
+     */
+    private void adopt(Query query, Evaluation evaluation, QueryContext context) {
+        Map<Long, AnfStatementModel> loaded = new HashMap<>();
+        long[] distinct = Arrays.stream(evaluation.ids()).distinct().toArray();
+        for (int i = 0; i < distinct.length; i += STATEMENT_LOAD_SIZE) {
+            List<Long> chunk = Arrays.stream(distinct, i, Math.min(i + STATEMENT_LOAD_SIZE, distinct.length)).boxed().toList();
+            this.aNFStatementRepository.findAllById(chunk).forEach(statement -> loaded.put(statement.getId(), statement));
+        }
+
+        List<AnfStatementModel> statements = new ArrayList<>(evaluation.ids().length);
+        for (int i = 0; i < evaluation.ids().length; i++) {
+            statements.add(loaded.get(evaluation.ids()[i]));
+            context.cohorts().assign(evaluation.ids()[i], evaluation.participants().get(i));
+        }
+        query.setAnfStatements(statements);
+        query.setParticipants(context.cohorts().cohortOf(statements));
+        context.profiler().merge(evaluation.profiler());
     }
 
     /**
      * Prepares the result using the given query.
      *
-     * @param query The query object containing concept IDs and ANF statements.
-     * @return The processing results object containing the concept IDs and ANF statements.
+     * @param query The query object containing the participant cohort and ANF statements.
+     * @return The processing results object containing the participant cohort and ANF statements.
      */
     private ProcessingResults prepareResult(Query query) {
-        return new ProcessingResults(query.getConceptIds(), query.getAnfStatements());
+        return new ProcessingResults(query.getParticipants(), query.getAnfStatements());
     }
 
     /**
      * Processes the given list of queries based on the join operation at the specified index.
      *
      * @param queries the list of queries
-     * @param index   the index of the join operation in the list of queries
+     * @param index    the index of the join operation in the list of queries
+     * @param context  the state of the query being processed
      */
-    private void processByJoinOperation(List<Query> queries, int index) {
+    private void processByJoinOperation(List<Query> queries, int index, QueryContext context) {
+        QueryProfiler.Mark start = context.profiler().mark();
         JoinOperation joinOperation = queries.get(index).getJoinOperation();
         ProcessingResults results;
 
         if (joinOperation.equals(JoinOperation.AND)) {
-            results = processAndResults(queries.get(index - 1), queries.get(index + 1));
+            results = processAndResults(queries.get(index - 1), queries.get(index + 1), context.cohorts());
         } else if (joinOperation.equals(JoinOperation.OR)) {
             results = processOrResults(queries.get(index - 1), queries.get(index + 1));
         } else {
@@ -249,6 +519,7 @@ public class QueryServiceImpl implements QueryService {
         }
 
         updateQueryWithResults(queries.get(index + 1), results);
+        context.profiler().join(joinOperation, queries.get(index - 1), queries.get(index + 1), start);
     }
 
     /**
@@ -258,44 +529,43 @@ public class QueryServiceImpl implements QueryService {
      * @param results The ProcessingResults object containing the results to update the Query object with.
      */
     private void updateQueryWithResults(Query query, ProcessingResults results) {
-        query.setConceptIds(results.conceptIds);
+        query.setParticipants(results.participants);
         query.setAnfStatements(results.anfStatements);
     }
 
     /**
-     * Combines the concept IDs and ANF statements from two given query objects into a single ProcessingResults object.
+     * Combines the participants and ANF statements from two given query objects into a single ProcessingResults object.
      *
-     * @param query1 The first Query object containing concept IDs and ANF statements to be combined.
-     * @param query2 The second Query object containing concept IDs and ANF statements to be combined.
-     * @return A ProcessingResults object containing the combined concept IDs and ANF statements.
+     * @param query1 The first Query object containing participants and ANF statements to be combined.
+     * @param query2 The second Query object containing participants and ANF statements to be combined.
+     * @return A ProcessingResults object containing the union of the cohorts and the distinct ANF statements.
      */
     private ProcessingResults processOrResults(Query query1, Query query2) {
-        List<UUID> uuids = new ArrayList<>(query1.getConceptIds());
-        uuids.addAll(query2.getConceptIds());
-        List<AnfStatementModel> anfStatements = new ArrayList<>(query1.getAnfStatements());
-        anfStatements.addAll(query2.getAnfStatements());
+        RoaringBitmap participants = RoaringBitmap.or(query1.getParticipants(), query2.getParticipants());
 
-        uuids = uuids.stream().distinct().toList();
-        anfStatements = anfStatements.stream().distinct().toList();
+        Set<AnfStatementModel> anfStatements = new LinkedHashSet<>();
+        anfStatements.addAll(query1.getAnfStatements());
+        anfStatements.addAll(query2.getAnfStatements());
 
-        return new ProcessingResults(uuids, anfStatements);
+        return new ProcessingResults(participants, new ArrayList<>(anfStatements));
     }
 
     /**
      * Process and combine the provided queries to produce the processing results.
      *
-     * @param query1 The first query to process.
-     * @param query2 The second query to process.
-     * @return The processing results obtained by combining the concept IDs and ANF statements from the queries.
+     * @param query1  The first query to process.
+     * @param query2  The second query to process.
+     * @param cohorts numbers the participants of the queries
+     * @return The processing results holding the intersection of the cohorts and the ANF statements of its participants.
      */
-    private ProcessingResults processAndResults(Query query1, Query query2) {
-        List<UUID> uuids = ListUtils.intersection(query1.getConceptIds(), query2.getConceptIds());
+    private ProcessingResults processAndResults(Query query1, Query query2, ParticipantCohorts cohorts) {
+        RoaringBitmap participants = RoaringBitmap.and(query1.getParticipants(), query2.getParticipants());
         List<AnfStatementModel> anfStatements = new ArrayList<>();
 
-        anfStatements.addAll(query1.getAnfStatements().stream().filter(anf -> uuids.contains(anf.getSubjectOfRecord().getPartId())).toList());
-        anfStatements.addAll(query2.getAnfStatements().stream().filter(anf -> uuids.contains(anf.getSubjectOfRecord().getPartId())).toList());
+        anfStatements.addAll(query1.getAnfStatements().stream().filter(anf -> cohorts.contains(participants, anf)).toList());
+        anfStatements.addAll(query2.getAnfStatements().stream().filter(anf -> cohorts.contains(participants, anf)).toList());
 
-        return new ProcessingResults(uuids, anfStatements);
+        return new ProcessingResults(participants, anfStatements);
     }
 
     /**
@@ -309,7 +579,7 @@ public class QueryServiceImpl implements QueryService {
         CriteriaQuery<TinkarConceptModel> criteriaQuery = cb.createQuery(TinkarConceptModel.class);
         Root<TinkarConceptModel> root = criteriaQuery.from(TinkarConceptModel.class);
 
-        criteriaQuery.where(root.get("conceptId").in(this.conceptService.getFocusConcepts(query.getConcept())));
+        criteriaQuery.where(this.conceptService.getFocusPredicate(cb, criteriaQuery, root.<UUID>get("conceptId"), query.getConcept()));
 
         List<AnfStatementModel> anf =  entityManager.createQuery(criteriaQuery).getResultList().stream()
                 .map(TinkarConceptModel::getAnfStatements)
@@ -339,15 +609,22 @@ public class QueryServiceImpl implements QueryService {
     /**
      * Executes a query and returns a list of AnfStatementModel objects filtered based on query conditions.
      *
-     * @param query The query object representing the conditions to filter the AnfStatementModel objects.
+     * @param query    The query object representing the conditions to filter the AnfStatementModel objects.
+     * @param context  the state of the query being processed
      * @return A list of AnfStatementModel objects that match the conditions specified in the query.
      */
-    private List<AnfStatementModel> runQuery(Query query) {
+    private List<AnfStatementModel> runQuery(Query query, QueryContext context) {
         List<AnfStatementModel> simpleQueryResults;
         if (query.getConcept() != null && query.getConcept().getConceptId() != null) {
+            if (this.queryCompilerService.supports(query)) {
+                List<AnfStatementModel> compiled = this.queryCompilerService.execute(query);
+                context.profiler().compiled(query);
+                context.profiler().fetched(query, compiled.size());
+                return compiled;
+            }
             simpleQueryResults = runSimpleQuery(query);
         } else if (query.getGroup() != null) {
-            ProcessingResults results = this.processQuery(query.getGroup());
+            ProcessingResults results = this.processQuery(query.getGroup(), context);
             simpleQueryResults = results.anfStatements;
         } else if (query.getFormula() != null) {
             simpleQueryResults = this.formulaService.evaluateFormula(query.getFormula());
@@ -355,6 +632,7 @@ public class QueryServiceImpl implements QueryService {
             log.debug("Returning Empty Query Results");
             return Collections.emptyList();
         }
+        context.profiler().fetched(query, simpleQueryResults.size());
         return this.processOperational(query, simpleQueryResults);
     }
 
@@ -390,7 +668,27 @@ public class QueryServiceImpl implements QueryService {
     /**
      * Represents the result of processing certain data.
      */
-    public record ProcessingResults(List<UUID> conceptIds, List<AnfStatementModel> anfStatements) {
+    public record ProcessingResults(RoaringBitmap participants, List<AnfStatementModel> anfStatements) {
+    }
+
+    /**
+     * The state of a query being processed.
+     *
+     * @param cohorts    numbers the participants of the query
+     * @param profiler   the profiler of the query
+     * @param concurrent whether sibling queries may run on other threads
+     */
+    private record QueryContext(ParticipantCohorts cohorts, QueryProfiler profiler, boolean concurrent) {
+    }
+
+    /**
+     * The statements of a query evaluated on another thread.
+     *
+     * @param ids          the ids of the statements, in order
+     * @param participants the subject of record of each statement
+     * @param profiler     the profiler the query was evaluated with
+     */
+    private record Evaluation(long[] ids, List<UUID> participants, QueryProfiler profiler) {
     }
 
 }
@@ -1,8 +1,11 @@
 package cdx.opencdx.adr.service.impl;
 
 import cdx.opencdx.adr.model.AnfStatementModel;
+import cdx.opencdx.adr.model.MeasureModel;
+import cdx.opencdx.adr.service.DimensionInternService;
 import cdx.opencdx.adr.service.IKMInterface;
 import cdx.opencdx.adr.service.OpenCDXANFProcessor;
+import cdx.opencdx.adr.utils.IngestionMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -12,8 +15,14 @@ public class RangeCheckProcessor implements OpenCDXANFProcessor {
 
     private final IKMInterface ikmInterface;
 
-    public RangeCheckProcessor(IKMInterface ikmInterface) {
+    private final DimensionInternService dimensionInternService;
+
+    private final IngestionMetrics metrics;
+
+    public RangeCheckProcessor(IKMInterface ikmInterface, DimensionInternService dimensionInternService, IngestionMetrics metrics) {
         this.ikmInterface = ikmInterface;
+        this.dimensionInternService = dimensionInternService;
+        this.metrics = metrics;
     }
 
     /**
@@ -24,9 +33,24 @@ public class RangeCheckProcessor implements OpenCDXANFProcessor {
     @Override
     public void processAnfStatement(AnfStatementModel anfStatement) {
         if(anfStatement.getPerformanceCircumstance() != null) {
-            anfStatement.getPerformanceCircumstance().setResult( ikmInterface.syncConstraintRanges(anfStatement.getTopic().getConceptId(), anfStatement.getPerformanceCircumstance().getResult()));
+            anfStatement.getPerformanceCircumstance().setResult(this.syncRange(anfStatement, anfStatement.getPerformanceCircumstance().getResult()));
         } else if (anfStatement.getRequestCircumstance() != null) {
-            anfStatement.getRequestCircumstance().setRequestedResult(ikmInterface.syncConstraintRanges(anfStatement.getTopic().getConceptId(), anfStatement.getRequestCircumstance().getRequestedResult()));
+            anfStatement.getRequestCircumstance().setRequestedResult(this.syncRange(anfStatement, anfStatement.getRequestCircumstance().getRequestedResult()));
+        }
+    }
+
+    /**
+     * Applies the constraint range of the statement topic to the measure.  The measure row is shared with other
+     * statements holding the same values, so a changed range is interned again rather than updated in place.  While
+     * the IKM data store is opening the measure keeps the bounds it was sent with.
+     */
+    private MeasureModel syncRange(AnfStatementModel anfStatement, MeasureModel measure) {
+        MeasureModel synced = measure;
+        if (this.ikmInterface.isReady()) {
+            synced = this.metrics.time("range-sync", () -> ikmInterface.syncConstraintRanges(anfStatement.getTopic().getConceptId(), measure));
+        } else {
+            log.debug("IKM not ready, range of statement {} not synchronized", anfStatement.getAnfid());
         }
+        return this.dimensionInternService.internMeasure(synced);
     }
 }
@@ -17,6 +17,7 @@ package cdx.opencdx.adr.utils;
 
 import cdx.opencdx.adr.model.RepetitionModel;
 import cdx.opencdx.adr.repository.*;
+import cdx.opencdx.adr.service.DimensionInternService;
 import cdx.opencdx.adr.service.OpenCDXIKMService;
 import lombok.Getter;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -160,6 +161,11 @@ public class ANFHelper {
      */
     private final TinkarConceptRepository tinkarConceptRepository;
 
+    /**
+     * The DimensionInternService used to store measures and references once and share them between statements.
+     */
+    private final DimensionInternService dimensionInternService;
+
     /**
      * The ANFRepo class represents a repository for the ANF.
      */
@@ -172,7 +178,8 @@ public class ANFHelper {
             PerformanceCircumstanceRepository performanceCircumstanceRepository,
             PractitionerRepository practitionerRepository,
             RepetitionRepository repetitionRepository,
-            RequestCircumstanceRepository requestCircumstanceRepository, ReferenceRepository referenceRepository, TinkarConceptRepository tinkarConceptRepository) {
+            RequestCircumstanceRepository requestCircumstanceRepository, ReferenceRepository referenceRepository, TinkarConceptRepository tinkarConceptRepository,
+            DimensionInternService dimensionInternService) {
         this.openCDXIKMService = openCDXIKMService;
         this.anfStatementRepository = anfStatementRepository;
         this.associatedStatementRespository = associatedStatementRespository;
@@ -185,5 +192,6 @@ public class ANFHelper {
         this.requestCircumstanceRepository = requestCircumstanceRepository;
         this.referenceRepository = referenceRepository;
         this.tinkarConceptRepository = tinkarConceptRepository;
+        this.dimensionInternService = dimensionInternService;
     }
 }
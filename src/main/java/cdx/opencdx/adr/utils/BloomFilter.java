@@ -0,0 +1,83 @@
+package cdx.opencdx.adr.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe Bloom filter of UUIDs.  {@link #mightContain(UUID)} never returns false for a UUID that was added,
+ * and returns true for a UUID that was not added with roughly the configured false positive rate, as long as no more
+ * than the expected number of UUIDs are added.  The bit positions are derived from the two halves of the UUID by
+ * double hashing, so no separate hash function is needed.  Both hashes depend on both halves, so UUIDs that only
+ * differ in one half, such as sequential ones, are spread as well as random ones.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the given number of entries and false positive rate.
+     *
+     * @param expectedInsertions the number of UUIDs the filter is sized for
+     * @param falsePositiveRate  the wanted false positive rate, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Adds a UUID to the filter.
+     *
+     * @param uuid the UUID to add
+     */
+    public void put(UUID uuid) {
+        long h1 = mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+        long h2 = mix(uuid.getLeastSignificantBits() ^ Long.rotateLeft(h1, 32)) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = this.bits.get(word);
+            } while ((current & mask) == 0 && !this.bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Tests whether a UUID may have been added.
+     *
+     * @param uuid the UUID to test
+     * @return false if the UUID was definitely never added, true if it may have been
+     */
+    public boolean mightContain(UUID uuid) {
+        long h1 = mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+        long h2 = mix(uuid.getLeastSignificantBits() ^ Long.rotateLeft(h1, 32)) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+            if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreading the bits of a value that may have little entropy in places (for example
+     * the version bits of a UUID).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,239 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.model.TinkarConceptModel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The ConceptSearchIndex class is an in-memory full-text index over the names and descriptions of stored concepts.
+ * Every word of a search must match the start of a word of the concept, so partially typed searches find their
+ * concepts; when no concept matches that way, concepts sharing most of the trigrams of the search are returned, which
+ * tolerates typos and matches inside words.  Concepts are keyed by their database id, so indexing a concept again
+ * replaces it.
+ */
+public class ConceptSearchIndex {
+
+    /**
+     * Share of the trigrams of a search a concept must contain to be returned by the trigram fallback.
+     */
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+
+    private static final int EXACT_WORD = 3;
+
+    private static final int WORD_PREFIX = 2;
+
+    private static final int NAME_PREFIX = 5;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Words to the ids of the concepts containing them, sorted so all words with a prefix are one range.
+     */
+    private final TreeMap<String, Set<Long>> words = new TreeMap<>();
+
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a concept, replacing an earlier version of it.  Concepts that have not been saved yet are ignored.
+     *
+     * @param concept the stored concept
+     */
+    public void add(TinkarConceptModel concept) {
+        if (concept == null || concept.getId() == null || concept.getConceptId() == null) {
+            return;
+        }
+        Set<String> conceptWords = new LinkedHashSet<>(tokenize(concept.getConceptName()));
+        conceptWords.addAll(tokenize(concept.getConceptDescription()));
+        Entry entry = new Entry(concept.getConceptId(), concept.getConceptName(), concept.getConceptDescription(),
+                concept.isSync(), normalize(concept.getConceptName()), conceptWords);
+
+        this.lock.writeLock().lock();
+        try {
+            this.remove(concept.getId());
+            this.entries.put(concept.getId(), entry);
+            for (String word : conceptWords) {
+                this.words.computeIfAbsent(word, key -> new HashSet<>()).add(concept.getId());
+                for (String trigram : trigramsOf(word, true)) {
+                    this.trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(concept.getId());
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of concepts in the index.
+     *
+     * @return the number of concepts
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.entries.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param search the search string
+     * @param limit  the maximum number of concepts returned
+     * @return the best matching concepts, best first, as unsaved copies
+     */
+    public List<TinkarConceptModel> search(String search, int limit) {
+        List<String> searchWords = tokenize(search);
+        if (searchWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String normalized = normalize(search);
+
+        this.lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = this.matchWords(searchWords);
+            if (scores.isEmpty()) {
+                scores = this.matchTrigrams(searchWords);
+            }
+            for (Map.Entry<Long, Integer> score : scores.entrySet()) {
+                if (this.entries.get(score.getKey()).name().startsWith(normalized)) {
+                    score.setValue(score.getValue() + NAME_PREFIX);
+                }
+            }
+
+            Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.<Long, Integer>comparingByValue().reversed();
+            ranking = ranking.thenComparingInt(score -> this.entries.get(score.getKey()).name().length())
+                    .thenComparing(score -> this.entries.get(score.getKey()).name());
+            return scores.entrySet().stream()
+                    .sorted(ranking)
+                    .limit(limit)
+                    .map(score -> this.entries.get(score.getKey()).toModel())
+                    .toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores the concepts having, for every search word, a word starting with it.
+     */
+    private Map<Long, Integer> matchWords(List<String> searchWords) {
+        Map<Long, Integer> scores = null;
+        for (String searchWord : searchWords) {
+            Map<Long, Integer> wordScores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> word : this.words.subMap(searchWord, true, searchWord + Character.MAX_VALUE, false).entrySet()) {
+                int score = word.getKey().equals(searchWord) ? EXACT_WORD : WORD_PREFIX;
+                for (Long id : word.getValue()) {
+                    wordScores.merge(id, score, Math::max);
+                }
+            }
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Scores the concepts by the number of trigrams of the search they contain.  The last trigram of each search word
+     * is not padded, as the word may still be being typed.
+     */
+    private Map<Long, Integer> matchTrigrams(List<String> searchWords) {
+        Set<String> searchTrigrams = new HashSet<>();
+        searchWords.forEach(word -> searchTrigrams.addAll(trigramsOf(word, false)));
+
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String trigram : searchTrigrams) {
+            for (Long id : this.trigrams.getOrDefault(trigram, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+        int required = (int) Math.ceil(searchTrigrams.size() * MIN_TRIGRAM_SIMILARITY);
+        shared.values().removeIf(count -> count < required);
+        return shared;
+    }
+
+    private void remove(Long id) {
+        Entry previous = this.entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words()) {
+            removePosting(this.words, word, id);
+            for (String trigram : trigramsOf(word, true)) {
+                removePosting(this.trigrams, trigram, id);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigramsOf(String word, boolean complete) {
+        String padded = "  " + word + (complete ? " " : "");
+        List<String> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * An indexed concept.
+     */
+    private record Entry(UUID conceptId, String conceptName, String conceptDescription, boolean sync, String name,
+                         Set<String> words) {
+
+        TinkarConceptModel toModel() {
+            return new TinkarConceptModel(this.conceptId, this.conceptName, this.conceptDescription, this.sync);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package cdx.opencdx.adr.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The IdentifierIndex class maps identifier values, such as device identifiers, to the UUIDs of the component they
+ * identify.  The index can be written to a file together with a fingerprint of the data it was built from, and is
+ * only loaded back while the fingerprint still matches, so a changed data store causes a rebuild.
+ */
+@Slf4j
+public class IdentifierIndex {
+
+    /**
+     * Identifies the file format, changed whenever the layout changes.
+     */
+    private static final int MAGIC = 0x41445249;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Longest identifier stored; writeUTF is limited to 65535 bytes.
+     */
+    private static final int MAX_IDENTIFIER_LENGTH = 16384;
+
+    /**
+     * Most UUIDs stored per identifier; the count is written as one byte.
+     */
+    private static final int MAX_UUIDS = 255;
+
+    private final Map<String, UUID[]> entries;
+
+    /**
+     * Creates an empty index.
+     */
+    public IdentifierIndex() {
+        this(new HashMap<>());
+    }
+
+    private IdentifierIndex(Map<String, UUID[]> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Adds an identifier.  A later identifier with the same value replaces the earlier one.  Identifiers longer than
+     * 16384 characters or with more than 255 UUIDs are not indexed.
+     *
+     * @param identifier the identifier value
+     * @param uuids      the UUIDs of the identified component
+     */
+    public void put(String identifier, UUID[] uuids) {
+        if (identifier != null && identifier.length() <= MAX_IDENTIFIER_LENGTH && uuids.length <= MAX_UUIDS) {
+            this.entries.put(identifier, uuids);
+        }
+    }
+
+    /**
+     * Looks up an identifier.
+     *
+     * @param identifier the identifier value
+     * @return the UUIDs of the identified component, or null if the identifier is unknown
+     */
+    public UUID[] get(String identifier) {
+        return this.entries.get(identifier);
+    }
+
+    /**
+     * Returns the number of identifiers in the index.
+     *
+     * @return the number of identifiers
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Writes the index to a file, replacing it atomically.
+     *
+     * @param file        the file to write
+     * @param fingerprint identifies the data the index was built from
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file, String fingerprint) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(fingerprint);
+            out.writeInt(this.entries.size());
+            for (Map.Entry<String, UUID[]> entry : this.entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeByte(entry.getValue().length);
+                for (UUID uuid : entry.getValue()) {
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads an index written by {@link #save(Path, String)}.
+     *
+     * @param file        the file to read
+     * @param fingerprint identifies the data the index must have been built from
+     * @return the index, or null if the file is missing, unreadable or was built from other data
+     */
+    public static IdentifierIndex load(Path file, String fingerprint) {
+        if (fingerprint == null || !Files.isReadable(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !fingerprint.equals(in.readUTF())) {
+                log.info("Identifier index {} is stale", file);
+                return null;
+            }
+            int size = in.readInt();
+            Map<String, UUID[]> entries = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+            for (int i = 0; i < size; i++) {
+                String identifier = in.readUTF();
+                UUID[] uuids = new UUID[in.readUnsignedByte()];
+                for (int j = 0; j < uuids.length; j++) {
+                    uuids[j] = new UUID(in.readLong(), in.readLong());
+                }
+                entries.put(identifier, uuids);
+            }
+            return new IdentifierIndex(entries);
+        } catch (IOException e) {
+            log.warn("Unable to read identifier index {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
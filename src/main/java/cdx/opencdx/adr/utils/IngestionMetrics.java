@@ -0,0 +1,229 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.model.AnfStatementModel;
+import cdx.opencdx.adr.service.OpenCDXANFProcessor;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * The IngestionMetrics class records the Micrometer timers and counters of the ANF ingestion path, so the cost of
+ * every stage (parsing, concept lookups, IKM calls, range synchronization, saves and each processor) can be seen
+ * separately on the Prometheus endpoint.
+ * <p>
+ * Meters:
+ * <ul>
+ *     <li>{@value #STAGE} - timer, tagged with {@code stage}</li>
+ *     <li>{@value #PROCESSOR} - timer, tagged with {@code phase} (pre/post), {@code processor} and
+ *     {@code circumstance}</li>
+ *     <li>{@value #CONCEPT} - timer of concept resolution, tagged with {@code outcome} (found/created)</li>
+ *     <li>{@value #STATEMENTS} - counter, tagged with {@code outcome} (stored/duplicate/failed) and
+ *     {@code circumstance}</li>
+ *     <li>{@value #QUEUE_DEPTH} - gauge of each asynchronous ingestion queue, tagged with {@code stage}</li>
+ *     <li>{@code cache.*} - hits, misses, size and evictions of the ingestion caches, tagged with {@code cache}</li>
+ * </ul>
+ */
+@Component
+public class IngestionMetrics {
+
+    /**
+     * Timer of the individual ingestion stages.
+     */
+    public static final String STAGE = "adr.ingest.stage";
+
+    /**
+     * Timer of the pre and post processors.
+     */
+    public static final String PROCESSOR = "adr.ingest.processor";
+
+    /**
+     * Timer of concept resolution.
+     */
+    public static final String CONCEPT = "adr.ingest.concept";
+
+    /**
+     * Counter of ingested statements.
+     */
+    public static final String STATEMENTS = "adr.ingest.statements";
+
+    /**
+     * Gauge of the number of statements waiting in an asynchronous ingestion queue.
+     */
+    public static final String QUEUE_DEPTH = "adr.ingest.queue.depth";
+
+    /**
+     * The registry the meters are recorded in.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Creates the IngestionMetrics.
+     *
+     * @param registry the registry the meters are recorded in
+     */
+    public IngestionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a stage returning a value.
+     *
+     * @param stage the name of the stage
+     * @param work  the work of the stage
+     * @param <T>   the type returned by the stage
+     * @return the value returned by the work
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        return this.stageTimer(stage).record(work);
+    }
+
+    /**
+     * Times a stage without a result.
+     *
+     * @param stage the name of the stage
+     * @param work  the work of the stage
+     */
+    public void time(String stage, Runnable work) {
+        this.stageTimer(stage).record(work);
+    }
+
+    /**
+     * Starts timing work that cannot be passed as a lambda, for example because it throws a checked exception.
+     *
+     * @return the sample to stop with {@link #stop(Timer.Sample, String)}
+     */
+    public Timer.Sample start() {
+        return Timer.start(this.registry);
+    }
+
+    /**
+     * Stops a sample started with {@link #start()} and records it for the stage.
+     *
+     * @param sample the sample
+     * @param stage  the name of the stage
+     */
+    public void stop(Timer.Sample sample, String stage) {
+        sample.stop(this.stageTimer(stage));
+    }
+
+    /**
+     * Stops a sample started with {@link #start()} and records it as a concept resolution.
+     *
+     * @param sample  the sample
+     * @param created true if the concept was not stored yet and had to be created
+     */
+    public void stopConceptLookup(Timer.Sample sample, boolean created) {
+        sample.stop(Timer.builder(CONCEPT)
+                .description("Resolution of a concept to its stored model")
+                .tag("outcome", created ? "created" : "found")
+                .register(this.registry));
+    }
+
+    /**
+     * Runs a processor on a model and times it.
+     *
+     * @param phase     pre or post
+     * @param processor the processor
+     * @param model     the model to process
+     */
+    public void process(String phase, OpenCDXANFProcessor processor, AnfStatementModel model) {
+        Timer.builder(PROCESSOR)
+                .description("Time spent in an ANF processor")
+                .tag("phase", phase)
+                .tag("processor", processor.getClass().getSimpleName())
+                .tag("circumstance", circumstance(model))
+                .register(this.registry)
+                .record(() -> processor.processAnfStatement(model));
+    }
+
+    /**
+     * Counts an ingested statement.
+     *
+     * @param outcome      stored, duplicate or failed
+     * @param anfStatement the statement
+     */
+    public void count(String outcome, ANFStatement anfStatement) {
+        Counter.builder(STATEMENTS)
+                .description("ANF statements submitted for ingestion")
+                .tag("outcome", outcome)
+                .tag("circumstance", circumstance(anfStatement))
+                .register(this.registry)
+                .increment();
+    }
+
+    /**
+     * Registers a gauge reporting the size of an asynchronous ingestion queue.
+     *
+     * @param stage the name of the stage owning the queue
+     * @param queue the queue
+     */
+    public void gaugeQueue(String stage, Collection<?> queue) {
+        Gauge.builder(QUEUE_DEPTH, queue, Collection::size)
+                .description("ANF statements waiting in an asynchronous ingestion queue")
+                .tag("stage", stage)
+                .register(this.registry);
+    }
+
+    /**
+     * Publishes the hit, miss, size and eviction metrics of a Caffeine cache built with {@code recordStats()}.
+     *
+     * @param name  the name of the cache
+     * @param cache the cache
+     */
+    public void monitorCache(String name, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(this.registry, cache, "adr." + name);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder(STAGE)
+                .description("Time spent in an ANF ingestion stage")
+                .tag("stage", stage)
+                .register(this.registry);
+    }
+
+    /**
+     * Returns the circumstance type of a statement: performance, request, narrative or none.
+     *
+     * @param anfStatement the statement
+     * @return the circumstance type
+     */
+    public static String circumstance(ANFStatement anfStatement) {
+        if (anfStatement.hasPerformanceCircumstance()) {
+            return "performance";
+        }
+        if (anfStatement.hasRequestCircumstance()) {
+            return "request";
+        }
+        if (anfStatement.hasNarrativeCircumstance()) {
+            return "narrative";
+        }
+        return "none";
+    }
+
+    /**
+     * Returns the circumstance type of a model: performance, request, narrative or none.
+     *
+     * @param model the model
+     * @return the circumstance type
+     */
+    public static String circumstance(AnfStatementModel model) {
+        if (model.getPerformanceCircumstance() != null) {
+            return "performance";
+        }
+        if (model.getRequestCircumstance() != null) {
+            return "request";
+        }
+        if (model.getNarrativeCircumstance() != null) {
+            return "narrative";
+        }
+        return "none";
+    }
+}
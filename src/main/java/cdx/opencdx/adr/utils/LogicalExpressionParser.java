@@ -0,0 +1,154 @@
+package cdx.opencdx.adr.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.UUID;
+
+/**
+ * The LogicalExpressionParser class classifies the expression of a LogicalExpression, so concept resolution can go
+ * straight to the matching lookup: a concept UUID, or any other expression, looked up by description.  The
+ * {@code expressionValue} of a JSON encoded expression classifies and names it; concepts are still stored and looked up
+ * by the full expression.  UUID detection scans the characters without regular expressions or intermediate strings.
+ */
+public final class LogicalExpressionParser {
+
+    /**
+     * Length of a UUID in its canonical 8-4-4-4-12 form.
+     */
+    private static final int UUID_LENGTH = 36;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LogicalExpressionParser() {
+    }
+
+    /**
+     * The kind of an expression, deciding how its concept is looked up.
+     */
+    public enum Kind {
+        /**
+         * No expression, there is no concept to look up.
+         */
+        EMPTY,
+        /**
+         * The expression contains a concept UUID.
+         */
+        UUID,
+        /**
+         * Any other expression, looked up by description.
+         */
+        TEXT
+    }
+
+    /**
+     * A classified expression.
+     *
+     * @param kind        the kind of the expression
+     * @param value       the value of the expression: the expression itself, or the expressionValue of a JSON
+     *                    expression
+     * @param uuid        the concept UUID for {@link Kind#UUID}, otherwise null
+     * @param description the expressionDescription of a JSON expression, otherwise null
+     */
+    public record ParsedExpression(Kind kind, String value, UUID uuid, String description) {
+    }
+
+    /**
+     * Classifies an expression.
+     *
+     * @param expression the expression of a LogicalExpression
+     * @return the classified expression
+     */
+    public static ParsedExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return new ParsedExpression(Kind.EMPTY, expression, null, null);
+        }
+        if (expression.charAt(0) == '{' && expression.contains("\"expressionValue\"")) {
+            ParsedExpression parsed = parseJson(expression);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return classify(expression, null);
+    }
+
+    private static ParsedExpression classify(String value, String description) {
+        UUID uuid = findUuid(value);
+        if (uuid != null) {
+            return new ParsedExpression(Kind.UUID, value, uuid, description);
+        }
+        return new ParsedExpression(Kind.TEXT, value, null, description);
+    }
+
+    /**
+     * Parses a JSON expression such as
+     * {@code {"expressionType":"simple","expressionValue":"performed","expressionDescription":"..."}}.
+     *
+     * @return the classified expressionValue, or null if the expression is not valid JSON with an expressionValue
+     */
+    private static ParsedExpression parseJson(String expression) {
+        try {
+            JsonNode node = MAPPER.readTree(expression);
+            JsonNode value = node.get("expressionValue");
+            if (value == null || !value.isValueNode() || value.asText().isBlank()) {
+                return null;
+            }
+            JsonNode description = node.get("expressionDescription");
+            return classify(value.asText(), description != null && description.isValueNode() ? description.asText() : null);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the first UUID in the 8-4-4-4-12 hexadecimal form within the value.
+     *
+     * @param value the value to search
+     * @return the UUID, or null if the value contains none
+     */
+    public static UUID findUuid(String value) {
+        for (int start = 0; start + UUID_LENGTH <= value.length(); start++) {
+            if (isUuidAt(value, start)) {
+                return new UUID(hex(value, start, start + 8) << 32 | hex(value, start + 9, start + 13) << 16 | hex(value, start + 14, start + 18),
+                        hex(value, start + 19, start + 23) << 48 | hex(value, start + 24, start + 36));
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUuidAt(String value, int start) {
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = value.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexDigit(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | hexDigit(value.charAt(i));
+        }
+        return result;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,140 @@
+package cdx.opencdx.adr.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a UTF-8 text file through memory mapped regions, keeping track of the byte offset of each line
+ * so a reader can be reopened at any line boundary.  Only one region of the file is mapped at a time, so files larger
+ * than memory (or than 2 GB) can be read.  Blank lines are skipped and a trailing carriage return is removed.
+ */
+public class MappedLineReader implements Closeable {
+
+    /**
+     * Default size of a mapped region.
+     */
+    private static final int REGION_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private int regionSize = REGION_SIZE;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long position;
+    private long lineOffset;
+
+    /**
+     * Opens the file for reading, starting at the given byte offset.
+     *
+     * @param file   the file to read
+     * @param offset the byte offset of the first line to read, 0 or a value returned by {@link #position()}
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedLineReader(Path file, long offset) throws IOException {
+        this(file, offset, REGION_SIZE);
+    }
+
+    /**
+     * Opens the file for reading with the given initial region size, so tests can have lines span regions.
+     *
+     * @param file       the file to read
+     * @param offset     the byte offset of the first line to read
+     * @param regionSize the initial size of a mapped region
+     * @throws IOException if the file cannot be opened
+     */
+    MappedLineReader(Path file, long offset, int regionSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = this.channel.size();
+        this.position = Math.min(offset, this.size);
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Reads the next non-blank line.
+     *
+     * @return the line without its line terminator, or null at the end of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    public String readLine() throws IOException {
+        while (this.position < this.size) {
+            long start = this.position;
+            String line = this.readLineAt(start);
+            if (!line.isBlank()) {
+                this.lineOffset = start;
+                return line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the byte offset of the line last returned by {@link #readLine()}
+     */
+    public long lineOffset() {
+        return this.lineOffset;
+    }
+
+    /**
+     * @return the byte offset just past the line last returned by {@link #readLine()}
+     */
+    public long position() {
+        return this.position;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long size() {
+        return this.size;
+    }
+
+    private String readLineAt(long start) throws IOException {
+        while (true) {
+            if (this.buffer == null || start < this.bufferStart || start >= this.bufferStart + this.buffer.limit()) {
+                this.map(start);
+            }
+            int from = (int) (start - this.bufferStart);
+            int limit = this.buffer.limit();
+            for (int i = from; i < limit; i++) {
+                if (this.buffer.get(i) == '\n') {
+                    this.position = this.bufferStart + i + 1;
+                    return this.decode(from, i);
+                }
+            }
+            if (this.bufferStart + limit == this.size) {
+                this.position = this.size;
+                return this.decode(from, limit);
+            }
+            // The line runs past the mapped region: remap from its start, growing the region if it already started there
+            if (this.bufferStart == start) {
+                this.regionSize = (int) Math.min(Integer.MAX_VALUE, (long) this.regionSize * 2);
+            }
+            this.map(start);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        this.bufferStart = start;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(this.regionSize, this.size - start));
+    }
+
+    private String decode(int from, int to) {
+        if (to > from && this.buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        byte[] bytes = new byte[to - from];
+        this.buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.buffer = null;
+        this.channel.close();
+    }
+}
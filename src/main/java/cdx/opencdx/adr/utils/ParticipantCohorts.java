@@ -0,0 +1,100 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.model.AnfStatementModel;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The ParticipantCohorts class numbers the participants seen while processing one query densely from 0, so the
+ * cohort of participants matched by each part of the query is a compressed bitmap, and AND and OR joins of the parts
+ * are bitwise operations on them.  An instance is not thread safe and lives as long as the query.
+ */
+public class ParticipantCohorts {
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+
+    private final List<UUID> participants = new ArrayList<>();
+
+    /**
+     * The ordinal of the subject of each statement read on another thread, so it is not loaded again.
+     */
+    private final Map<Long, Integer> statements = new HashMap<>();
+
+    /**
+     * Returns the ordinal of a participant, numbering it if it has not been seen yet.
+     *
+     * @param participant the participant id
+     * @return the ordinal of the participant
+     */
+    public int ordinalOf(UUID participant) {
+        Integer ordinal = this.ordinals.get(participant);
+        if (ordinal == null) {
+            ordinal = this.participants.size();
+            this.ordinals.put(participant, ordinal);
+            this.participants.add(participant);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Records the subject of record of a statement.
+     *
+     * @param statementId the statement id
+     * @param participant the participant id of its subject
+     */
+    public void assign(Long statementId, UUID participant) {
+        this.statements.put(statementId, this.ordinalOf(participant));
+    }
+
+    /**
+     * Returns the cohort of the subjects of record of the given statements.
+     *
+     * @param statements the statements
+     * @return the bitmap of the ordinals of their subjects
+     */
+    public RoaringBitmap cohortOf(List<AnfStatementModel> statements) {
+        RoaringBitmap cohort = new RoaringBitmap();
+        for (AnfStatementModel statement : statements) {
+            cohort.add(this.ordinalOf(statement));
+        }
+        cohort.runOptimize();
+        return cohort;
+    }
+
+    /**
+     * Checks whether the subject of record of a statement is in a cohort.
+     *
+     * @param cohort    the cohort
+     * @param statement the statement
+     * @return true if the subject is in the cohort
+     */
+    public boolean contains(RoaringBitmap cohort, AnfStatementModel statement) {
+        return cohort.contains(this.ordinalOf(statement));
+    }
+
+    private int ordinalOf(AnfStatementModel statement) {
+        Integer ordinal = statement.getId() != null ? this.statements.get(statement.getId()) : null;
+        return ordinal != null ? ordinal : this.ordinalOf(statement.getSubjectOfRecord().getPartId());
+    }
+
+    /**
+     * Returns the participant ids of a cohort, in the order they were first seen.
+     *
+     * @param cohort the cohort
+     * @return the participant ids
+     */
+    public List<UUID> participantsOf(RoaringBitmap cohort) {
+        List<UUID> result = new ArrayList<>(cohort.getCardinality());
+        IntIterator ordinals = cohort.getIntIterator();
+        while (ordinals.hasNext()) {
+            result.add(this.participants.get(ordinals.next()));
+        }
+        return result;
+    }
+}
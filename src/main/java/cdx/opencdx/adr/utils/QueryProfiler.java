@@ -0,0 +1,350 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.dto.JoinOperation;
+import cdx.opencdx.adr.dto.Query;
+import cdx.opencdx.adr.dto.QueryProfile;
+import cdx.opencdx.adr.dto.QueryProfileNode;
+import cdx.opencdx.adr.dto.QueryProfileStage;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The QueryProfiler class collects the evaluated tree of one ADR query, with the rows, participants, SQL statements and
+ * wall time of every node, and the time of each stage.  The disabled profiler records nothing, so the query service
+ * calls it unconditionally.  A profiler belongs to one thread; queries evaluated on other threads get their own
+ * profiler, merged into this one afterwards.
+ */
+public class QueryProfiler {
+
+    private static final QueryProfiler DISABLED = new QueryProfiler(null);
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final SqlStatementCounter counter;
+
+    private final SqlStatementCounter.Recording recording;
+
+    private final long started;
+
+    /**
+     * The node of each query.
+     */
+    private final Map<Query, Node> nodes = new IdentityHashMap<>();
+
+    /**
+     * The node whose results each query holds.  After a join this is the join, for the right hand query.
+     */
+    private final Map<Query, Node> results = new IdentityHashMap<>();
+
+    private final Map<String, Totals> stages = new LinkedHashMap<>();
+
+    private Totals total;
+
+    /**
+     * SQL statements of the queries evaluated on other threads and merged into this profile.
+     */
+    private long mergedStatements;
+
+    private final Map<String, Long> mergedSql = new LinkedHashMap<>();
+
+    private QueryProfiler(SqlStatementCounter counter) {
+        this.counter = counter;
+        this.recording = counter != null ? counter.start() : null;
+        this.started = System.nanoTime();
+    }
+
+    /**
+     * Starts profiling a query on the current thread.
+     *
+     * @param counter counts the SQL statements of the thread
+     * @return the profiler
+     */
+    public static QueryProfiler start(SqlStatementCounter counter) {
+        return new QueryProfiler(counter);
+    }
+
+    /**
+     * Returns the profiler that records nothing.
+     *
+     * @return the disabled profiler
+     */
+    public static QueryProfiler disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Checks whether the profiler records.
+     *
+     * @return true if the query is profiled
+     */
+    public boolean isEnabled() {
+        return this.recording != null;
+    }
+
+    /**
+     * Marks the current time and SQL statement count.
+     *
+     * @return the mark, or null if the profiler is disabled
+     */
+    public Mark mark() {
+        return this.isEnabled() ? new Mark(System.nanoTime(), this.statements()) : null;
+    }
+
+    /**
+     * Adds the time and statements since a mark to a stage.
+     *
+     * @param name  the name of the stage
+     * @param since the mark the stage started at
+     */
+    public void stage(String name, Mark since) {
+        if (this.isEnabled()) {
+            this.stages.computeIfAbsent(name, key -> new Totals()).add(this.since(since));
+        }
+    }
+
+    /**
+     * Starts the node of a query.
+     *
+     * @param query the query about to run
+     */
+    public void begin(Query query) {
+        if (this.isEnabled()) {
+            Node node = new Node(operationOf(query), describe(query), this.mark());
+            this.nodes.put(query, node);
+            this.results.put(query, node);
+        }
+    }
+
+    /**
+     * Records the number of statements fetched for a query before its comparison.
+     *
+     * @param query the query
+     * @param rows  the number of statements
+     */
+    public void fetched(Query query, int rows) {
+        Node node = this.nodes.get(query);
+        if (node != null) {
+            node.builder.rowsFetched(rows);
+        }
+    }
+
+    /**
+     * Records that the comparison of a query ran in the database.
+     *
+     * @param query the query
+     */
+    public void compiled(Query query) {
+        Node node = this.nodes.get(query);
+        if (node != null) {
+            node.builder.compiled(true);
+        }
+    }
+
+    /**
+     * Records the number of concepts the focus of a query expands to.
+     *
+     * @param query         the query
+     * @param focusConcepts the number of concepts
+     */
+    public void focusConcepts(Query query, int focusConcepts) {
+        Node node = this.nodes.get(query);
+        if (node != null) {
+            node.builder.focusConcepts(focusConcepts);
+        }
+    }
+
+    /**
+     * Ends the node of a query once its statements and participants are set.
+     *
+     * @param query the query
+     */
+    public void end(Query query) {
+        Node node = this.nodes.get(query);
+        if (node == null) {
+            return;
+        }
+        if (query.getGroup() != null && !query.getGroup().isEmpty()) {
+            node.children.add(this.results.get(query.getGroup().getLast()));
+        }
+        node.end(query, this.since(node.start));
+    }
+
+    /**
+     * Records the join of two queries, once its results are set on the right hand query.
+     *
+     * @param joinOperation the join operation
+     * @param left          the left hand query
+     * @param right         the right hand query, holding the results of the join
+     * @param since         the mark the join started at
+     */
+    public void join(JoinOperation joinOperation, Query left, Query right, Mark since) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        Totals elapsed = this.since(since);
+        this.stages.computeIfAbsent("join", key -> new Totals()).add(elapsed);
+
+        Node node = new Node(joinOperation.name(), null, since);
+        node.children.add(this.results.get(left));
+        node.children.add(this.results.get(right));
+        node.end(right, elapsed);
+        this.results.put(right, node);
+    }
+
+    /**
+     * Adds the nodes and SQL statements of a query evaluated on another thread with its own profiler.  Its time is
+     * part of the node of the query rather than of a stage, as it overlaps the other queries.
+     *
+     * @param other the finished profiler of the query
+     */
+    public void merge(QueryProfiler other) {
+        if (!this.isEnabled() || !other.isEnabled()) {
+            return;
+        }
+        other.finish();
+        this.nodes.putAll(other.nodes);
+        this.results.putAll(other.results);
+        this.mergedStatements += other.total.statements;
+        other.sql().forEach((sql, count) -> this.mergedSql.merge(sql, count, Long::sum));
+    }
+
+    /**
+     * Stops recording SQL statements.  Work done afterwards is not part of the profile.
+     */
+    public void finish() {
+        if (this.isEnabled() && this.total == null) {
+            this.total = new Totals();
+            this.total.nanos = System.nanoTime() - this.started;
+            this.total.statements = this.statements();
+            this.counter.stop();
+        }
+    }
+
+    /**
+     * Builds the profile of a finished query.
+     *
+     * @param queries the top level queries
+     * @return the profile, or null if the profiler is disabled
+     */
+    public QueryProfile profile(List<Query> queries) {
+        if (!this.isEnabled()) {
+            return null;
+        }
+        this.finish();
+        // The query stage is measured around the whole evaluation, which includes the joins
+        Totals query = this.stages.get("query");
+        Totals join = this.stages.get("join");
+        if (query != null && join != null) {
+            query.nanos -= join.nanos;
+            query.statements -= join.statements;
+        }
+        List<QueryProfileStage> stageList = new ArrayList<>();
+        this.stages.forEach((name, totals) -> stageList.add(QueryProfileStage.builder()
+                .name(name)
+                .millis(totals.nanos / NANOS_PER_MILLI)
+                .sqlStatements(totals.statements)
+                .build()));
+        Node plan = queries.isEmpty() ? null : this.results.get(queries.getLast());
+        return QueryProfile.builder()
+                .plan(plan != null ? plan.build() : null)
+                .stages(stageList)
+                .totalMillis(this.total.nanos / NANOS_PER_MILLI)
+                .sqlStatements(this.total.statements)
+                .sql(this.sql())
+                .build();
+    }
+
+    private Totals since(Mark mark) {
+        Totals totals = new Totals();
+        totals.nanos = System.nanoTime() - mark.nanos();
+        totals.statements = this.statements() - mark.statements();
+        return totals;
+    }
+
+    private long statements() {
+        return this.recording.count() + this.mergedStatements;
+    }
+
+    private Map<String, Long> sql() {
+        Map<String, Long> sql = this.recording.statements();
+        this.mergedSql.forEach((statement, count) -> sql.merge(statement, count, Long::sum));
+        return sql;
+    }
+
+    private static String operationOf(Query query) {
+        if (query.getConcept() != null && query.getConcept().getConceptId() != null) {
+            return "CONCEPT";
+        } else if (query.getGroup() != null) {
+            return "GROUP";
+        } else if (query.getFormula() != null) {
+            return "FORMULA";
+        }
+        return "EMPTY";
+    }
+
+    private static String describe(Query query) {
+        StringBuilder description = new StringBuilder();
+        if (query.getConcept() != null && query.getConcept().getConceptId() != null) {
+            description.append(query.getConcept().getConceptName() != null ? query.getConcept().getConceptName() : query.getConcept().getConceptId());
+            if (query.getConcept().getFocus() != null) {
+                description.append(" (").append(query.getConcept().getFocus()).append(')');
+            }
+        }
+        if (query.getOperation() != null) {
+            description.append(' ').append(query.getOperation()).append(' ');
+            description.append(query.getOperationDouble() != null ? query.getOperationDouble() : "'" + query.getOperationText() + "'");
+            if (query.getOperationUnit() != null && query.getOperationUnit().getConceptId() != null) {
+                description.append(' ').append(query.getOperationUnit().getConceptName() != null ? query.getOperationUnit().getConceptName() : query.getOperationUnit().getConceptId());
+            }
+        }
+        return description.isEmpty() ? null : description.toString().trim();
+    }
+
+    /**
+     * A point in time and in the SQL statement count.
+     *
+     * @param nanos      the time, from {@link System#nanoTime()}
+     * @param statements the number of statements recorded
+     */
+    public record Mark(long nanos, long statements) {
+    }
+
+    private static class Totals {
+        private long nanos;
+        private long statements;
+
+        private void add(Totals other) {
+            this.nanos += other.nanos;
+            this.statements += other.statements;
+        }
+    }
+
+    /**
+     * A node being evaluated.
+     */
+    private static class Node {
+        private final QueryProfileNode.QueryProfileNodeBuilder builder = QueryProfileNode.builder();
+        private final List<Node> children = new ArrayList<>();
+        private final Mark start;
+
+        private Node(String operation, String description, Mark start) {
+            this.builder.operation(operation).description(description);
+            this.start = start;
+        }
+
+        private void end(Query query, Totals elapsed) {
+            this.builder.rowsMatched(query.getAnfStatements() != null ? query.getAnfStatements().size() : null)
+                    .participants(query.getParticipants() != null ? query.getParticipants().getCardinality() : null)
+                    .sqlStatements(elapsed.statements)
+                    .millis(elapsed.nanos / NANOS_PER_MILLI);
+        }
+
+        private QueryProfileNode build() {
+            return this.builder.children(this.children.stream().map(Node::build).toList()).build();
+        }
+    }
+}
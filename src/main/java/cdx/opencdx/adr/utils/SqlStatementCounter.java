@@ -0,0 +1,82 @@
+package cdx.opencdx.adr.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SqlStatementCounter class counts the SQL statements Hibernate prepares on a thread while a recording is active on
+ * it, for query profiles.  Threads without a recording pay one thread local lookup per statement.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    /**
+     * Number of distinct statements a recording keeps the text of.
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 50;
+
+    private final transient ThreadLocal<Recording> recordings = new ThreadLocal<>();
+
+    /**
+     * Starts recording the statements of the current thread.
+     *
+     * @return the recording
+     */
+    public Recording start() {
+        Recording recording = new Recording();
+        this.recordings.set(recording);
+        return recording;
+    }
+
+    /**
+     * Stops recording the statements of the current thread.
+     */
+    public void stop() {
+        this.recordings.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Recording recording = this.recordings.get();
+        if (recording != null) {
+            recording.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * The statements recorded on a thread.
+     */
+    public static class Recording {
+
+        private long count;
+
+        private final Map<String, Long> statements = new LinkedHashMap<>();
+
+        private void add(String sql) {
+            this.count++;
+            if (this.statements.size() < MAX_DISTINCT_STATEMENTS || this.statements.containsKey(sql)) {
+                this.statements.merge(sql, 1L, Long::sum);
+            }
+        }
+
+        /**
+         * Returns the number of statements recorded so far.
+         *
+         * @return the number of statements
+         */
+        public long count() {
+            return this.count;
+        }
+
+        /**
+         * Returns the distinct statements recorded, with how often each ran.
+         *
+         * @return the statements, in the order they first ran
+         */
+        public Map<String, Long> statements() {
+            return new LinkedHashMap<>(this.statements);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package cdx.opencdx.adr.controller;
 
+import cdx.opencdx.adr.dto.BatchResult;
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,10 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -26,6 +34,12 @@ class AnfControllerTest {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OpenCDXAdrService openCDXAdrService;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -134,9 +148,132 @@ class AnfControllerTest {
                                               }
                                 """)
                         .contentType(MediaType.APPLICATION_JSON_VALUE))
-                .andExpect(status().isOk())
+                .andExpect(status().isBadRequest())
                 .andReturn();
+        // The ids of the template are placeholders, not UUIDs
         String content = result.getResponse().getContentAsString();
-        Assertions.assertEquals("0", content);
+        Assertions.assertTrue(this.objectMapper.readTree(content).path("error").asText().contains("UUID"), content);
+    }
+
+    @Test
+    void anfStoredTest() throws Exception {
+        UUID anfid = UUID.randomUUID();
+        MvcResult result = this.mockMvc
+                .perform(post("/anf")
+                        .content(BATCH_STATEMENT.formatted(anfid))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(this.openCDXAdrService.findAnfStatementId(anfid), Long.valueOf(result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void malformedProtobufTest() throws Exception {
+        // A string field declaring 5 bytes followed by 1
+        for (String url : new String[]{"/anf", "/anf/batch"}) {
+            MvcResult result = this.mockMvc
+                    .perform(post(url)
+                            .content(new byte[]{0x0A, 0x05, 'a'})
+                            .contentType(AnfController.PROTOBUF_VALUE))
+                    .andExpect(status().isBadRequest())
+                    .andReturn();
+            assertTrue(this.objectMapper.readTree(result.getResponse().getContentAsString()).hasNonNull("error"), url);
+        }
+    }
+
+    private static final String BATCH_STATEMENT = """
+            {"id":"%s","subjectOfRecord":{"id":"0df076fd-ed02-44bd-a311-b5764c53258c"},"topic":{"expression":"batch topic"},"type":{"expression":"PERFORMANCE"}}""";
+
+    @Test
+    void batchJsonArrayTest() throws Exception {
+        List<UUID> anfids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        MvcResult result = this.mockMvc
+                .perform(post("/anf/batch")
+                        .content("[" + BATCH_STATEMENT.formatted(anfids.get(0)) + "," + BATCH_STATEMENT.formatted(anfids.get(1)) + "]")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+        this.assertStored(result, anfids);
+    }
+
+    @Test
+    void batchNdjsonTest() throws Exception {
+        List<UUID> anfids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        MvcResult result = this.mockMvc
+                .perform(post("/anf/batch")
+                        .content(BATCH_STATEMENT.formatted(anfids.get(0)) + "\n\n" + BATCH_STATEMENT.formatted(anfids.get(1)) + "\n")
+                        .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+        this.assertStored(result, anfids);
+    }
+
+    @Test
+    void batchWithBadElementsTest() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+        String unbound = "{\"id\":\"%s\",\"topic\":5,\"type\":{\"expression\":\"PERFORMANCE\"}}".formatted(UUID.randomUUID());
+        String notStored = BATCH_STATEMENT.formatted("not a UUID");
+        MvcResult result = this.mockMvc
+                .perform(post("/anf/batch")
+                        .content("[" + BATCH_STATEMENT.formatted(first) + "," + unbound + "," + notStored + "," + BATCH_STATEMENT.formatted(last) + "]")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BatchResult> results = this.results(result);
+        assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        // The element that cannot be bound and the one that cannot be stored fail alone
+        for (int i : new int[]{1, 2}) {
+            assertNull(results.get(i).getId(), String.valueOf(i));
+            assertNotNull(results.get(i).getError(), String.valueOf(i));
+        }
+        assertNull(results.get(0).getError());
+        assertEquals(this.openCDXAdrService.findAnfStatementId(first), results.get(0).getId());
+        assertNull(results.get(3).getError());
+        assertEquals(this.openCDXAdrService.findAnfStatementId(last), results.get(3).getId());
+    }
+
+    @Test
+    void batchMalformedTest() throws Exception {
+        for (String body : new String[]{"", "{}", "[" + BATCH_STATEMENT.formatted(UUID.randomUUID()), "[{\"id\":"}) {
+            MvcResult result = this.mockMvc
+                    .perform(post("/anf/batch")
+                            .content(body)
+                            .contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(status().isBadRequest())
+                    .andReturn();
+            assertTrue(this.objectMapper.readTree(result.getResponse().getContentAsString()).hasNonNull("error"), body);
+        }
+    }
+
+    /**
+     * Asserts that each statement was stored, in order, under the id returned for it.
+     */
+    private void assertStored(MvcResult result, List<UUID> anfids) throws Exception {
+        List<BatchResult> results = this.results(result);
+        assertEquals(anfids.size(), results.size());
+        for (int i = 0; i < anfids.size(); i++) {
+            BatchResult batchResult = results.get(i);
+            assertEquals(i, batchResult.getIndex());
+            assertNull(batchResult.getError(), batchResult.getError());
+            assertNotNull(batchResult.getId());
+            assertEquals(this.openCDXAdrService.findAnfStatementId(anfids.get(i)), batchResult.getId());
+        }
+    }
+
+    private List<BatchResult> results(MvcResult result) throws Exception {
+        List<BatchResult> results = new ArrayList<>();
+        for (JsonNode node : this.objectMapper.readTree(result.getResponse().getContentAsString())) {
+            results.add(BatchResult.builder()
+                    .index(node.path("index").asInt())
+                    .id(node.hasNonNull("id") ? node.get("id").asLong() : null)
+                    .error(node.hasNonNull("error") ? node.get("error").asText() : null)
+                    .build());
+        }
+        return results;
     }
-}
\ No newline at end of file
+}
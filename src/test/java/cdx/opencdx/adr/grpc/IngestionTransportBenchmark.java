@@ -0,0 +1,149 @@
+package cdx.opencdx.adr.grpc;
+
+import cdx.opencdx.adr.service.OpenCDXAdrService;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Struct;
+import io.grpc.CallOptions;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares storing the same number of statements as JSON through {@code POST /anf/batch} with streaming them as binary
+ * protobuf through the gRPC Ingest method, both over the loopback interface.  Run it with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IngestionTransportBenchmark {
+
+    private static final int STATEMENTS_PER_RUN = 5000;
+
+    private static final String STATEMENT = """
+            {"id":"%s","subjectOfRecord":{"id":"%s"},"topic":{"expression":"transport topic %d"},"type":{"expression":"PERFORMANCE"},
+            "performanceCircumstance":{"status":{"expression":"transport status %d"},"purpose":[{"expression":"transport purpose %d"}]}}""";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OpenCDXAdrService openCDXAdrService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${data.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Test
+    void restBatchVersusGrpcStream() throws Exception {
+        Server server = Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+                .addService(new AnfGrpcService(this.openCDXAdrService, this.batchSize))
+                .build()
+                .start();
+        ManagedChannel channel = Grpc.newChannelBuilderForAddress("localhost", server.getPort(), InsecureChannelCredentials.create()).build();
+        HttpClient http = HttpClient.newHttpClient();
+        try {
+            // Warm up both paths, so neither run pays for creating the shared concepts
+            this.rest(http, this.statements(this.batchSize));
+            this.grpc(channel, this.statements(this.batchSize));
+
+            List<ANFStatement> restStatements = this.statements(STATEMENTS_PER_RUN);
+            long started = System.nanoTime();
+            this.rest(http, restStatements);
+            this.report("REST batch (JSON)", restStatements.size(), System.nanoTime() - started);
+
+            List<ANFStatement> grpcStatements = this.statements(STATEMENTS_PER_RUN);
+            started = System.nanoTime();
+            this.grpc(channel, grpcStatements);
+            this.report("gRPC stream (protobuf)", grpcStatements.size(), System.nanoTime() - started);
+        } finally {
+            channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Posts the statements as JSON arrays of the ingestion batch size, as a REST client would.
+     */
+    private void rest(HttpClient http, List<ANFStatement> statements) throws Exception {
+        for (int from = 0; from < statements.size(); from += this.batchSize) {
+            String body = this.objectMapper.writeValueAsString(statements.subList(from, Math.min(from + this.batchSize, statements.size())));
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + "/anf/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+        }
+    }
+
+    /**
+     * Streams the statements in one Ingest call and waits for its summary.
+     */
+    private void grpc(ManagedChannel channel, List<ANFStatement> statements) throws Exception {
+        CompletableFuture<Struct> summary = new CompletableFuture<>();
+        StreamObserver<ANFStatement> requests = ClientCalls.asyncClientStreamingCall(
+                channel.newCall(AnfGrpcService.INGEST_METHOD, CallOptions.DEFAULT), new StreamObserver<>() {
+                    @Override
+                    public void onNext(Struct value) {
+                        summary.complete(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        summary.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        summary.complete(Struct.getDefaultInstance());
+                    }
+                });
+        statements.forEach(requests::onNext);
+        requests.onCompleted();
+        assertEquals(statements.size(), (int) summary.get(10, TimeUnit.MINUTES).getFieldsOrThrow("stored").getNumberValue());
+    }
+
+    private void report(String transport, int count, long nanos) {
+        double seconds = nanos / 1e9;
+        log.info("{}: {} statements in {} s, {} statements/s", transport, count, String.format("%.2f", seconds),
+                String.format("%.0f", count / seconds));
+    }
+
+    private List<ANFStatement> statements(int count) throws Exception {
+        List<ANFStatement> statements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int concept = i % 200;
+            statements.add(this.objectMapper.readValue(STATEMENT.formatted(UUID.randomUUID(), UUID.randomUUID(), concept, concept, concept),
+                    ANFStatement.class));
+        }
+        return statements;
+    }
+}
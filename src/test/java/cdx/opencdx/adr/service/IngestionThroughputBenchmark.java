@@ -0,0 +1,123 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures statements stored per second at 1, 2, 4, 8 and 16 ingesting threads.  The statements share a small set of
+ * concepts, so the threads race to create the same concepts.  Concurrent ingestion is also measured with the query
+ * result cache on and off, as every chunk records changes for the stripes of the concepts all statements share.  Run
+ * it with {@code ./gradlew benchmark}; pass {@code -Dspring.datasource.url=...} and the credentials to measure against
+ * Postgres instead of H2.
+ */
+@Slf4j
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class IngestionThroughputBenchmark {
+
+    private static final int STATEMENTS_PER_RUN = 4000;
+
+    private static final int CHUNK_SIZE = 50;
+
+    private static final int CONCEPTS = 200;
+
+    private static final String STATEMENT = """
+            {"id":"%s","subjectOfRecord":{"id":"%s"},"topic":{"expression":"benchmark topic %d"},"type":{"expression":"PERFORMANCE"},
+            "performanceCircumstance":{"status":{"expression":"benchmark status %d"},"purpose":[{"expression":"benchmark purpose %d"}]}}""";
+
+    @Autowired
+    private OpenCDXAdrService openCDXAdrService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Test
+    void statementsPerSecond() throws Exception {
+        // Warm up so the first run does not pay for concept creation alone
+        this.run(1, this.statements(STATEMENTS_PER_RUN / 4));
+
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            List<ANFStatement> statements = this.statements(STATEMENTS_PER_RUN);
+            long started = System.nanoTime();
+            this.run(threads, statements);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            log.info("{} threads: {} statements in {} s, {} statements/s", threads, statements.size(),
+                    String.format("%.2f", seconds), String.format("%.0f", statements.size() / seconds));
+        }
+    }
+
+    @Test
+    void statementsPerSecondWithQueryCache() throws Exception {
+        this.run(1, this.statements(STATEMENTS_PER_RUN / 4));
+
+        Object cache = AopTestUtils.getUltimateTargetObject(this.queryResultCacheService);
+        for (boolean enabled : new boolean[]{true, false, true}) {
+            ReflectionTestUtils.setField(cache, "enabled", enabled);
+            try {
+                List<ANFStatement> statements = this.statements(STATEMENTS_PER_RUN);
+                long started = System.nanoTime();
+                this.run(8, statements);
+                double seconds = (System.nanoTime() - started) / 1e9;
+                log.info("8 threads, query cache {}: {} statements in {} s, {} statements/s", enabled ? "on" : "off",
+                        statements.size(), String.format("%.2f", seconds), String.format("%.0f", statements.size() / seconds));
+            } finally {
+                ReflectionTestUtils.setField(cache, "enabled", true);
+            }
+        }
+    }
+
+    /**
+     * Stores the statements in chunks taken by the given number of threads, as concurrent batch requests would.
+     */
+    private void run(int threads, List<ANFStatement> statements) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int from = 0; from < statements.size(); from += CHUNK_SIZE) {
+                List<ANFStatement> chunk = statements.subList(from, Math.min(from + CHUNK_SIZE, statements.size()));
+                futures.add(executor.submit(() -> (int) this.openCDXAdrService.storeAnfStatements(chunk).stream()
+                        .filter(result -> result.getError() == null)
+                        .count()));
+            }
+            int stored = 0;
+            for (Future<Integer> future : futures) {
+                stored += future.get();
+            }
+            assertEquals(statements.size(), stored);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<ANFStatement> statements(int count) throws Exception {
+        List<ANFStatement> statements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int concept = i % CONCEPTS;
+            statements.add(this.objectMapper.readValue(STATEMENT.formatted(UUID.randomUUID(), UUID.randomUUID(), concept, concept, concept),
+                    ANFStatement.class));
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,211 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.ComparisonOperation;
+import cdx.opencdx.adr.dto.Query;
+import cdx.opencdx.adr.dto.UnitOutput;
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.grpc.data.ANFStatement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each query compiled and with {@code data.query.compile=false}, and checks that both report the same rows.  The
+ * statements of the measure topic hold a performance result or a requested result in Celsius or Fahrenheit, with
+ * both bounds or only one bound included; the statements of the text topic hold a narrative text.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class QueryCompilerServiceTest {
+
+    private static final UUID CELSIUS = UUID.fromString(OpenCDXIKMService.UNIT_CELSIUS);
+
+    private static final UUID FAHRENHEIT = UUID.fromString(OpenCDXIKMService.UNIT_FAHRENHEIT);
+
+    private static final String PERFORMANCE = """
+            {"id":"%s","subjectOfRecord":{"id":"%s"},"topic":{"expression":"%s"},"type":{"expression":"PERFORMANCE"},
+            "performanceCircumstance":{"result":%s}}""";
+
+    private static final String REQUEST = """
+            {"id":"%s","subjectOfRecord":{"id":"%s"},"topic":{"expression":"%s"},"type":{"expression":"REQUEST"},
+            "requestCircumstance":{"requestedResult":%s}}""";
+
+    private static final String NARRATIVE = """
+            {"id":"%s","subjectOfRecord":{"id":"%s"},"topic":{"expression":"%s"},"type":{"expression":"NARRATIVE"},
+            "narrativeCircumstance":{"text":"%s"}}""";
+
+    private static final String MEASURE = """
+            {"lowerBound":%s,"upperBound":%s,"includeLowerBound":%s,"includeUpperBound":%s,"semantic":{"expression":"%s"}}""";
+
+    @Autowired
+    private OpenCDXAdrService adrService;
+
+    @Autowired
+    private QueryCompilerService queryCompilerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID measureTopic;
+
+    private UUID textTopic;
+
+    @BeforeEach
+    void store() throws Exception {
+        this.measureTopic = UUID.randomUUID();
+        this.textTopic = UUID.randomUUID();
+        List<String> statements = List.of(
+                PERFORMANCE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.measureTopic, measure(36, 37, true, true, CELSIUS)),
+                PERFORMANCE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.measureTopic, measure(38, 39, true, false, CELSIUS)),
+                PERFORMANCE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.measureTopic, measure(35, 40, false, true, CELSIUS)),
+                PERFORMANCE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.measureTopic, measure(96.8, 100.4, true, true, FAHRENHEIT)),
+                REQUEST.formatted(UUID.randomUUID(), UUID.randomUUID(), this.measureTopic, measure(37, 37, true, true, CELSIUS)),
+                NARRATIVE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.textTopic, "positive"),
+                NARRATIVE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.textTopic, "negative"),
+                NARRATIVE.formatted(UUID.randomUUID(), UUID.randomUUID(), this.textTopic, "Positive"));
+        List<ANFStatement> anfStatements = new ArrayList<>();
+        for (String statement : statements) {
+            anfStatements.add(this.objectMapper.readValue(statement, ANFStatement.class));
+        }
+        this.adrService.storeAnfStatements(anfStatements).forEach(result -> assertNull(result.getError()));
+    }
+
+    @Test
+    void everyComparisonOperation() {
+        for (ComparisonOperation operation : ComparisonOperation.values()) {
+            for (double value : new double[]{36, 36.5, 37, 38, 38.5, 40, 99}) {
+                this.assertSameResults(operation + " " + value, () -> this.measureQuery(operation, value, null));
+            }
+        }
+    }
+
+    @Test
+    void convertedUnits() {
+        for (ComparisonOperation operation : ComparisonOperation.values()) {
+            for (double value : new double[]{35.5, 36.5, 37.5, 38.5, 39.5}) {
+                this.assertSameResults(operation + " " + value + " Celsius", () -> this.measureQuery(operation, value, CELSIUS));
+            }
+            for (double value : new double[]{96, 97.5, 99.5, 101}) {
+                this.assertSameResults(operation + " " + value + " Fahrenheit", () -> this.measureQuery(operation, value, FAHRENHEIT));
+            }
+        }
+    }
+
+    @Test
+    void oneBoundIncluded() {
+        // The measure including only its lower bound compares as 38, the one including only its upper bound as 40
+        assertEquals(1, this.compiledCount(this.measureQuery(ComparisonOperation.EQUAL, 38, null)));
+        assertEquals(1, this.compiledCount(this.measureQuery(ComparisonOperation.EQUAL, 40, null)));
+        assertEquals(1, this.compiledCount(this.measureQuery(ComparisonOperation.LESS_THAN, 36.5, null)));
+        assertEquals(2, this.compiledCount(this.measureQuery(ComparisonOperation.LESS_THAN, 36.5, CELSIUS)));
+        assertEquals(3, this.compiledCount(this.measureQuery(ComparisonOperation.LESS_THAN_OR_EQUAL, 37, CELSIUS)));
+        assertEquals(1, this.compiledCount(this.measureQuery(ComparisonOperation.GREATER_THAN, 38.5, CELSIUS)));
+        for (double value : new double[]{38, 39, 40}) {
+            this.assertSameResults("EQUAL " + value, () -> this.measureQuery(ComparisonOperation.EQUAL, value, null));
+            this.assertSameResults("NOT_EQUAL " + value, () -> this.measureQuery(ComparisonOperation.NOT_EQUAL, value, CELSIUS));
+        }
+    }
+
+    @Test
+    void narrativeText() {
+        for (String text : new String[]{"positive", "Positive", "unknown"}) {
+            this.assertSameResults("EQUAL " + text, () -> this.textQuery(ComparisonOperation.EQUAL, text));
+            this.assertSameResults("NOT_EQUAL " + text, () -> this.textQuery(ComparisonOperation.NOT_EQUAL, text));
+        }
+        assertEquals(1, this.compiledCount(this.textQuery(ComparisonOperation.EQUAL, "positive")));
+        assertEquals(2, this.compiledCount(this.textQuery(ComparisonOperation.NOT_EQUAL, "positive")));
+        assertFalse(this.queryCompilerService.supports(this.textQuery(ComparisonOperation.GREATER_THAN, "positive")));
+    }
+
+    /**
+     * Runs the query compiled and in memory.  Each run gets a new query, as running a query records its results on it.
+     */
+    private void assertSameResults(String message, Supplier<Query> query) {
+        assertTrue(this.queryCompilerService.supports(query.get()), message);
+        List<String> compiled = this.run(query.get());
+        List<String> inMemory;
+        Object target = AopTestUtils.getUltimateTargetObject(this.queryCompilerService);
+        ReflectionTestUtils.setField(target, "enabled", false);
+        try {
+            assertFalse(this.queryCompilerService.supports(query.get()), message);
+            inMemory = this.run(query.get());
+        } finally {
+            ReflectionTestUtils.setField(target, "enabled", true);
+        }
+        assertEquals(inMemory, compiled, message);
+    }
+
+    /**
+     * Runs the query as the query endpoint does, in one transaction so the statements can be read lazily.
+     */
+    private List<String> run(Query query) {
+        ADRQuery adrQuery = new ADRQuery();
+        adrQuery.setUnitOutput(UnitOutput.DEFAULT);
+        adrQuery.setQueries(List.of(query));
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        transaction.setReadOnly(true);
+        List<String> lines = new ArrayList<>(transaction.execute(status -> this.adrService.streamQuery(adrQuery)));
+        // The header stays first, the rows of the participants are compared in any order
+        lines.subList(1, lines.size()).sort(null);
+        return lines;
+    }
+
+    private int compiledCount(Query query) {
+        assertTrue(this.queryCompilerService.supports(query));
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> this.queryCompilerService.execute(query).size());
+    }
+
+    private Query measureQuery(ComparisonOperation operation, double value, UUID unit) {
+        Query query = this.query(this.measureTopic, operation);
+        query.setOperationDouble(value);
+        if (unit != null) {
+            TinkarConceptModel operationUnit = new TinkarConceptModel();
+            operationUnit.setConceptId(unit);
+            query.setOperationUnit(operationUnit);
+        }
+        return query;
+    }
+
+    private Query textQuery(ComparisonOperation operation, String text) {
+        Query query = this.query(this.textTopic, operation);
+        query.setOperationText(text);
+        return query;
+    }
+
+    private Query query(UUID topic, ComparisonOperation operation) {
+        TinkarConceptModel concept = new TinkarConceptModel();
+        concept.setConceptId(topic);
+        Query query = new Query();
+        query.setConcept(concept);
+        query.setOperation(operation);
+        return query;
+    }
+
+    private static String measure(double lower, double upper, boolean includeLower, boolean includeUpper, UUID unit) {
+        return MEASURE.formatted(lower, upper, includeLower, includeUpper, unit);
+    }
+}
@@ -0,0 +1,182 @@
+package cdx.opencdx.adr.service;
+
+import cdx.opencdx.adr.dto.ADRQuery;
+import cdx.opencdx.adr.dto.Query;
+import cdx.opencdx.adr.dto.Report;
+import cdx.opencdx.adr.model.QueryCacheChangeModel;
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.repository.QueryCacheChangeRepository;
+import cdx.opencdx.adr.service.QueryResultCacheService.Lookup;
+import cdx.opencdx.adr.service.impl.QueryResultCacheServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks when cached query reports are reused.  The concepts and participants are {@code new UUID(0, n)}, whose stripe
+ * is {@code n} with the default 1024 stripes, so each has a stripe of its own.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class QueryResultCacheServiceTest {
+
+    private static final UUID CONCEPT = new UUID(0, 101);
+
+    private static final UUID OTHER_CONCEPT = new UUID(0, 102);
+
+    private static final UUID PARTICIPANT = new UUID(0, 103);
+
+    private static final UUID OTHER_PARTICIPANT = new UUID(0, 104);
+
+    @Autowired
+    private QueryResultCacheServiceImpl cache;
+
+    @Autowired
+    private QueryCacheChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void storedReportIsReused() {
+        ADRQuery query = query();
+        Lookup lookup = this.cache.lookup(query);
+        assertNull(lookup.report());
+
+        Report report = report();
+        this.cache.store(lookup, List.of(CONCEPT), false, List.of(PARTICIPANT), report);
+        assertSame(report, this.cache.lookup(query).report());
+    }
+
+    @Test
+    void statementOfQueriedConceptDropsReport() {
+        ADRQuery query = this.cached(false);
+
+        this.inTransaction(() -> this.cache.statementStored(List.of(OTHER_CONCEPT), OTHER_PARTICIPANT));
+        assertNotNull(this.cache.lookup(query).report());
+
+        this.inTransaction(() -> this.cache.statementStored(List.of(OTHER_CONCEPT, CONCEPT), OTHER_PARTICIPANT));
+        assertNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void statementOfListedParticipantDropsReport() {
+        ADRQuery query = this.cached(false);
+        this.inTransaction(() -> this.cache.statementStored(List.of(OTHER_CONCEPT), PARTICIPANT));
+        assertNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void rolledBackStatementKeepsReport() {
+        ADRQuery query = this.cached(false);
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+            this.cache.statementStored(List.of(CONCEPT), PARTICIPANT);
+            status.setRollbackOnly();
+        });
+        assertNotNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void statementCommittedWhileQueryRanIsNotCached() {
+        ADRQuery query = query();
+        Lookup lookup = this.cache.lookup(query);
+        this.cache.statementStored(List.of(CONCEPT), null);
+        this.cache.store(lookup, List.of(CONCEPT), false, List.of(PARTICIPANT), report());
+        assertNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void statementStoredByAnotherNodeDropsReport() {
+        ADRQuery query = this.cached(false);
+        // Another node only shares the database, so record the change of the concept's stripe there directly
+        this.inTransaction(() -> this.changeRepository.save(new QueryCacheChangeModel(null, 101)));
+        assertNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void foldingChangesKeepsCurrentReports() {
+        this.cache.foldChanges();
+        this.inTransaction(() -> this.cache.statementStored(List.of(CONCEPT), PARTICIPANT));
+        ADRQuery query = this.cached(false);
+
+        // The folded versions equal the versions counted from the changes
+        this.cache.foldChanges();
+        assertEquals(0, this.changeRepository.count());
+        assertNotNull(this.cache.lookup(query).report());
+
+        // Changes after a fold still count
+        this.inTransaction(() -> this.cache.statementStored(List.of(CONCEPT), null));
+        assertNull(this.cache.lookup(query).report());
+    }
+
+    @Test
+    void invalidateAllDropsReportsAndRunningQueries() {
+        ADRQuery cached = this.cached(false);
+        ADRQuery running = query();
+        Lookup lookup = this.cache.lookup(running);
+
+        this.cache.invalidateAll();
+        assertNull(this.cache.lookup(cached).report());
+
+        // A query started before the reset may have read the state it replaced
+        this.cache.store(lookup, List.of(OTHER_CONCEPT), false, List.of(OTHER_PARTICIPANT), report());
+        assertNull(this.cache.lookup(running).report());
+
+        // Reports read after the reset are cached again
+        ADRQuery after = this.cached(false);
+        assertNotNull(this.cache.lookup(after).report());
+    }
+
+    @Test
+    void hierarchyChangeDropsExpandedReportsOnly() {
+        ADRQuery expanded = this.cached(true);
+        ADRQuery self = this.cached(false);
+
+        this.inTransaction(() -> this.cache.hierarchyChanged());
+        assertNull(this.cache.lookup(expanded).report());
+        assertNotNull(this.cache.lookup(self).report());
+    }
+
+    /**
+     * Runs a new query on {@link #CONCEPT} listing {@link #PARTICIPANT} and caches its report.
+     */
+    private ADRQuery cached(boolean expanded) {
+        ADRQuery query = query();
+        this.cache.store(this.cache.lookup(query), List.of(CONCEPT), expanded, List.of(PARTICIPANT), report());
+        assertNotNull(this.cache.lookup(query).report());
+        return query;
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    /**
+     * Returns a query of its own, so each test starts without a cached report.
+     */
+    private static ADRQuery query() {
+        TinkarConceptModel concept = new TinkarConceptModel();
+        concept.setConceptId(UUID.randomUUID());
+        Query query = new Query();
+        query.setConcept(concept);
+        ADRQuery adrQuery = new ADRQuery();
+        adrQuery.setQueries(List.of(query));
+        return adrQuery;
+    }
+
+    private static Report report() {
+        return Report.builder().headers(List.of("Participant")).rows(List.of()).build();
+    }
+}
@@ -0,0 +1,134 @@
+package cdx.opencdx.adr.service.impl;
+
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import cdx.opencdx.adr.repository.TinkarConceptRepository;
+import cdx.opencdx.adr.service.ConceptHierarchyService;
+import cdx.opencdx.adr.service.IKMInterface;
+import cdx.opencdx.adr.service.QueryResultCacheService;
+import cdx.opencdx.adr.utils.IngestionMetrics;
+import cdx.opencdx.grpc.data.LogicalExpression;
+import dev.ikm.tinkar.common.id.PublicId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolves concepts against a mocked IKM whose {@code getPublicId} behaves like {@link IKMInterfaceImpl}: the
+ * identifier of a description is only parsed as a UUID when it is read, so free text fails there.
+ */
+class OpenCDXIKMServiceImplTest {
+
+    private static final UUID FIRST = new UUID(0, 1);
+
+    private static final UUID SECOND = new UUID(0, 2);
+
+    private static final Map<UUID, String> NAMES = Map.of(FIRST, "First", SECOND, "Second");
+
+    private final TinkarConceptRepository conceptRepository = mock(TinkarConceptRepository.class);
+
+    private final IKMInterface ikmInterface = mock(IKMInterface.class);
+
+    private OpenCDXIKMServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(this.ikmInterface.isReady()).thenReturn(true);
+        when(this.ikmInterface.getPublicId(anyString())).thenAnswer(invocation -> lazyPublicId(invocation.getArgument(0)));
+        when(this.ikmInterface.descriptionsOf(anyList())).thenAnswer(invocation -> {
+            List<PublicId> publicIds = invocation.getArgument(0);
+            return publicIds.stream().map(publicId -> NAMES.getOrDefault(publicId.asUuidArray()[0], "")).toList();
+        });
+        // Two slices of two and one concepts
+        this.service = new OpenCDXIKMServiceImpl(this.conceptRepository, this.ikmInterface, transactionManager,
+                new IngestionMetrics(new SimpleMeterRegistry()), 100, mock(ConceptHierarchyService.class), false, 500, 2,
+                mock(QueryResultCacheService.class));
+    }
+
+    @Test
+    void textConceptDoesNotFailItsBatch() {
+        TinkarConceptModel first = concept(1L, FIRST, FIRST.toString());
+        TinkarConceptModel text = concept(2L, OpenCDXIKMServiceImpl.conceptIdOf("blood pressure"), "blood pressure");
+        TinkarConceptModel second = concept(3L, SECOND, SECOND.toString());
+        List<TinkarConceptModel> concepts = List.of(first, text, second);
+        when(this.conceptRepository.findAllBySyncFalse()).thenReturn(concepts);
+        when(this.conceptRepository.findAllByConceptIdIn(anyList())).thenReturn(List.of());
+        when(this.conceptRepository.findAllById(any())).thenAnswer(invocation -> {
+            Set<Long> ids = new HashSet<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+            return concepts.stream().filter(concept -> ids.contains(concept.getId())).toList();
+        });
+
+        this.service.syncConcepts();
+
+        assertTrue(first.isSync());
+        assertEquals("First", first.getConceptName());
+        assertTrue(second.isSync());
+        assertEquals("Second", second.getConceptName());
+        assertFalse(text.isSync());
+        assertEquals(OpenCDXIKMServiceImpl.conceptIdOf("blood pressure"), text.getConceptId());
+    }
+
+    @Test
+    void newTextConceptIsStoredWithoutIkm() {
+        UUID derived = OpenCDXIKMServiceImpl.conceptIdOf("blood pressure");
+        when(this.conceptRepository.insertIfAbsent(any(), any(), any(), eq(false))).thenReturn(1);
+        when(this.conceptRepository.findByConceptId(derived)).thenReturn(concept(1L, derived, "blood pressure"));
+
+        TinkarConceptModel concept = this.service.getInkarConceptModel(LogicalExpression.newBuilder().setExpression("blood pressure").build());
+
+        assertEquals(derived, concept.getConceptId());
+        verify(this.conceptRepository).insertIfAbsent(derived, "blood pressure", "blood pressure", false);
+        verify(this.ikmInterface, never()).getPublicId(anyString());
+    }
+
+    private static TinkarConceptModel concept(Long id, UUID conceptId, String description) {
+        TinkarConceptModel concept = new TinkarConceptModel();
+        concept.setId(id);
+        concept.setConceptId(conceptId);
+        concept.setConceptDescription(description);
+        concept.setConceptName(description);
+        concept.setSync(false);
+        return concept;
+    }
+
+    private static PublicId lazyPublicId(String description) {
+        return new PublicId() {
+            @Override
+            public UUID[] asUuidArray() {
+                return new UUID[]{UUID.fromString(description)};
+            }
+
+            @Override
+            public int uuidCount() {
+                return 1;
+            }
+
+            @Override
+            public void forEach(LongConsumer longConsumer) {
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package cdx.opencdx.adr.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+
+    private static final int PROBES = 200_000;
+
+    @Test
+    void falsePositiveRateOfRandomUuids() {
+        Random random = new Random(42);
+        IntFunction<UUID> uuids = i -> new UUID(random.nextLong(), random.nextLong());
+        for (double rate : new double[]{0.01, 0.001}) {
+            assertFalsePositiveRate(rate, uuids);
+        }
+    }
+
+    @Test
+    void falsePositiveRateOfNameBasedUuids() {
+        // Name based UUIDs share their version and variant bits, the filter must not depend on those
+        assertFalsePositiveRate(0.01, i -> UUID.nameUUIDFromBytes(("statement " + i).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void falsePositiveRateOfSequentialUuids() {
+        assertFalsePositiveRate(0.01, i -> new UUID(0, i));
+    }
+
+    @Test
+    void concurrentInsertionsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < INSERTIONS; i++) {
+            added.add(new UUID(0, i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < added.size(); i += 8) {
+                        filter.put(added.get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        added.forEach(uuid -> assertTrue(filter.mightContain(uuid), uuid::toString));
+    }
+
+    /**
+     * Fills a filter with the configured number of UUIDs and checks that all of them are found, and that UUIDs never
+     * added are reported at no more than 1.5 times the configured false positive rate.
+     */
+    private static void assertFalsePositiveRate(double rate, IntFunction<UUID> uuids) {
+        BloomFilter filter = new BloomFilter(INSERTIONS, rate);
+        List<UUID> added = new ArrayList<>(INSERTIONS);
+        for (int i = 0; i < INSERTIONS; i++) {
+            UUID uuid = uuids.apply(i);
+            filter.put(uuid);
+            added.add(uuid);
+        }
+        added.forEach(uuid -> assertTrue(filter.mightContain(uuid), uuid::toString));
+
+        int falsePositives = 0;
+        for (int i = INSERTIONS; i < INSERTIONS + PROBES; i++) {
+            if (filter.mightContain(uuids.apply(i))) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / PROBES;
+        assertTrue(measured <= rate * 1.5, "false positive rate " + measured + " exceeds " + rate);
+    }
+}
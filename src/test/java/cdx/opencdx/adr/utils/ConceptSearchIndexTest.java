@@ -0,0 +1,132 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.model.TinkarConceptModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConceptSearchIndexTest {
+
+    private final ConceptSearchIndex index = new ConceptSearchIndex();
+
+    @Test
+    void exactWordRanksAboveWordPrefix() {
+        this.add(1, "Heartbeat irregular", null);
+        this.add(2, "Heart rate", null);
+        assertEquals(List.of("Heart rate", "Heartbeat irregular"), this.search("heart"));
+    }
+
+    @Test
+    void namePrefixRanksFirst() {
+        this.add(1, "Systolic blood pressure", null);
+        this.add(2, "Blood pressure", null);
+        this.add(3, "Diastolic blood pressure", null);
+        assertEquals(List.of("Blood pressure", "Systolic blood pressure", "Diastolic blood pressure"), this.search("Blood Pressure"));
+    }
+
+    @Test
+    void tiesAreOrderedByNameLengthThenName() {
+        this.add(1, "Pressure of venous blood", null);
+        this.add(2, "Pressure of arterial blood", null);
+        this.add(3, "Pressure of blood", null);
+        assertEquals(List.of("Pressure of blood", "Pressure of venous blood", "Pressure of arterial blood"), this.search("blood"));
+    }
+
+    @Test
+    void everyWordMustPrefixAWord() {
+        this.add(1, "Systolic blood pressure", null);
+        this.add(2, "Blood glucose", null);
+        assertEquals(List.of("Systolic blood pressure"), this.search("sys pres"));
+        assertEquals(List.of("Blood glucose"), this.search("glu bl"));
+    }
+
+    @Test
+    void descriptionsAreSearched() {
+        this.add(1, "Heart rate", "8867-4 | LOINC");
+        assertEquals(List.of("Heart rate"), this.search("8867"));
+        assertEquals(List.of("Heart rate"), this.search("loinc heart"));
+    }
+
+    @Test
+    void trigramsTolerateTypos() {
+        this.add(1, "Systolic blood pressure", null);
+        this.add(2, "Blood pressure", null);
+        this.add(3, "Heart rate", null);
+        assertEquals(List.of("Blood pressure", "Systolic blood pressure"), this.search("presure"));
+    }
+
+    @Test
+    void trigramsMatchInsideWords() {
+        this.add(1, "Blood glucose", null);
+        this.add(2, "Body weight", null);
+        assertEquals(List.of("Blood glucose"), this.search("ucose"));
+        assertEquals(List.of(), this.search("zzzz"));
+    }
+
+    @Test
+    void prefixMatchesSuppressTrigramMatches() {
+        this.add(1, "Heart rate", null);
+        this.add(2, "Hearing loss", null);
+        assertEquals(List.of("Hearing loss"), this.search("hearing"));
+    }
+
+    @Test
+    void reindexingReplacesTheConcept() {
+        this.add(1, "Heart rate", "heart");
+        this.add(1, "Pulse rate", "pulse");
+
+        assertEquals(1, this.index.size());
+        assertEquals(List.of(), this.search("heart"));
+        assertEquals(List.of(), this.search("hear"));
+        assertEquals(List.of("Pulse rate"), this.search("pulse"));
+        assertEquals(List.of("Pulse rate"), this.search("rate"));
+    }
+
+    @Test
+    void reindexingKeepsSharedWordsOfOtherConcepts() {
+        this.add(1, "Heart rate", null);
+        this.add(2, "Respiratory rate", null);
+        this.add(1, "Pulse", null);
+        assertEquals(List.of("Respiratory rate"), this.search("rate"));
+    }
+
+    @Test
+    void unsavedConceptsAndBlankSearchesAreIgnored() {
+        this.index.add(new TinkarConceptModel(UUID.randomUUID(), "Heart rate", null, false));
+        this.index.add(null);
+        assertEquals(0, this.index.size());
+
+        this.add(1, "Heart rate", null);
+        assertEquals(List.of(), this.search(""));
+        assertEquals(List.of(), this.search(" -- "));
+        assertEquals(List.of(), this.index.search("heart", 0));
+    }
+
+    @Test
+    void limitAndCopies() {
+        for (int i = 0; i < 20; i++) {
+            this.add(i, "Rate " + i, null);
+        }
+        List<TinkarConceptModel> results = this.index.search("rate", 5);
+        assertEquals(5, results.size());
+        results.forEach(concept -> {
+            assertNull(concept.getId());
+            assertTrue(concept.getConceptName().startsWith("Rate "));
+        });
+    }
+
+    private void add(long id, String name, String description) {
+        TinkarConceptModel concept = new TinkarConceptModel(UUID.nameUUIDFromBytes(name.getBytes()), name, description, true);
+        concept.setId(id);
+        this.index.add(concept);
+    }
+
+    private List<String> search(String search) {
+        return this.index.search(search, 10).stream().map(TinkarConceptModel::getConceptName).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package cdx.opencdx.adr.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdentifierIndexTest {
+
+    private static final UUID FIRST = UUID.fromString("0df076fd-ed02-44bd-a311-b5764c53258c");
+
+    private static final UUID SECOND = UUID.fromString("8f2c1e6a-3b4d-4c5e-9f60-7a8b9c0d1e2f");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() throws IOException {
+        IdentifierIndex index = new IdentifierIndex();
+        index.put("(01)00884838030406", new UUID[]{FIRST});
+        index.put("device \u00e9\u4e2d", new UUID[]{FIRST, SECOND});
+        index.put("no uuids", new UUID[0]);
+        for (int i = 0; i < 1000; i++) {
+            index.put("device " + i, new UUID[]{new UUID(i, -i)});
+        }
+
+        Path file = this.directory.resolve("devices.idx");
+        index.save(file, "fingerprint-1");
+        IdentifierIndex loaded = IdentifierIndex.load(file, "fingerprint-1");
+
+        assertNotNull(loaded);
+        assertEquals(index.size(), loaded.size());
+        assertArrayEquals(new UUID[]{FIRST}, loaded.get("(01)00884838030406"));
+        assertArrayEquals(new UUID[]{FIRST, SECOND}, loaded.get("device \u00e9\u4e2d"));
+        assertArrayEquals(new UUID[0], loaded.get("no uuids"));
+        assertArrayEquals(new UUID[]{new UUID(999, -999)}, loaded.get("device 999"));
+        assertNull(loaded.get("unknown"));
+        assertFalse(Files.exists(file.resolveSibling("devices.idx.tmp")));
+    }
+
+    @Test
+    void saveReplacesExistingFile() throws IOException {
+        Path file = this.directory.resolve("devices.idx");
+        IdentifierIndex first = new IdentifierIndex();
+        first.put("old", new UUID[]{FIRST});
+        first.save(file, "fingerprint-1");
+
+        IdentifierIndex second = new IdentifierIndex();
+        second.put("new", new UUID[]{SECOND});
+        second.save(file, "fingerprint-2");
+
+        IdentifierIndex loaded = IdentifierIndex.load(file, "fingerprint-2");
+        assertNotNull(loaded);
+        assertEquals(1, loaded.size());
+        assertArrayEquals(new UUID[]{SECOND}, loaded.get("new"));
+        assertNull(loaded.get("old"));
+    }
+
+    @Test
+    void fingerprintMismatchIsNotLoaded() throws IOException {
+        Path file = this.directory.resolve("devices.idx");
+        IdentifierIndex index = new IdentifierIndex();
+        index.put("device", new UUID[]{FIRST});
+        index.save(file, "fingerprint-1");
+
+        assertNull(IdentifierIndex.load(file, "fingerprint-2"));
+        assertNull(IdentifierIndex.load(file, ""));
+        assertNull(IdentifierIndex.load(file, null));
+        assertNotNull(IdentifierIndex.load(file, "fingerprint-1"));
+    }
+
+    @Test
+    void missingOrDamagedFileIsNotLoaded() throws IOException {
+        Path file = this.directory.resolve("devices.idx");
+        assertNull(IdentifierIndex.load(file, "fingerprint-1"));
+
+        Files.writeString(file, "not an index");
+        assertNull(IdentifierIndex.load(file, "fingerprint-1"));
+
+        IdentifierIndex index = new IdentifierIndex();
+        index.put("device", new UUID[]{FIRST, SECOND});
+        index.save(file, "fingerprint-1");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertNull(IdentifierIndex.load(file, "fingerprint-1"));
+    }
+
+    @Test
+    void laterIdentifierReplacesEarlier() {
+        IdentifierIndex index = new IdentifierIndex();
+        index.put("device", new UUID[]{FIRST});
+        index.put("device", new UUID[]{SECOND});
+        assertEquals(1, index.size());
+        assertArrayEquals(new UUID[]{SECOND}, index.get("device"));
+    }
+
+    @Test
+    void oversizedIdentifiersAreNotIndexed() throws IOException {
+        IdentifierIndex index = new IdentifierIndex();
+        index.put(null, new UUID[]{FIRST});
+        index.put("x".repeat(16385), new UUID[]{FIRST});
+        index.put("many", new UUID[256]);
+        index.put("\u4e2d".repeat(16384), new UUID[]{FIRST});
+        assertEquals(1, index.size());
+
+        Path file = this.directory.resolve("devices.idx");
+        index.save(file, "fingerprint-1");
+        IdentifierIndex loaded = IdentifierIndex.load(file, "fingerprint-1");
+        assertNotNull(loaded);
+        assertArrayEquals(new UUID[]{FIRST}, loaded.get("\u4e2d".repeat(16384)));
+    }
+}
@@ -0,0 +1,77 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.utils.LogicalExpressionParser.Kind;
+import cdx.opencdx.adr.utils.LogicalExpressionParser.ParsedExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LogicalExpressionParserTest {
+
+    private static final UUID CONCEPT = UUID.fromString("0df076fd-ed02-44bd-a311-b5764c53258c");
+
+    @Test
+    void emptyExpressions() {
+        for (String expression : new String[]{null, "", "   "}) {
+            ParsedExpression parsed = LogicalExpressionParser.parse(expression);
+            assertEquals(Kind.EMPTY, parsed.kind());
+            assertNull(parsed.uuid());
+        }
+    }
+
+    @Test
+    void uuidExpressions() {
+        assertUuid(CONCEPT.toString());
+        assertUuid(CONCEPT.toString().toUpperCase());
+        assertUuid("Systolic blood pressure (" + CONCEPT + ")");
+    }
+
+    @Test
+    void malformedUuidsAreText() {
+        assertEquals(Kind.TEXT, LogicalExpressionParser.parse("0df076fd-ed02-44bd-a311-b5764c53258").kind());
+        assertEquals(Kind.TEXT, LogicalExpressionParser.parse("0df076fd-ed02-44bd-a311_b5764c53258c").kind());
+        assertEquals(Kind.TEXT, LogicalExpressionParser.parse("0df076fd-ed02-44bd-a311-b5764c53258g").kind());
+        assertNull(LogicalExpressionParser.findUuid("UUID (PatientId)"));
+    }
+
+    @Test
+    void jsonExpressions() {
+        ParsedExpression parsed = LogicalExpressionParser.parse(
+                "{\"expressionType\":\"simple\",\"expressionLanguage\":\"local\",\"expressionValue\":\"performed\",\"expressionDescription\":\"Measurement action has been performed.\"}");
+        assertEquals(Kind.TEXT, parsed.kind());
+        assertEquals("performed", parsed.value());
+        assertEquals("Measurement action has been performed.", parsed.description());
+
+        parsed = LogicalExpressionParser.parse("{\"expressionValue\":\"255585003\"}");
+        assertEquals(Kind.TEXT, parsed.kind());
+        assertEquals("255585003", parsed.value());
+        assertNull(parsed.description());
+
+        parsed = LogicalExpressionParser.parse("{\"expressionValue\":\"" + CONCEPT + "\"}");
+        assertEquals(Kind.UUID, parsed.kind());
+        assertEquals(CONCEPT, parsed.uuid());
+    }
+
+    @Test
+    void invalidJsonIsText() {
+        for (String expression : new String[]{
+                "{\"expressionValue\":\"performed\"",
+                "{\"expressionValue\":\"\"}",
+                "{\"expressionValue\":{\"nested\":true}}",
+                "{\"expressionType\":\"simple\"}"}) {
+            ParsedExpression parsed = LogicalExpressionParser.parse(expression);
+            assertEquals(Kind.TEXT, parsed.kind(), expression);
+            assertEquals(expression, parsed.value());
+        }
+    }
+
+    private static void assertUuid(String expression) {
+        ParsedExpression parsed = LogicalExpressionParser.parse(expression);
+        assertEquals(Kind.UUID, parsed.kind(), expression);
+        assertEquals(CONCEPT, parsed.uuid());
+        assertEquals(expression, parsed.value());
+    }
+}
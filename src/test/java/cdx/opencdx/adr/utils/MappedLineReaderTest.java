@@ -0,0 +1,92 @@
+package cdx.opencdx.adr.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MappedLineReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void crlfTerminatorsAreRemoved() throws IOException {
+        Path file = this.write("first\r\nsecond\r\n\r\nthird\r\n");
+        assertEquals(List.of("first", "second", "third"), this.readAll(file, 1 << 20));
+    }
+
+    @Test
+    void finalLineWithoutNewline() throws IOException {
+        Path file = this.write("first\nlast");
+        try (MappedLineReader reader = new MappedLineReader(file, 0)) {
+            assertEquals("first", reader.readLine());
+            assertEquals(6, reader.position());
+            assertEquals("last", reader.readLine());
+            assertEquals(6, reader.lineOffset());
+            assertEquals(reader.size(), reader.position());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void finalCarriageReturnWithoutNewline() throws IOException {
+        assertEquals(List.of("first", "last"), this.readAll(this.write("first\nlast\r"), 1 << 20));
+    }
+
+    @Test
+    void linesSpanningRegionBoundaries() throws IOException {
+        String text = "0123456\n0123456789abcdef\r\nxy\n" + "z".repeat(50) + "\n\n" + "\u00e9".repeat(7) + "\ntail";
+        List<String> expected = List.of("0123456", "0123456789abcdef", "xy", "z".repeat(50), "\u00e9".repeat(7), "tail");
+        Path file = this.write(text);
+        for (int regionSize = 1; regionSize <= 16; regionSize++) {
+            assertEquals(expected, this.readAll(file, regionSize), "region size " + regionSize);
+        }
+    }
+
+    @Test
+    void reopenAtPosition() throws IOException {
+        Path file = this.write("first\r\nsecond\nthird\n");
+        long position;
+        try (MappedLineReader reader = new MappedLineReader(file, 0, 4)) {
+            reader.readLine();
+            assertEquals("second", reader.readLine());
+            position = reader.position();
+        }
+        try (MappedLineReader reader = new MappedLineReader(file, position)) {
+            assertEquals("third", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        try (MappedLineReader reader = new MappedLineReader(this.write(""), 0)) {
+            assertNull(reader.readLine());
+        }
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = Files.createTempFile(this.directory, "lines", ".jsonl");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private List<String> readAll(Path file, int regionSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader reader = new MappedLineReader(file, 0, regionSize)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
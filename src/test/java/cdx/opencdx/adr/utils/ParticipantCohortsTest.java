@@ -0,0 +1,99 @@
+package cdx.opencdx.adr.utils;
+
+import cdx.opencdx.adr.model.AnfStatementModel;
+import cdx.opencdx.adr.model.ParticipantModel;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParticipantCohortsTest {
+
+    private static final UUID FIRST = new UUID(0, 1);
+
+    private static final UUID SECOND = new UUID(0, 2);
+
+    private static final UUID THIRD = new UUID(0, 3);
+
+    private final ParticipantCohorts cohorts = new ParticipantCohorts();
+
+    @Test
+    void ordinalsAreDenseInOrderOfFirstSight() {
+        assertEquals(0, this.cohorts.ordinalOf(SECOND));
+        assertEquals(1, this.cohorts.ordinalOf(FIRST));
+        assertEquals(0, this.cohorts.ordinalOf(SECOND));
+        assertEquals(2, this.cohorts.ordinalOf(THIRD));
+        assertEquals(1, this.cohorts.ordinalOf(FIRST));
+    }
+
+    @Test
+    void cohortOfStatements() {
+        RoaringBitmap cohort = this.cohorts.cohortOf(List.of(statement(1L, THIRD), statement(2L, FIRST), statement(3L, THIRD)));
+        assertEquals(2, cohort.getCardinality());
+        assertEquals(List.of(THIRD, FIRST), this.cohorts.participantsOf(cohort));
+        assertTrue(this.cohorts.contains(cohort, statement(4L, FIRST)));
+        assertFalse(this.cohorts.contains(cohort, statement(5L, SECOND)));
+    }
+
+    @Test
+    void assignedStatementsKeepTheirOrdinal() {
+        this.cohorts.assign(1L, FIRST);
+        this.cohorts.assign(2L, SECOND);
+        // The subject is not loaded again for an assigned statement
+        RoaringBitmap cohort = this.cohorts.cohortOf(List.of(statement(2L, null)));
+        assertEquals(List.of(SECOND), this.cohorts.participantsOf(cohort));
+        assertTrue(this.cohorts.contains(cohort, statement(2L, null)));
+        assertFalse(this.cohorts.contains(cohort, statement(1L, null)));
+    }
+
+    @Test
+    void unsavedStatementsUseTheirSubject() {
+        this.cohorts.assign(1L, FIRST);
+        RoaringBitmap cohort = this.cohorts.cohortOf(List.of(statement(null, SECOND)));
+        assertEquals(List.of(SECOND), this.cohorts.participantsOf(cohort));
+    }
+
+    @Test
+    void andJoin() {
+        RoaringBitmap left = this.cohorts.cohortOf(List.of(statement(1L, FIRST), statement(2L, SECOND)));
+        RoaringBitmap right = this.cohorts.cohortOf(List.of(statement(3L, SECOND), statement(4L, THIRD)));
+        RoaringBitmap joined = RoaringBitmap.and(left, right);
+        assertEquals(List.of(SECOND), this.cohorts.participantsOf(joined));
+        assertTrue(this.cohorts.contains(joined, statement(2L, SECOND)));
+        assertFalse(this.cohorts.contains(joined, statement(1L, FIRST)));
+        assertFalse(this.cohorts.contains(joined, statement(4L, THIRD)));
+    }
+
+    @Test
+    void orJoin() {
+        RoaringBitmap left = this.cohorts.cohortOf(List.of(statement(1L, THIRD)));
+        RoaringBitmap right = this.cohorts.cohortOf(List.of(statement(2L, FIRST), statement(3L, THIRD)));
+        RoaringBitmap joined = RoaringBitmap.or(left, right);
+        // Participants are listed in the order they were first seen, not in the order of the join
+        assertEquals(List.of(THIRD, FIRST), this.cohorts.participantsOf(joined));
+        assertEquals(List.of(), this.cohorts.participantsOf(RoaringBitmap.and(this.cohorts.cohortOf(List.of(statement(4L, SECOND))), left)));
+    }
+
+    @Test
+    void emptyCohort() {
+        RoaringBitmap cohort = this.cohorts.cohortOf(List.of());
+        assertTrue(cohort.isEmpty());
+        assertEquals(List.of(), this.cohorts.participantsOf(cohort));
+    }
+
+    private static AnfStatementModel statement(Long id, UUID participant) {
+        AnfStatementModel statement = new AnfStatementModel();
+        statement.setId(id);
+        if (participant != null) {
+            ParticipantModel subject = new ParticipantModel();
+            subject.setPartId(participant);
+            statement.setSubjectOfRecord(subject);
+        }
+        return statement;
+    }
+}